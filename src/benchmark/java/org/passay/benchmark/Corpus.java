@@ -0,0 +1,99 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.passay.dictionary.ArrayWordList;
+import org.passay.dictionary.WordList;
+import org.passay.dictionary.WordLists;
+import org.passay.dictionary.sort.ArraysSort;
+
+/**
+ * Loads the word lists bundled with the test resources for use by benchmarks. The directory containing the corpora
+ * defaults to src/test/resources and may be changed with the passay.corpus.dir system property.
+ *
+ * @author  Middleware Services
+ */
+public final class Corpus
+{
+
+  /** Directory containing the corpora. */
+  public static final String DIRECTORY = System.getProperty("passay.corpus.dir", "src/test/resources");
+
+  /** Passwords of varying length and composition used as benchmark input. */
+  public static final String[] PASSWORDS = {
+    "password",
+    "p4ssw0rd",
+    "aBcD3FgH1Jk",
+    "Tr0ub4dor&3",
+    "qwerty123456",
+    "abcdefgh",
+    "correct horse battery staple",
+    "zymurgy!X9",
+    "N3w#Hampsh1re",
+    "1a2b3c4d5e6f",
+    "Ju$tAn0therP@ssphrase",
+    "sdfghjkl",
+    "AAAAbbbb1111",
+    "8675309jenny",
+    "MaNiPuLaR2017!",
+    "x",
+  };
+
+
+  /** Default constructor. */
+  private Corpus() {}
+
+
+  /**
+   * Reads the named corpus into a sorted word list.
+   *
+   * @param  name  of the corpus file, e.g. freebsd
+   * @param  caseSensitive  whether the word list should be case sensitive
+   *
+   * @return  sorted word list
+   *
+   * @throws  IOException  if the corpus cannot be read
+   */
+  public static ArrayWordList load(final String name, final boolean caseSensitive)
+    throws IOException
+  {
+    try (Reader reader = new InputStreamReader(
+        new FileInputStream(new File(DIRECTORY, name)), StandardCharsets.UTF_8)) {
+      return WordLists.createFromReader(new Reader[] {reader}, caseSensitive, new ArraysSort());
+    }
+  }
+
+
+  /**
+   * Writes the supplied word list to a temporary file, one word per line, which is deleted on exit.
+   *
+   * @param  wordList  to write
+   *
+   * @return  file containing the word list
+   *
+   * @throws  IOException  if the file cannot be written
+   */
+  public static File write(final WordList wordList)
+    throws IOException
+  {
+    final File file = Files.createTempFile("passay-benchmark", ".txt").toFile();
+    file.deleteOnExit();
+    try (Writer writer = new BufferedWriter(
+        new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8))) {
+      for (int i = 0; i < wordList.size(); i++) {
+        writer.write(wordList.get(i));
+        writer.write('\n');
+      }
+    }
+    return file;
+  }
+}
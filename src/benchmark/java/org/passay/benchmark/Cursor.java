@@ -0,0 +1,35 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per thread position used by benchmarks to cycle through their inputs.
+ *
+ * @author  Middleware Services
+ */
+@State(Scope.Thread)
+public class Cursor
+{
+
+  /** Index of the next input. */
+  private int index;
+
+
+  /**
+   * Returns the next value, wrapping around to the first value after the last.
+   *
+   * @param  <T>  type of value
+   * @param  values  to cycle through
+   *
+   * @return  next value
+   */
+  public <T> T next(final T[] values)
+  {
+    if (index >= values.length) {
+      index = 0;
+    }
+    return values[index++];
+  }
+}
@@ -0,0 +1,185 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.passay.dictionary.AbstractFileWordList;
+import org.passay.dictionary.AhoCorasickDictionary;
+import org.passay.dictionary.ArrayWordList;
+import org.passay.dictionary.BinaryFileWordList;
+import org.passay.dictionary.BloomFilterDictionary;
+import org.passay.dictionary.CompactTernaryTreeDictionary;
+import org.passay.dictionary.Dictionary;
+import org.passay.dictionary.FileWordList;
+import org.passay.dictionary.MemoryMappedFileWordList;
+import org.passay.dictionary.TernaryTreeDictionary;
+import org.passay.dictionary.WordListDictionary;
+
+/**
+ * Measures {@link Dictionary#search(String)} for each dictionary implementation over the bundled corpora. Searches
+ * alternate between words in the corpus and {@link Corpus#PASSWORDS}, most of which are not.
+ *
+ * @author  Middleware Services
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DictionaryBenchmark
+{
+
+  /** Number of corpus words to search for. */
+  private static final int SAMPLE_SIZE = 1024;
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Corpus to load. */
+  @Param({"freebsd", "eign", "dict-enUS.txt"})
+  public String corpus;
+
+  /** Dictionary implementation to search. */
+  @Param({
+    "WordListDictionary",
+    "FileWordList",
+    "MemoryMappedFileWordList",
+    "BinaryFileWordList",
+    "TernaryTreeDictionary",
+    "CompactTernaryTreeDictionary",
+    "AhoCorasickDictionary",
+    "BloomFilterDictionary",
+  })
+  public String dictionary;
+  // CheckStyle:VisibilityModifier ON
+
+  /** Dictionary under test. */
+  private Dictionary dict;
+
+  /** Words to search for. */
+  private String[] words;
+
+  /** Resources to close after the trial. */
+  private final List<Object> closeables = new ArrayList<>();
+
+
+  /**
+   * Builds the dictionary under test.
+   *
+   * @throws  IOException  if the corpus cannot be read
+   */
+  @Setup
+  public void setup() throws IOException
+  {
+    final ArrayWordList awl = Corpus.load(corpus, true);
+    dict = createDictionary(awl);
+
+    final List<String> sample = new ArrayList<>();
+    final int step = Math.max(1, awl.size() / SAMPLE_SIZE);
+    for (int i = 0; i < awl.size(); i += step) {
+      sample.add(awl.get(i));
+      sample.add(Corpus.PASSWORDS[sample.size() % Corpus.PASSWORDS.length]);
+    }
+    words = sample.toArray(new String[sample.size()]);
+  }
+
+
+  /**
+   * Closes any files opened by {@link #setup()}.
+   *
+   * @throws  IOException  if a file cannot be closed
+   */
+  @TearDown
+  public void tearDown() throws IOException
+  {
+    for (Object o : closeables) {
+      if (o instanceof AbstractFileWordList) {
+        ((AbstractFileWordList) o).close();
+      } else if (o instanceof BinaryFileWordList) {
+        ((BinaryFileWordList) o).close();
+      }
+    }
+    closeables.clear();
+  }
+
+
+  /**
+   * Searches the dictionary for the next word.
+   *
+   * @param  cursor  position in the words to search for
+   *
+   * @return  whether the word was found
+   */
+  @Benchmark
+  public boolean search(final Cursor cursor)
+  {
+    return dict.search(cursor.next(words));
+  }
+
+
+  /**
+   * Creates the dictionary named by {@link #dictionary}.
+   *
+   * @param  awl  sorted corpus
+   *
+   * @return  dictionary
+   *
+   * @throws  IOException  if a backing file cannot be written or read
+   */
+  private Dictionary createDictionary(final ArrayWordList awl) throws IOException
+  {
+    final Dictionary d;
+    if ("WordListDictionary".equals(dictionary)) {
+      d = new WordListDictionary(awl);
+    } else if ("FileWordList".equals(dictionary)) {
+      final FileWordList fwl = new FileWordList(new RandomAccessFile(Corpus.write(awl), "r"));
+      closeables.add(fwl);
+      d = new WordListDictionary(fwl);
+    } else if ("MemoryMappedFileWordList".equals(dictionary)) {
+      final MemoryMappedFileWordList mwl = new MemoryMappedFileWordList(new RandomAccessFile(Corpus.write(awl), "r"));
+      closeables.add(mwl);
+      d = new WordListDictionary(mwl);
+    } else if ("BinaryFileWordList".equals(dictionary)) {
+      final File file = File.createTempFile("passay-benchmark", ".bin");
+      file.deleteOnExit();
+      BinaryFileWordList.write(awl, file);
+      final BinaryFileWordList bwl = new BinaryFileWordList(new RandomAccessFile(file, "r"));
+      closeables.add(bwl);
+      d = new WordListDictionary(bwl);
+    } else if ("TernaryTreeDictionary".equals(dictionary)) {
+      d = new TernaryTreeDictionary(awl);
+    } else if ("CompactTernaryTreeDictionary".equals(dictionary)) {
+      d = new CompactTernaryTreeDictionary(awl);
+    } else if ("AhoCorasickDictionary".equals(dictionary)) {
+      d = new AhoCorasickDictionary(awl);
+    } else if ("BloomFilterDictionary".equals(dictionary)) {
+      final BloomFilter<String> filter = BloomFilter.create(
+        Funnels.stringFunnel(StandardCharsets.UTF_8), awl.size(), 0.0001);
+      for (int i = 0; i < awl.size(); i++) {
+        filter.put(awl.get(i));
+      }
+      d = new BloomFilterDictionary(filter);
+    } else {
+      throw new IllegalArgumentException("Unknown dictionary " + dictionary);
+    }
+    return d;
+  }
+}
@@ -0,0 +1,105 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.passay.dictionary.AhoCorasickDictionary;
+import org.passay.dictionary.ArrayWordList;
+import org.passay.dictionary.CompactTernaryTreeDictionary;
+import org.passay.dictionary.Dictionary;
+import org.passay.dictionary.TernaryTreeDictionary;
+import org.passay.dictionary.WordListDictionary;
+import org.passay.logic.PasswordData;
+import org.passay.rule.DictionarySubstringRule;
+import org.passay.rule.result.RuleResult;
+
+/**
+ * Measures {@link DictionarySubstringRule#validate(PasswordData)} over the bundled corpora with the dictionary
+ * implementations suited to substring search.
+ *
+ * @author  Middleware Services
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DictionarySubstringRuleBenchmark
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Corpus to load. */
+  @Param({"freebsd", "eign", "dict-enUS.txt"})
+  public String corpus;
+
+  /** Dictionary implementation to search. */
+  @Param({"WordListDictionary", "TernaryTreeDictionary", "CompactTernaryTreeDictionary", "AhoCorasickDictionary"})
+  public String dictionary;
+
+  /** Whether the rule also matches reversed words. */
+  @Param({"false", "true"})
+  public boolean matchBackwards;
+  // CheckStyle:VisibilityModifier ON
+
+  /** Rule under test. */
+  private DictionarySubstringRule rule;
+
+  /** Passwords to validate. */
+  private PasswordData[] passwords;
+
+
+  /**
+   * Builds the rule under test.
+   *
+   * @throws  IOException  if the corpus cannot be read
+   */
+  @Setup
+  public void setup() throws IOException
+  {
+    final ArrayWordList awl = Corpus.load(corpus, false);
+    final Dictionary dict;
+    if ("WordListDictionary".equals(dictionary)) {
+      dict = new WordListDictionary(awl);
+    } else if ("TernaryTreeDictionary".equals(dictionary)) {
+      dict = new TernaryTreeDictionary(awl);
+    } else if ("CompactTernaryTreeDictionary".equals(dictionary)) {
+      dict = new CompactTernaryTreeDictionary(awl);
+    } else if ("AhoCorasickDictionary".equals(dictionary)) {
+      dict = new AhoCorasickDictionary(awl);
+    } else {
+      throw new IllegalArgumentException("Unknown dictionary " + dictionary);
+    }
+    rule = new DictionarySubstringRule(dict);
+    rule.setMatchBackwards(matchBackwards);
+    passwords = new PasswordData[Corpus.PASSWORDS.length];
+    for (int i = 0; i < passwords.length; i++) {
+      passwords[i] = new PasswordData(Corpus.PASSWORDS[i]);
+    }
+  }
+
+
+  /**
+   * Validates the next password.
+   *
+   * @param  cursor  position in the passwords to validate
+   *
+   * @return  rule result
+   */
+  @Benchmark
+  public RuleResult validate(final Cursor cursor)
+  {
+    return rule.validate(cursor.next(passwords));
+  }
+}
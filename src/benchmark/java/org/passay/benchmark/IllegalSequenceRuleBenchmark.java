@@ -0,0 +1,76 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.passay.data.sequence.EnglishSequenceData;
+import org.passay.logic.PasswordData;
+import org.passay.rule.IllegalSequenceRule;
+import org.passay.rule.result.RuleResult;
+
+/**
+ * Measures {@link IllegalSequenceRule#validate(PasswordData)} for each of the English sequences.
+ *
+ * @author  Middleware Services
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IllegalSequenceRuleBenchmark
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Sequence data to detect. */
+  @Param({"Alphabetical", "Numerical", "USQwerty"})
+  public EnglishSequenceData sequence;
+
+  /** Whether all sequences are reported rather than only the first. */
+  @Param({"false", "true"})
+  public boolean reportAll;
+  // CheckStyle:VisibilityModifier ON
+
+  /** Rule under test. */
+  private IllegalSequenceRule rule;
+
+  /** Passwords to validate. */
+  private PasswordData[] passwords;
+
+
+  /** Builds the rule under test. */
+  @Setup
+  public void setup()
+  {
+    rule = new IllegalSequenceRule(sequence, IllegalSequenceRule.DEFAULT_SEQUENCE_LENGTH, false, reportAll);
+    passwords = new PasswordData[Corpus.PASSWORDS.length];
+    for (int i = 0; i < passwords.length; i++) {
+      passwords[i] = new PasswordData(Corpus.PASSWORDS[i]);
+    }
+  }
+
+
+  /**
+   * Validates the next password.
+   *
+   * @param  cursor  position in the passwords to validate
+   *
+   * @return  rule result
+   */
+  @Benchmark
+  public RuleResult validate(final Cursor cursor)
+  {
+    return rule.validate(cursor.next(passwords));
+  }
+}
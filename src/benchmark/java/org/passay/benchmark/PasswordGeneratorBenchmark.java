@@ -0,0 +1,72 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.passay.data.character.EnglishCharacterData;
+import org.passay.generator.PasswordGenerator;
+import org.passay.rule.CharacterRule;
+
+/**
+ * Measures {@link PasswordGenerator#generatePassword(int, List)} with rules requiring each class of English characters.
+ *
+ * @author  Middleware Services
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordGeneratorBenchmark
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Length of generated passwords. */
+  @Param({"8", "16", "64"})
+  public int length;
+  // CheckStyle:VisibilityModifier ON
+
+  /** Generator under test. */
+  private PasswordGenerator generator;
+
+  /** Rules the generated passwords satisfy. */
+  private List<CharacterRule> rules;
+
+
+  /** Builds the generator under test. */
+  @Setup
+  public void setup()
+  {
+    generator = new PasswordGenerator();
+    rules = Arrays.asList(
+      new CharacterRule(EnglishCharacterData.UpperCase, 1),
+      new CharacterRule(EnglishCharacterData.LowerCase, 1),
+      new CharacterRule(EnglishCharacterData.Digit, 1),
+      new CharacterRule(EnglishCharacterData.Special, 1));
+  }
+
+
+  /**
+   * Generates a password.
+   *
+   * @return  generated password
+   */
+  @Benchmark
+  public String generate()
+  {
+    return generator.generatePassword(length, rules);
+  }
+}
@@ -0,0 +1,130 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cryptacular.bean.EncodingHashBean;
+import org.cryptacular.spec.CodecSpec;
+import org.cryptacular.spec.DigestSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.passay.data.character.EnglishCharacterData;
+import org.passay.data.sequence.EnglishSequenceData;
+import org.passay.dictionary.WordListDictionary;
+import org.passay.logic.PasswordData;
+import org.passay.rule.CharacterCharacteristicsRule;
+import org.passay.rule.CharacterRule;
+import org.passay.rule.DictionarySubstringRule;
+import org.passay.rule.DigestHistoryRule;
+import org.passay.rule.IllegalSequenceRule;
+import org.passay.rule.LengthRule;
+import org.passay.rule.RepeatCharacterRegexRule;
+import org.passay.rule.Rule;
+import org.passay.rule.UsernameRule;
+import org.passay.rule.WhitespaceRule;
+import org.passay.rule.result.RuleResult;
+import org.passay.rule.validator.PasswordValidator;
+
+/**
+ * Measures {@link PasswordValidator#validate(PasswordData)} with realistic rule sets. The complexity rule set contains
+ * only character based rules, while the full rule set adds a dictionary, sequences, the username and a digest history
+ * like a typical password policy.
+ *
+ * @author  Middleware Services
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordValidatorBenchmark
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Rule set to validate with. */
+  @Param({"complexity", "full"})
+  public String ruleSet;
+  // CheckStyle:VisibilityModifier ON
+
+  /** Validator under test. */
+  private PasswordValidator validator;
+
+  /** Passwords to validate. */
+  private PasswordData[] passwords;
+
+
+  /**
+   * Builds the validator under test.
+   *
+   * @throws  IOException  if the dictionary cannot be read
+   */
+  @Setup
+  public void setup() throws IOException
+  {
+    final List<Rule> rules = new ArrayList<>();
+    rules.add(new LengthRule(8, 64));
+    rules.add(new WhitespaceRule());
+    rules.add(
+      new CharacterCharacteristicsRule(
+        3,
+        new CharacterRule(EnglishCharacterData.Digit, 1),
+        new CharacterRule(EnglishCharacterData.Special, 1),
+        new CharacterRule(EnglishCharacterData.UpperCase, 1),
+        new CharacterRule(EnglishCharacterData.LowerCase, 1)));
+
+    final List<PasswordData.Reference> references = new ArrayList<>();
+    if ("full".equals(ruleSet)) {
+      final DictionarySubstringRule dictRule = new DictionarySubstringRule(
+        new WordListDictionary(Corpus.load("dict-enUS.txt", false)));
+      dictRule.setMatchBackwards(true);
+      rules.add(dictRule);
+      rules.add(new IllegalSequenceRule(EnglishSequenceData.USQwerty));
+      rules.add(new IllegalSequenceRule(EnglishSequenceData.Alphabetical));
+      rules.add(new IllegalSequenceRule(EnglishSequenceData.Numerical));
+      rules.add(new RepeatCharacterRegexRule());
+      rules.add(new UsernameRule(true, true));
+
+      final EncodingHashBean sha1Bean = new EncodingHashBean();
+      sha1Bean.setDigestSpec(new DigestSpec("SHA1"));
+      sha1Bean.setCodecSpec(new CodecSpec("Base64"));
+      rules.add(new DigestHistoryRule(sha1Bean));
+      references.add(new PasswordData.HistoricalReference("history", "safx/LW8+SsSy/o3PmCNy4VEm5s="));
+      references.add(new PasswordData.HistoricalReference("history", "zurb9DyQ5nooY1la8h86Bh0n1iw="));
+      references.add(new PasswordData.HistoricalReference("history", "bhqabXwE3S8E6xNJfX/d76MFOCs="));
+    } else if (!"complexity".equals(ruleSet)) {
+      throw new IllegalArgumentException("Unknown rule set " + ruleSet);
+    }
+    validator = new PasswordValidator(rules);
+
+    passwords = new PasswordData[Corpus.PASSWORDS.length];
+    for (int i = 0; i < passwords.length; i++) {
+      passwords[i] = new PasswordData("testuser", Corpus.PASSWORDS[i], references);
+    }
+  }
+
+
+  /**
+   * Validates the next password.
+   *
+   * @param  cursor  position in the passwords to validate
+   *
+   * @return  validation result
+   */
+  @Benchmark
+  public RuleResult validate(final Cursor cursor)
+  {
+    return validator.validate(cursor.next(passwords));
+  }
+}
@@ -0,0 +1,111 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.passay.dictionary.WordLists;
+import org.passay.dictionary.sort.ArraySorter;
+import org.passay.dictionary.sort.ArraysSort;
+import org.passay.dictionary.sort.BubbleSort;
+import org.passay.dictionary.sort.InsertionSort;
+import org.passay.dictionary.sort.QuickSort;
+import org.passay.dictionary.sort.SelectionSort;
+
+/**
+ * Measures each {@link ArraySorter} on a prefix of an unsorted corpus. Every invocation sorts a fresh copy of the
+ * words, so the score includes the cost of copying the array.
+ *
+ * @author  Middleware Services
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortBenchmark
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Unsorted corpus to load. */
+  @Param({"freebsd", "eign"})
+  public String corpus;
+
+  /** Sorter to measure. */
+  @Param({"ArraysSort", "QuickSort", "InsertionSort", "SelectionSort", "BubbleSort"})
+  public String sorter;
+
+  /** Number of words to sort, the quadratic sorters are impractical on entire corpora. */
+  @Param({"1000"})
+  public int size;
+  // CheckStyle:VisibilityModifier ON
+
+  /** Sorter under test. */
+  private ArraySorter arraySorter;
+
+  /** Words to sort. */
+  private String[] words;
+
+
+  /**
+   * Reads the words to sort.
+   *
+   * @throws  IOException  if the corpus cannot be read
+   */
+  @Setup
+  public void setup() throws IOException
+  {
+    if ("ArraysSort".equals(sorter)) {
+      arraySorter = new ArraysSort();
+    } else if ("QuickSort".equals(sorter)) {
+      arraySorter = new QuickSort();
+    } else if ("InsertionSort".equals(sorter)) {
+      arraySorter = new InsertionSort();
+    } else if ("SelectionSort".equals(sorter)) {
+      arraySorter = new SelectionSort();
+    } else if ("BubbleSort".equals(sorter)) {
+      arraySorter = new BubbleSort();
+    } else {
+      throw new IllegalArgumentException("Unknown sorter " + sorter);
+    }
+    final List<String> list = new ArrayList<>();
+    try (Reader reader = new InputStreamReader(
+        new FileInputStream(new File(Corpus.DIRECTORY, corpus)), StandardCharsets.UTF_8)) {
+      WordLists.readWords(reader, list);
+    }
+    words = list.subList(0, Math.min(size, list.size())).toArray(new String[0]);
+  }
+
+
+  /**
+   * Sorts a copy of the words.
+   *
+   * @return  sorted words
+   */
+  @Benchmark
+  public String[] sort()
+  {
+    final String[] copy = Arrays.copyOf(words, words.length);
+    arraySorter.sort(copy);
+    return copy;
+  }
+}
@@ -12,10 +12,9 @@ import org.passay.dictionary.FileWordList;
 import org.passay.dictionary.TernaryTreeDictionary;
 import org.passay.rule.CharacterCharacteristicsRule;
 import org.passay.rule.CharacterRule;
+import org.passay.rule.CompositeSequenceRule;
 import org.passay.rule.DictionarySubstringRule;
-import org.passay.rule.IllegalSequenceRule;
 import org.passay.rule.LengthRule;
-import org.passay.rule.RepeatCharacterRegexRule;
 import org.passay.rule.Rule;
 import org.passay.rule.UsernameRule;
 import org.passay.rule.result.RuleResult;
@@ -76,10 +75,11 @@ public final class PasswordCli
           rules.add(new UsernameRule(true, true));
           username = args[++i];
         } else if ("-s".equals(args[i])) {
-          rules.add(new IllegalSequenceRule(EnglishSequenceData.USQwerty));
-          rules.add(new IllegalSequenceRule(EnglishSequenceData.Alphabetical));
-          rules.add(new IllegalSequenceRule(EnglishSequenceData.Numerical));
-          rules.add(new RepeatCharacterRegexRule());
+          rules.add(
+            new CompositeSequenceRule(
+              EnglishSequenceData.USQwerty,
+              EnglishSequenceData.Alphabetical,
+              EnglishSequenceData.Numerical));
         } else if ("-h".equals(args[i])) {
           throw new ArrayIndexOutOfBoundsException();
         } else {
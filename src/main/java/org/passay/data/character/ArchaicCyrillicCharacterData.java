@@ -28,6 +28,11 @@ public enum ArchaicCyrillicCharacterData implements CharacterData {
    */
   private final String characters;
 
+  /**
+   * Character set.
+   */
+  private final CharacterSet characterSet;
+
   /**
    * Creates a new cyrillic character data.
    *
@@ -38,6 +43,7 @@ public enum ArchaicCyrillicCharacterData implements CharacterData {
   {
     errorCode = code;
     characters = charString;
+    characterSet = CharacterSet.of(charString);
   }
 
   @Override
@@ -51,4 +57,10 @@ public enum ArchaicCyrillicCharacterData implements CharacterData {
   {
     return characters;
   }
+
+  @Override
+  public CharacterSet getCharacterSet()
+  {
+    return characterSet;
+  }
 }
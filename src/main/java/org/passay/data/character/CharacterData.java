@@ -26,4 +26,16 @@ public interface CharacterData
    * @return  characters
    */
   String getCharacters();
+
+
+  /**
+   * Returns the characters as a set for fast membership tests. The default implementation creates a new set on every
+   * invocation, implementations should create the set once and return it.
+   *
+   * @return  character set
+   */
+  default CharacterSet getCharacterSet()
+  {
+    return CharacterSet.of(getCharacters());
+  }
 }
@@ -0,0 +1,131 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.data.character;
+
+/**
+ * Immutable set of characters backed by a bit table indexed by character value, which classifies a character with a
+ * single array lookup rather than a search of the characters. The table is sized to the largest character in the set.
+ *
+ * @author  Middleware Services
+ */
+public final class CharacterSet
+{
+
+  /** Number of bits in a table word. */
+  private static final int WORD_SHIFT = 6;
+
+  /** Bit table, bit c is set if character c is in this set. */
+  private final long[] bits;
+
+  /** Number of distinct characters in this set. */
+  private final int size;
+
+
+  /**
+   * Creates a new character set.
+   *
+   * @param  table  bit table
+   */
+  private CharacterSet(final long[] table)
+  {
+    bits = table;
+    int n = 0;
+    for (long word : bits) {
+      n += Long.bitCount(word);
+    }
+    size = n;
+  }
+
+
+  /**
+   * Creates a character set containing the supplied characters.
+   *
+   * @param  characters  to include in the set
+   *
+   * @return  character set
+   */
+  public static CharacterSet of(final CharSequence characters)
+  {
+    int max = -1;
+    for (int i = 0; i < characters.length(); i++) {
+      max = Math.max(max, characters.charAt(i));
+    }
+    final long[] table = new long[(max >> WORD_SHIFT) + 1];
+    for (int i = 0; i < characters.length(); i++) {
+      final char c = characters.charAt(i);
+      table[c >>> WORD_SHIFT] |= 1L << c;
+    }
+    return new CharacterSet(table);
+  }
+
+
+  /**
+   * Returns whether the supplied character is in this set.
+   *
+   * @param  c  character to test
+   *
+   * @return  whether the character is in this set
+   */
+  public boolean contains(final char c)
+  {
+    final int word = c >>> WORD_SHIFT;
+    return word < bits.length && (bits[word] & 1L << c) != 0;
+  }
+
+
+  /**
+   * Returns the number of distinct characters in this set.
+   *
+   * @return  number of characters
+   */
+  public int size()
+  {
+    return size;
+  }
+
+
+  /**
+   * Returns the number of characters in the supplied input that are in this set.
+   *
+   * @param  input  to count characters in
+   *
+   * @return  number of matching characters, including duplicates
+   */
+  public int count(final CharSequence input)
+  {
+    int count = 0;
+    for (int i = 0; i < input.length(); i++) {
+      if (contains(input.charAt(i))) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+
+  /**
+   * Returns the characters in the supplied input that are in this set, in the order they occur in the input.
+   *
+   * @param  input  to search for matches
+   * @param  maximumLength  maximum number of matching characters to return
+   *
+   * @return  matching characters or empty string
+   */
+  public String getMatchingCharacters(final CharSequence input, final int maximumLength)
+  {
+    final StringBuilder sb = new StringBuilder(Math.min(input.length(), maximumLength));
+    for (int i = 0; i < input.length() && sb.length() < maximumLength; i++) {
+      final char c = input.charAt(i);
+      if (contains(c)) {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format("%s@%h::size=%s", getClass().getName(), hashCode(), size);
+  }
+}
@@ -28,6 +28,11 @@ public enum CzechCharacterData implements CharacterData {
    */
   private final String characters;
 
+  /**
+   * Character set.
+   */
+  private final CharacterSet characterSet;
+
 
   /**
    * Creates a new czech character data.
@@ -39,6 +44,7 @@ public enum CzechCharacterData implements CharacterData {
   {
     errorCode = code;
     characters = charString;
+    characterSet = CharacterSet.of(charString);
   }
 
   @Override
@@ -52,4 +58,10 @@ public enum CzechCharacterData implements CharacterData {
   {
     return characters;
   }
+
+  @Override
+  public CharacterSet getCharacterSet()
+  {
+    return characterSet;
+  }
 }
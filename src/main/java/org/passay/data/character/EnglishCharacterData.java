@@ -44,6 +44,9 @@ public enum EnglishCharacterData implements CharacterData {
   /** Characters. */
   private final String characters;
 
+  /** Character set. */
+  private final CharacterSet characterSet;
+
 
   /**
    * Creates a new english character data.
@@ -55,6 +58,7 @@ public enum EnglishCharacterData implements CharacterData {
   {
     errorCode = code;
     characters = charString;
+    characterSet = CharacterSet.of(charString);
   }
 
   @Override
@@ -68,4 +72,10 @@ public enum EnglishCharacterData implements CharacterData {
   {
     return characters;
   }
+
+  @Override
+  public CharacterSet getCharacterSet()
+  {
+    return characterSet;
+  }
 }
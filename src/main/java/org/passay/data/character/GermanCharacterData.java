@@ -29,6 +29,11 @@ public enum GermanCharacterData implements CharacterData
    */
   private final String characters;
 
+  /**
+   * Character set.
+   */
+  private final CharacterSet characterSet;
+
 
   /**
    * Creates german character data.
@@ -40,6 +45,7 @@ public enum GermanCharacterData implements CharacterData
   {
     errorCode = code;
     characters = charString;
+    characterSet = CharacterSet.of(charString);
   }
 
   @Override
@@ -54,5 +60,11 @@ public enum GermanCharacterData implements CharacterData
     return characters;
   }
 
+  @Override
+  public CharacterSet getCharacterSet()
+  {
+    return characterSet;
+  }
+
 }
 
@@ -20,6 +20,9 @@ public enum  PolishCharacterData implements CharacterData {
   /** Characters. */
   private final String characters;
 
+  /** Character set. */
+  private final CharacterSet characterSet;
+
 
   /**
    * Creates a new polish character data.
@@ -31,6 +34,7 @@ public enum  PolishCharacterData implements CharacterData {
   {
     errorCode = code;
     characters = charString;
+    characterSet = CharacterSet.of(charString);
   }
 
   @Override
@@ -44,5 +48,11 @@ public enum  PolishCharacterData implements CharacterData {
   {
     return characters;
   }
+
+  @Override
+  public CharacterSet getCharacterSet()
+  {
+    return characterSet;
+  }
 }
 
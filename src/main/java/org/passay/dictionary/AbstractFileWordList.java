@@ -1,12 +1,14 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.dictionary;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.LongBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CoderResult;
 
@@ -15,7 +17,7 @@ import java.nio.charset.CoderResult;
  *
  * @author  Middleware Services
  */
-public abstract class AbstractFileWordList extends AbstractWordList
+public abstract class AbstractFileWordList extends AbstractWordList implements Closeable
 {
 
   /** Default cache percent. */
@@ -42,6 +44,9 @@ public abstract class AbstractFileWordList extends AbstractWordList
   /** Current position into backing file. */
   private long position;
 
+  /** Per thread decoder used by {@link #readWord(int, ByteBuffer)}. */
+  private final ThreadLocal<WordDecoder> wordDecoder;
+
 
   /**
    * Creates a new abstract file word list from the supplied file.
@@ -54,6 +59,7 @@ public abstract class AbstractFileWordList extends AbstractWordList
   {
     file = raf;
     charsetDecoder = decoder;
+    wordDecoder = ThreadLocal.withInitial(() -> new WordDecoder(charsetDecoder));
     comparator = caseSensitive ? WordLists.CASE_SENSITIVE_COMPARATOR : WordLists.CASE_INSENSITIVE_COMPARATOR;
   }
 
@@ -93,6 +99,7 @@ public abstract class AbstractFileWordList extends AbstractWordList
    *
    * @throws  IOException  if an error occurs closing the file
    */
+  @Override
   public void close() throws IOException
   {
     synchronized (cache) {
@@ -155,6 +162,48 @@ public abstract class AbstractFileWordList extends AbstractWordList
   }
 
 
+  /**
+   * Reads the word at the given index of the word list from a buffer containing the entire contents of the backing
+   * file. This method uses absolute reads on a duplicate of the supplied buffer and per thread decode buffers, so it
+   * neither modifies the state of the supplied buffer nor acquires any lock. Implementations whose data is available in
+   * memory may use it to allow concurrent reads.
+   *
+   * @param  index  ith word in the word list
+   * @param  data  buffer containing the backing file, beginning at position 0
+   *
+   * @return  word at the supplied index
+   *
+   * @throws  IOException  if this word list has been closed or the word cannot be decoded
+   */
+  protected String readWord(final int index, final ByteBuffer data) throws IOException
+  {
+    final Cache c = cache;
+    if (c == null) {
+      throw new IOException("Word list has been closed");
+    }
+    final Cache.Entry entry = c.get(index);
+    final int limit = data.limit();
+    int end = (int) entry.position;
+    int start = -1;
+    for (int i = entry.index; i <= index && end < limit; i++) {
+      while (end < limit && isLineTerminator(data.get(end))) {
+        end++;
+      }
+      start = end;
+      while (end < limit && !isLineTerminator(data.get(end))) {
+        end++;
+      }
+    }
+    if (start < 0 || start == end) {
+      return null;
+    }
+    final ByteBuffer word = data.duplicate();
+    // cast to Buffer prevents NoSuchMethodError when compiled on JDK9+ and run on JDK8
+    ((Buffer) word).limit(end).position(start);
+    return wordDecoder.get().decode(word);
+  }
+
+
   /**
    * Positions the read head of the backing file at the given byte offset.
    *
@@ -239,6 +288,19 @@ public abstract class AbstractFileWordList extends AbstractWordList
   }
 
 
+  /**
+   * Returns whether the supplied byte terminates a line.
+   *
+   * @param  b  byte to test
+   *
+   * @return  true if the byte is a carriage return or line feed
+   */
+  private static boolean isLineTerminator(final byte b)
+  {
+    return b == '\n' || b == '\r';
+  }
+
+
   @Override
   public String toString()
   {
@@ -282,6 +344,65 @@ public abstract class AbstractFileWordList extends AbstractWordList
   }
 
 
+  /** Decoder and character buffer confined to a single thread. */
+  private static class WordDecoder
+  {
+
+    /** Initial size of the character buffer. */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** Charset decoder. */
+    private final CharsetDecoder decoder;
+
+    /** Buffer to hold decoded word. */
+    private CharBuffer charBuf = CharBuffer.allocate(INITIAL_CAPACITY);
+
+
+    /**
+     * Creates a new word decoder with the same charset and error actions as the supplied decoder.
+     *
+     * @param  template  decoder to copy
+     */
+    WordDecoder(final CharsetDecoder template)
+    {
+      decoder = template.charset().newDecoder()
+        .onMalformedInput(template.malformedInputAction())
+        .onUnmappableCharacter(template.unmappableCharacterAction())
+        .replaceWith(template.replacement());
+    }
+
+
+    /**
+     * Decodes the remaining bytes in the supplied buffer.
+     *
+     * @param  bytes  to decode
+     *
+     * @return  decoded word
+     *
+     * @throws  CharacterCodingException  if the bytes cannot be decoded
+     */
+    String decode(final ByteBuffer bytes) throws CharacterCodingException
+    {
+      final int required = (int) Math.ceil(bytes.remaining() * (double) decoder.maxCharsPerByte());
+      if (charBuf.capacity() < required) {
+        charBuf = CharBuffer.allocate(required);
+      }
+      // casts to Buffer below prevent NoSuchMethodError when compiled on JDK9+ and run on JDK8
+      ((Buffer) charBuf).clear();
+      decoder.reset();
+      CoderResult result = decoder.decode(bytes, charBuf, true);
+      if (!result.isError()) {
+        result = decoder.flush(charBuf);
+      }
+      if (result.isError()) {
+        result.throwException();
+      }
+      ((Buffer) charBuf).flip();
+      return charBuf.toString();
+    }
+  }
+
+
   /** Cache of word indices to byte offsets where word starts in backing file. */
   private static class Cache
   {
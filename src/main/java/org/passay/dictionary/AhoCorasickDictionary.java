@@ -0,0 +1,257 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+
+/**
+ * Dictionary that compiles a word list into an <a href="https://en.wikipedia.org/wiki/Aho-Corasick_algorithm">
+ * Aho-Corasick</a> automaton. In addition to exact word searches, the automaton can locate every dictionary word
+ * embedded in a text with a single linear pass over the text, see {@link #findShortestWord(String)}. The entire
+ * dictionary is stored in memory, so heap size may need to be adjusted to accommodate large dictionaries. This class
+ * inherits the case sensitivity of the supplied word list.
+ *
+ * @author  Middleware Services
+ */
+public class AhoCorasickDictionary implements Dictionary
+{
+
+  /** Whether this dictionary is case sensitive. */
+  private final boolean caseSensitive;
+
+  /** Root state of the automaton, which corresponds to the empty string. */
+  private final State root = new State(0);
+
+  /** Number of distinct words in the automaton. */
+  private long size;
+
+
+  /**
+   * Creates a new dictionary from the supplied {@link WordList}. The word list need not be sorted.
+   *
+   * @param  wordList  list of words used to back the dictionary. This list is used exclusively to initialize the
+   *                   automaton and may be safely discarded after dictionary creation.
+   */
+  public AhoCorasickDictionary(final WordList wordList)
+  {
+    // Respect case sensitivity of word list in automaton
+    caseSensitive = wordList.getComparator().compare("A", "a") != 0;
+    final Iterator<String> iterator = wordList.iterator();
+    while (iterator.hasNext()) {
+      insert(iterator.next());
+    }
+    link();
+  }
+
+
+  @Override
+  public long size()
+  {
+    return size;
+  }
+
+
+  @Override
+  public boolean search(final String word)
+  {
+    State state = root;
+    for (int i = 0; i < word.length() && state != null; i++) {
+      state = state.next(fold(word.charAt(i)));
+    }
+    return state != null && state.endOfWord;
+  }
+
+
+  /**
+   * Returns the shortest dictionary word contained in the supplied text. If several words of the same length are
+   * found, the one that occurs first in the text is returned. The text is scanned exactly once and the only object
+   * allocated is the returned string.
+   *
+   * @param  text  to search for dictionary words
+   *
+   * @return  shortest substring of the text that is a dictionary word or null if the text contains no such word
+   */
+  public String findShortestWord(final String text)
+  {
+    State state = root;
+    int matchLength = Integer.MAX_VALUE;
+    int matchEnd = -1;
+    for (int i = 0; i < text.length() && matchLength > 1; i++) {
+      final char c = fold(text.charAt(i));
+      State next = state.next(c);
+      while (next == null && state != root) {
+        state = state.failure;
+        next = state.next(c);
+      }
+      state = next != null ? next : root;
+      if (state.shortestWord > 0 && state.shortestWord < matchLength) {
+        matchLength = state.shortestWord;
+        matchEnd = i + 1;
+      }
+    }
+    return matchEnd < 0 ? null : text.substring(matchEnd - matchLength, matchEnd);
+  }
+
+
+  /**
+   * Adds the supplied word to the trie underlying the automaton.
+   *
+   * @param  word  to insert
+   */
+  private void insert(final String word)
+  {
+    if (word == null || word.isEmpty()) {
+      return;
+    }
+    State state = root;
+    for (int i = 0; i < word.length(); i++) {
+      state = state.add(fold(word.charAt(i)));
+    }
+    if (!state.endOfWord) {
+      state.endOfWord = true;
+      size++;
+    }
+  }
+
+
+  /**
+   * Computes the failure link and the shortest word suffix of every state in breadth first order, such that the
+   * failure state of every state has already been computed when the state is visited.
+   */
+  private void link()
+  {
+    root.failure = root;
+    final Queue<State> queue = new ArrayDeque<>();
+    queue.add(root);
+    while (!queue.isEmpty()) {
+      final State state = queue.remove();
+      for (int i = 0; i < state.count; i++) {
+        final char c = state.keys[i];
+        final State child = state.children[i];
+        State failure = state.failure;
+        State next = state == root ? null : failure.next(c);
+        while (next == null && failure != root) {
+          failure = failure.failure;
+          next = failure.next(c);
+        }
+        child.failure = next != null && next != child ? next : root;
+        if (child.failure.shortestWord > 0) {
+          child.shortestWord = child.failure.shortestWord;
+        } else if (child.endOfWord) {
+          child.shortestWord = child.depth;
+        }
+        queue.add(child);
+      }
+    }
+  }
+
+
+  /**
+   * Folds the supplied character for comparison. Case insensitive dictionaries fold characters in the same manner as
+   * {@link String#compareToIgnoreCase(String)}.
+   *
+   * @param  c  character to fold
+   *
+   * @return  folded character
+   */
+  private char fold(final char c)
+  {
+    return caseSensitive ? c : Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return
+      String.format(
+        "%s@%h::size=%s,caseSensitive=%s",
+        getClass().getName(),
+        hashCode(),
+        size,
+        caseSensitive);
+  }
+
+
+  /** State of the automaton, which corresponds to a prefix of one or more dictionary words. */
+  private static class State
+  {
+
+    /** Length of the prefix represented by this state. */
+    private final int depth;
+
+    /** Sorted transition characters. */
+    private char[] keys = new char[0];
+
+    /** Transition states, parallel to {@link #keys}. */
+    private State[] children = new State[0];
+
+    /** Number of transitions. */
+    private int count;
+
+    /** Whether the prefix represented by this state is a dictionary word. */
+    private boolean endOfWord;
+
+    /** State representing the longest proper suffix of this state that is also a prefix in the trie. */
+    private State failure;
+
+    /** Length of the shortest dictionary word that is a suffix of this state, or 0 if there is none. */
+    private int shortestWord;
+
+
+    /**
+     * Creates a new state.
+     *
+     * @param  d  length of the prefix represented by this state
+     */
+    State(final int d)
+    {
+      depth = d;
+    }
+
+
+    /**
+     * Returns the state reached from this state with the supplied character.
+     *
+     * @param  c  transition character
+     *
+     * @return  next state or null if there is no transition for the character
+     */
+    State next(final char c)
+    {
+      final int i = Arrays.binarySearch(keys, 0, count, c);
+      return i >= 0 ? children[i] : null;
+    }
+
+
+    /**
+     * Returns the state reached from this state with the supplied character, creating it if it does not exist.
+     *
+     * @param  c  transition character
+     *
+     * @return  next state
+     */
+    State add(final char c)
+    {
+      final int i = Arrays.binarySearch(keys, 0, count, c);
+      if (i >= 0) {
+        return children[i];
+      }
+      final int insert = -(i + 1);
+      if (count == keys.length) {
+        final int capacity = count == 0 ? 1 : count * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        children = Arrays.copyOf(children, capacity);
+      }
+      System.arraycopy(keys, insert, keys, insert + 1, count - insert);
+      System.arraycopy(children, insert, children, insert + 1, count - insert);
+      final State state = new State(depth + 1);
+      keys[insert] = c;
+      children[insert] = state;
+      count++;
+      return state;
+    }
+  }
+}
@@ -0,0 +1,267 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import org.passay.dictionary.sort.ArraysSort;
+
+/**
+ * Provides a {@link WordList} backed by a pre-compiled binary dictionary file that is mapped into memory with {@link
+ * FileChannel#map(FileChannel.MapMode, long, long)}. Since the file is already sorted and indexed, the word list is
+ * searchable as soon as it is constructed without reading or scanning the file; pages are loaded lazily by the
+ * operating system as words are accessed. Use {@link WordListDictionary} to search the word list.
+ *
+ * <p>Binary dictionary files are produced by {@link #write(WordList, File)} and have the following layout, where all
+ * integers are big-endian:</p>
+ *
+ * <pre>
+   header      magic (int), version (int), flags (int), word count n (int)
+   offsets     n + 1 ints, byte offset of each word in the word area followed by the length of the word area
+   word area   UTF-8 encoded words, packed without separators
+ * </pre>
+ *
+ * <p>The only flag currently defined is {@link #FLAG_CASE_SENSITIVE}. This implementation does not support files
+ * greater than 2GB in size. Instances are safe for use by multiple threads.</p>
+ *
+ * @author  Middleware Services
+ */
+public class BinaryFileWordList extends AbstractWordList implements Closeable
+{
+
+  /** Magic number identifying binary dictionary files, the ASCII characters 'PSYW'. */
+  public static final int MAGIC = 0x50535957;
+
+  /** Version of the binary dictionary format written by this class. */
+  public static final int VERSION = 1;
+
+  /** Flag indicating that the word list is case sensitive. */
+  public static final int FLAG_CASE_SENSITIVE = 1;
+
+  /** Size of the header in bytes. */
+  private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+  /** File containing words. */
+  protected final RandomAccessFile file;
+
+  /** Number of words in the file. */
+  private final int size;
+
+  /** Word offsets into {@link #words}, including the end offset of the last word. */
+  private final IntBuffer offsets;
+
+  /** Packed UTF-8 word area. */
+  private final ByteBuffer words;
+
+
+  /**
+   * Creates a new word list from the supplied binary dictionary file. The file is memory mapped and maintained by this
+   * class.
+   *
+   * <p><strong>NOTE</strong> Attempts to close the source file will cause {@link IOException} when {@link #get(int)} is
+   * called subsequently.</p>
+   *
+   * @param  raf  Binary dictionary file produced by {@link #write(WordList, File)}.
+   *
+   * @throws  IllegalArgumentException  if the file is not a valid binary dictionary file
+   * @throws  IOException  if an error occurs reading the supplied file
+   */
+  public BinaryFileWordList(final RandomAccessFile raf) throws IOException
+  {
+    file = raf;
+    final FileChannel channel = file.getChannel();
+    if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("File size " + channel.size() + " is not valid for a binary dictionary");
+    }
+    final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("File is not a binary dictionary");
+    }
+    final int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported binary dictionary version " + version);
+    }
+    final int flags = buffer.getInt();
+    size = buffer.getInt();
+    final long wordsPosition = HEADER_SIZE + (size + 1L) * Integer.BYTES;
+    if (size < 0 || wordsPosition > buffer.capacity()) {
+      throw new IllegalArgumentException("Binary dictionary offset table is truncated");
+    }
+    comparator = (flags & FLAG_CASE_SENSITIVE) != 0 ?
+      WordLists.CASE_SENSITIVE_COMPARATOR : WordLists.CASE_INSENSITIVE_COMPARATOR;
+    // casts to Buffer below prevent NoSuchMethodError when compiled on JDK9+ and run on JDK8
+    ((Buffer) buffer).limit((int) wordsPosition);
+    offsets = buffer.slice().asIntBuffer();
+    ((Buffer) buffer).limit(buffer.capacity()).position((int) wordsPosition);
+    words = buffer.slice();
+    if (offsets.get(size) != words.capacity()) {
+      throw new IllegalArgumentException("Binary dictionary word area is truncated");
+    }
+  }
+
+
+  @Override
+  public String get(final int index)
+  {
+    checkRange(index);
+    final int start = offsets.get(index);
+    final byte[] bytes = new byte[offsets.get(index + 1) - start];
+    final ByteBuffer buffer = words.duplicate();
+    ((Buffer) buffer).position(start);
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+
+  @Override
+  public int size()
+  {
+    return size;
+  }
+
+
+  /**
+   * Returns the file backing this list.
+   *
+   * @return  random access file that is backing this list
+   */
+  public RandomAccessFile getFile()
+  {
+    return file;
+  }
+
+
+  /**
+   * Closes the underlying file.
+   *
+   * @throws  IOException  if an error occurs closing the file
+   */
+  @Override
+  public void close() throws IOException
+  {
+    file.close();
+  }
+
+
+  /**
+   * Writes the supplied word list to a binary dictionary file that can be read by {@link
+   * #BinaryFileWordList(RandomAccessFile)}. The word list must be sorted according to its comparator, which also
+   * determines the case sensitivity of the binary dictionary.
+   *
+   * @param  wordList  sorted list of words to write
+   * @param  output  file to write, any existing file is overwritten
+   *
+   * @throws  IllegalArgumentException  if the word list is not sorted or is too large for a binary dictionary
+   * @throws  IOException  if an error occurs writing the file
+   */
+  public static void write(final WordList wordList, final File output) throws IOException
+  {
+    final Comparator<String> comparator = wordList.getComparator();
+    final int size = wordList.size();
+    final long wordsPosition = HEADER_SIZE + (size + 1L) * Integer.BYTES;
+    long length = 0;
+    String prev = null;
+    final Iterator<String> iterator = wordList.iterator();
+    while (iterator.hasNext()) {
+      final String word = iterator.next();
+      if (prev != null && comparator.compare(word, prev) < 0) {
+        throw new IllegalArgumentException("Word list is not sorted correctly for " + comparator);
+      }
+      length += word.getBytes(StandardCharsets.UTF_8).length;
+      prev = word;
+    }
+    if (wordsPosition + length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Word list is too large for a binary dictionary");
+    }
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(comparator.compare("A", "a") != 0 ? FLAG_CASE_SENSITIVE : 0);
+      out.writeInt(size);
+      int offset = 0;
+      for (int i = 0; i < size; i++) {
+        out.writeInt(offset);
+        offset += wordList.get(i).getBytes(StandardCharsets.UTF_8).length;
+      }
+      out.writeInt(offset);
+      for (int i = 0; i < size; i++) {
+        out.write(wordList.get(i).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format("%s@%h::size=%s,comparator=%s", getClass().getName(), hashCode(), size, comparator);
+  }
+
+
+  /**
+   * Provides command line access to compile text word lists into a binary dictionary.
+   *
+   * @param  args  command line arguments
+   *
+   * @throws  Exception  if an error occurs
+   */
+  public static void main(final String[] args) throws Exception
+  {
+    final List<FileReader> files = new ArrayList<>();
+    try {
+      if (args.length == 0) {
+        throw new ArrayIndexOutOfBoundsException();
+      }
+
+      boolean caseSensitive = true;
+      File output = null;
+      for (int i = 0; i < args.length; i++) {
+        if ("-ci".equals(args[i])) {
+          caseSensitive = false;
+        } else if ("-o".equals(args[i])) {
+          output = new File(args[++i]);
+        } else if ("-h".equals(args[i])) {
+          throw new ArrayIndexOutOfBoundsException();
+        } else {
+          files.add(new FileReader(args[i]));
+        }
+      }
+      if (output == null || files.isEmpty()) {
+        throw new ArrayIndexOutOfBoundsException();
+      }
+
+      final ArrayWordList awl = WordLists.createFromReader(
+        files.toArray(new FileReader[files.size()]),
+        caseSensitive,
+        new ArraysSort());
+      write(awl, output);
+      System.out.println(String.format("Wrote %s words to %s", awl.size(), output));
+    } catch (ArrayIndexOutOfBoundsException e) {
+      System.out.println("Usage: java " + BinaryFileWordList.class.getName());
+      System.out.println("            <dict1> [... <dictN>] [options] -o <output>");
+      System.out.println();
+      System.out.println("Where <dict1>...<dictN> are files containing dictionary words and <output> is the binary");
+      System.out.println("dictionary file to write.");
+      System.out.println();
+      System.out.println("Options:");
+      System.out.println("    -ci make dictionary case-insensitive");
+      System.out.println("    -h  print this help message");
+      System.exit(1);
+    }
+  }
+}
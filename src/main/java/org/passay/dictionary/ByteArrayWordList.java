@@ -0,0 +1,272 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Provides a {@link WordList} that stores all words UTF-8 encoded in a single byte array, with an int array of word
+ * offsets. Compared to {@link ArrayWordList}, this avoids an object header and a backing array per word, which for
+ * short words reduces heap use by several times. {@link #get(int)} decodes a word on demand, and {@link
+ * #binarySearch(String)}, which is used by {@link WordLists#binarySearch(WordList, String)}, compares the encoded
+ * words with the search word without allocating.
+ *
+ * <p>Words are ordered by {@link WordLists#CASE_SENSITIVE_COMPARATOR} or {@link
+ * WordLists#CASE_INSENSITIVE_COMPARATOR}. The total size of the encoded words cannot exceed 2GB. Instances are
+ * immutable and safe for use by multiple threads.</p>
+ *
+ * @author  Middleware Services
+ */
+public class ByteArrayWordList extends AbstractWordList
+{
+
+  /** Mask of an unsigned byte. */
+  private static final int BYTE_MASK = 0xFF;
+
+  /** Smallest lead byte of a two byte sequence. */
+  private static final int TWO_BYTE_LEAD = 0x80;
+
+  /** Smallest lead byte of a three byte sequence. */
+  private static final int THREE_BYTE_LEAD = 0xE0;
+
+  /** Smallest lead byte of a four byte sequence. */
+  private static final int FOUR_BYTE_LEAD = 0xF0;
+
+  /** Payload bits of the lead byte of a two byte sequence. */
+  private static final int TWO_BYTE_MASK = 0x1F;
+
+  /** Payload bits of the lead byte of a three byte sequence. */
+  private static final int THREE_BYTE_MASK = 0x0F;
+
+  /** Payload bits of a continuation byte. */
+  private static final int CONTINUATION_MASK = 0x3F;
+
+  /** Number of payload bits in a continuation byte. */
+  private static final int CONTINUATION_BITS = 6;
+
+  /** Initial capacity of the word area. */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /** Maximum capacity of the word area. */
+  private static final int MAXIMUM_CAPACITY = Integer.MAX_VALUE - 8;
+
+  /** Packed UTF-8 words. */
+  private final byte[] words;
+
+  /** Offset of each word in {@link #words}, followed by the length of the word area. */
+  private final int[] offsets;
+
+  /** Number of words. */
+  private final int size;
+
+  /** Whether words are compared case sensitively. */
+  private final boolean caseSensitive;
+
+
+  /**
+   * Creates a new word list by copying the supplied word list.
+   *
+   * @param  wl  word list sorted by its comparator, which is either {@link WordLists#CASE_SENSITIVE_COMPARATOR} or
+   *             {@link WordLists#CASE_INSENSITIVE_COMPARATOR}
+   *
+   * @throws  IllegalArgumentException  if the word list is not sorted or is too large
+   */
+  public ByteArrayWordList(final WordList wl)
+  {
+    this(wl.iterator(), wl.getComparator().compare("A", "a") != 0);
+  }
+
+
+  /**
+   * Creates a new case sensitive word list from the supplied sorted words.
+   *
+   * @param  array  of sorted words
+   *
+   * @throws  IllegalArgumentException  if the words are not sorted or are too large
+   */
+  public ByteArrayWordList(final String[] array)
+  {
+    this(array, true);
+  }
+
+
+  /**
+   * Creates a new word list from the supplied sorted words.
+   *
+   * @param  array  of sorted words
+   * @param  cs  whether words are compared case sensitively
+   *
+   * @throws  IllegalArgumentException  if the words are not sorted or are too large
+   */
+  public ByteArrayWordList(final String[] array, final boolean cs)
+  {
+    this(Arrays.asList(array).iterator(), cs);
+  }
+
+
+  /**
+   * Creates a new word list from the supplied sorted words, e.g. the iterator of a stream returned by {@link
+   * WordLists#streamWords(java.io.Reader)}. Words are encoded as they are read, so the words never need to be held in
+   * memory as strings.
+   *
+   * @param  iterator  of sorted words
+   * @param  cs  whether words are compared case sensitively
+   *
+   * @throws  IllegalArgumentException  if the words are not sorted or are too large
+   */
+  public ByteArrayWordList(final Iterator<String> iterator, final boolean cs)
+  {
+    caseSensitive = cs;
+    comparator = cs ? WordLists.CASE_SENSITIVE_COMPARATOR : WordLists.CASE_INSENSITIVE_COMPARATOR;
+    byte[] area = new byte[INITIAL_CAPACITY];
+    int[] index = new int[INITIAL_CAPACITY];
+    int length = 0;
+    int count = 0;
+    String prev = null;
+    while (iterator.hasNext()) {
+      final String word = iterator.next();
+      if (prev != null && comparator.compare(word, prev) < 0) {
+        throw new IllegalArgumentException("Words are not sorted correctly for " + comparator);
+      }
+      final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+      final long required = (long) length + bytes.length;
+      if (required > MAXIMUM_CAPACITY) {
+        throw new IllegalArgumentException("Words are too large for a byte array word list");
+      }
+      if (required > area.length) {
+        area = Arrays.copyOf(area, (int) Math.min(MAXIMUM_CAPACITY, Math.max(2L * area.length, required)));
+      }
+      if (count + 2 > index.length) {
+        index = Arrays.copyOf(index, 2 * index.length);
+      }
+      index[count++] = length;
+      System.arraycopy(bytes, 0, area, length, bytes.length);
+      length += bytes.length;
+      prev = word;
+    }
+    index[count] = length;
+    words = Arrays.copyOf(area, length);
+    offsets = Arrays.copyOf(index, count + 1);
+    size = count;
+  }
+
+
+  @Override
+  public String get(final int index)
+  {
+    checkRange(index);
+    return new String(words, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+  }
+
+
+  @Override
+  public int size()
+  {
+    return size;
+  }
+
+
+  /**
+   * Returns the number of bytes used by the encoded words.
+   *
+   * @return  size of the word area in bytes
+   */
+  public int getByteSize()
+  {
+    return words.length;
+  }
+
+
+  /**
+   * Performs a binary search of this word list for the supplied word, comparing the encoded words with the supplied
+   * word character by character. For case insensitive lists the supplied word is case folded once, so only the
+   * characters of the encoded words are folded during comparison.
+   *
+   * @param  word  to search for
+   *
+   * @return  index of the word or {@link WordLists#NOT_FOUND}
+   */
+  public int binarySearch(final String word)
+  {
+    final String folded = caseSensitive ? word : WordLists.foldCase(word);
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = compare(mid, word, folded);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return WordLists.NOT_FOUND;
+  }
+
+
+  /**
+   * Compares the word at the supplied index with the supplied word according to the comparator of this word list.
+   * Words that contain supplementary characters are decoded and compared by the comparator.
+   *
+   * @param  index  of a word in this list
+   * @param  word  to compare
+   * @param  folded  word if this list is case sensitive, otherwise the case folded word
+   *
+   * @return  negative, zero or positive if the word at index is less than, equal to or greater than word
+   */
+  // CheckStyle:ReturnCount OFF
+  private int compare(final int index, final String word, final String folded)
+  {
+    final int end = offsets[index + 1];
+    int pos = offsets[index];
+    int i = 0;
+    while (pos < end && i < folded.length()) {
+      final int b = words[pos] & BYTE_MASK;
+      final char c;
+      if (b < TWO_BYTE_LEAD) {
+        c = (char) b;
+        pos++;
+      } else if (b < THREE_BYTE_LEAD) {
+        c = (char) ((b & TWO_BYTE_MASK) << CONTINUATION_BITS | words[pos + 1] & CONTINUATION_MASK);
+        pos += 2;
+      } else if (b < FOUR_BYTE_LEAD) {
+        c = (char) ((b & THREE_BYTE_MASK) << (2 * CONTINUATION_BITS) |
+          (words[pos + 1] & CONTINUATION_MASK) << CONTINUATION_BITS | words[pos + 2] & CONTINUATION_MASK);
+        pos += 3;
+      } else {
+        return comparator.compare(get(index), word);
+      }
+      final char q = folded.charAt(i++);
+      if (c != q) {
+        if (Character.isSurrogate(q)) {
+          return comparator.compare(get(index), word);
+        }
+        final int cmp = caseSensitive ? c - q : WordLists.foldCase(c) - q;
+        if (cmp != 0) {
+          return cmp;
+        }
+      }
+    }
+    if (pos < end) {
+      return 1;
+    }
+    return i < folded.length() ? -1 : 0;
+  }
+  // CheckStyle:ReturnCount ON
+
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "%s@%h::size=%s,byteSize=%s,comparator=%s",
+      getClass().getName(),
+      hashCode(),
+      size,
+      words.length,
+      comparator);
+  }
+}
@@ -0,0 +1,422 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Implementation of a ternary tree that stores its nodes in primitive arrays rather than in one object per node. Each
+ * node costs a single char for the split character, three ints for the lo, eq and hi children and one bit for the end
+ * of word flag, which reduces the memory footprint of large trees several fold compared to {@link TernaryTree} and
+ * leaves the garbage collector with only a handful of objects to trace.
+ *
+ * <p>Trees are built by inserting words and are then frozen with {@link #freeze()}, which releases unused array
+ * capacity. Once frozen a tree is immutable and may be safely searched by multiple threads. As with {@link
+ * TernaryTree}, sorted data should be inserted beginning with its median to produce a balanced tree. Case insensitive
+ * trees store words in their case folded form, see {@link WordLists#foldCase(String)}.</p>
+ *
+ * @author  Middleware Services
+ */
+public class CompactTernaryTree
+{
+
+  /** Maximum number of nodes this tree can hold. */
+  public static final int MAX_NODES = (Integer.MAX_VALUE - 8) / 3;
+
+  /** Initial number of nodes to allocate. */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /** Offset of the lo child in the children array. */
+  private static final int LO = 0;
+
+  /** Offset of the eq child in the children array. */
+  private static final int EQ = 1;
+
+  /** Offset of the hi child in the children array. */
+  private static final int HI = 2;
+
+  /** Number of children per node. */
+  private static final int KIDS = 3;
+
+  /** An empty results array. */
+  private static final String[] EMPTY_ARRAY = new String[0];
+
+  /** Whether this tree is case sensitive. */
+  private final boolean caseSensitive;
+
+  /** Whether nodes are at the end of a word, indexed by node. */
+  private final BitSet endOfWord = new BitSet();
+
+  /** Split characters, indexed by node. */
+  private char[] splitChars;
+
+  /**
+   * Children of every node, indexed by node * 3 + {@link #LO}, {@link #EQ} or {@link #HI}. The root is node 0, which
+   * can never be a child, so 0 denotes a missing child.
+   */
+  private int[] kids;
+
+  /** Number of nodes in this tree. */
+  private int nodeCount;
+
+  /** Number of words in this tree. */
+  private int wordCount;
+
+  /** Whether this tree has been frozen. */
+  private boolean frozen;
+
+
+  /** Creates an empty case sensitive ternary tree. */
+  public CompactTernaryTree()
+  {
+    this(true);
+  }
+
+
+  /**
+   * Creates an empty ternary tree with the given case sensitivity.
+   *
+   * @param  sensitive  whether this ternary tree should be case sensitive.
+   */
+  public CompactTernaryTree(final boolean sensitive)
+  {
+    caseSensitive = sensitive;
+    splitChars = new char[INITIAL_CAPACITY];
+    kids = new int[INITIAL_CAPACITY * KIDS];
+  }
+
+
+  /**
+   * Returns whether this tree is case sensitive.
+   *
+   * @return  whether this tree is case sensitive
+   */
+  public boolean isCaseSensitive()
+  {
+    return caseSensitive;
+  }
+
+
+  /**
+   * Inserts the supplied word into this tree.
+   *
+   * @param  word  to insert
+   *
+   * @throws  IllegalStateException  if this tree is frozen or the maximum number of nodes is exceeded
+   */
+  // CheckStyle:ReturnCount OFF
+  public void insert(final String word)
+  {
+    if (frozen) {
+      throw new IllegalStateException("Cannot insert into a frozen ternary tree");
+    }
+    if (word == null || word.isEmpty()) {
+      return;
+    }
+    final String key = fold(word);
+    if (nodeCount == 0) {
+      newNode(key.charAt(0));
+    }
+    int node = 0;
+    int index = 0;
+    while (true) {
+      final int cmp = key.charAt(index) - splitChars[node];
+      final int slot;
+      if (cmp < 0) {
+        slot = LO;
+      } else if (cmp > 0) {
+        slot = HI;
+      } else if (index == key.length() - 1) {
+        if (!endOfWord.get(node)) {
+          endOfWord.set(node);
+          wordCount++;
+        }
+        return;
+      } else {
+        slot = EQ;
+        index++;
+      }
+      int next = kids[node * KIDS + slot];
+      if (next == 0) {
+        next = newNode(key.charAt(index));
+        kids[node * KIDS + slot] = next;
+      }
+      node = next;
+    }
+  }
+  // CheckStyle:ReturnCount ON
+
+
+  /**
+   * Inserts the supplied array of words into this tree.
+   *
+   * @param  words  to insert
+   */
+  public void insert(final String[] words)
+  {
+    if (words != null) {
+      for (String s : words) {
+        insert(s);
+      }
+    }
+  }
+
+
+  /**
+   * Freezes this tree, releasing any unused capacity. No further words may be inserted into a frozen tree.
+   */
+  public void freeze()
+  {
+    if (!frozen) {
+      splitChars = Arrays.copyOf(splitChars, nodeCount);
+      kids = Arrays.copyOf(kids, nodeCount * KIDS);
+      frozen = true;
+    }
+  }
+
+
+  /**
+   * Returns whether this tree has been frozen.
+   *
+   * @return  whether this tree is frozen
+   */
+  public boolean isFrozen()
+  {
+    return frozen;
+  }
+
+
+  /**
+   * Returns the number of words in this tree.
+   *
+   * @return  number of words
+   */
+  public int getWordCount()
+  {
+    return wordCount;
+  }
+
+
+  /**
+   * Returns the number of nodes in this tree.
+   *
+   * @return  number of nodes
+   */
+  public int getNodeCount()
+  {
+    return nodeCount;
+  }
+
+
+  /**
+   * Returns whether the supplied word has been inserted into this ternary tree.
+   *
+   * @param  word  to search for
+   *
+   * @return  whether the word was found
+   */
+  // CheckStyle:ReturnCount OFF
+  public boolean search(final String word)
+  {
+    if (nodeCount == 0 || word.isEmpty()) {
+      return false;
+    }
+    final String key = fold(word);
+    int node = 0;
+    int index = 0;
+    while (true) {
+      final int cmp = key.charAt(index) - splitChars[node];
+      if (cmp < 0) {
+        node = kids[node * KIDS + LO];
+      } else if (cmp > 0) {
+        node = kids[node * KIDS + HI];
+      } else if (index == key.length() - 1) {
+        return endOfWord.get(node);
+      } else {
+        node = kids[node * KIDS + EQ];
+        index++;
+      }
+      if (node == 0) {
+        return false;
+      }
+    }
+  }
+  // CheckStyle:ReturnCount ON
+
+
+  /**
+   * Returns an array of strings which partially match the supplied word. See {@link TernaryTree#partialSearch(String)}.
+   *
+   * @param  word  to search for
+   *
+   * @return  array of matching words
+   */
+  public String[] partialSearch(final String word)
+  {
+    if (nodeCount == 0) {
+      return EMPTY_ARRAY;
+    }
+    final List<String> matches = new ArrayList<>();
+    partialSearchNode(0, matches, new StringBuilder(word.length()), fold(word), 0);
+    return matches.toArray(new String[matches.size()]);
+  }
+
+
+  /**
+   * Return an array of strings which are near to the supplied word by the supplied distance. See {@link
+   * TernaryTree#nearSearch(String, int)}.
+   *
+   * @param  word  to search for
+   * @param  distance  for valid match
+   *
+   * @return  array of matching words
+   */
+  public String[] nearSearch(final String word, final int distance)
+  {
+    if (nodeCount == 0) {
+      return EMPTY_ARRAY;
+    }
+    final List<String> matches = new ArrayList<>();
+    nearSearchNode(0, distance, matches, new StringBuilder(word.length() + distance), fold(word), 0);
+    return matches.toArray(new String[matches.size()]);
+  }
+
+
+  /**
+   * Allocates a new node with the supplied split character.
+   *
+   * @param  c  split character
+   *
+   * @return  index of the new node
+   *
+   * @throws  IllegalStateException  if the maximum number of nodes is exceeded
+   */
+  private int newNode(final char c)
+  {
+    if (nodeCount == splitChars.length) {
+      if (nodeCount == MAX_NODES) {
+        throw new IllegalStateException("Ternary tree cannot contain more than " + MAX_NODES + " nodes");
+      }
+      final int capacity = (int) Math.min(MAX_NODES, nodeCount + (nodeCount >> 1) + 1L);
+      splitChars = Arrays.copyOf(splitChars, capacity);
+      kids = Arrays.copyOf(kids, capacity * KIDS);
+    }
+    splitChars[nodeCount] = c;
+    return nodeCount++;
+  }
+
+
+  /**
+   * Returns the supplied word as it is stored in this tree, which is case folded if this tree is case insensitive.
+   *
+   * @param  word  to fold
+   *
+   * @return  word or case folded word
+   */
+  private String fold(final String word)
+  {
+    return caseSensitive ? word : WordLists.foldCase(word);
+  }
+
+
+  /**
+   * Recursively searches for a partial word in the ternary tree one node at a time beginning at the supplied node.
+   *
+   * @param  node  to search in
+   * @param  matches  of partial matches
+   * @param  match  the current word being examined, whose length is always equal to index
+   * @param  word  to search for
+   * @param  index  of character in word
+   */
+  private void partialSearchNode(
+    final int node, final List<String> matches, final StringBuilder match, final String word, final int index)
+  {
+    if (index < word.length()) {
+      final char c = word.charAt(index);
+      final char split = splitChars[node];
+      final int cmp = c - split;
+      final int lokid = kids[node * KIDS + LO];
+      if ((c == '.' || cmp < 0) && lokid != 0) {
+        partialSearchNode(lokid, matches, match, word, index);
+      }
+      if (c == '.' || cmp == 0) {
+        match.setLength(index);
+        match.append(split);
+        if (index == word.length() - 1) {
+          if (endOfWord.get(node)) {
+            matches.add(match.toString());
+          }
+        } else {
+          final int eqkid = kids[node * KIDS + EQ];
+          if (eqkid != 0) {
+            partialSearchNode(eqkid, matches, match, word, index + 1);
+          }
+        }
+      }
+      final int hikid = kids[node * KIDS + HI];
+      if ((c == '.' || cmp > 0) && hikid != 0) {
+        partialSearchNode(hikid, matches, match, word, index);
+      }
+    }
+  }
+
+
+  /**
+   * Recursively searches for a near match word in the ternary tree one node at a time beginning at the supplied node.
+   *
+   * @param  node  to search in
+   * @param  distance  of a valid match, must be &gt; 0
+   * @param  matches  list of near matches
+   * @param  match  the current word being examined, whose length is always equal to index
+   * @param  word  to search for
+   * @param  index  of character in word
+   */
+  private void nearSearchNode(
+    final int node, final int distance, final List<String> matches, final StringBuilder match, final String word,
+    final int index)
+  {
+    if (distance >= 0) {
+      final char c = index < word.length() ? word.charAt(index) : Character.MAX_VALUE;
+      final char split = splitChars[node];
+      final int cmp = c - split;
+
+      final int lokid = kids[node * KIDS + LO];
+      if ((distance > 0 || cmp < 0) && lokid != 0) {
+        nearSearchNode(lokid, distance, matches, match, word, index);
+      }
+
+      match.setLength(index);
+      match.append(split);
+      final int eqDistance = cmp == 0 ? distance : distance - 1;
+      if (endOfWord.get(node) && eqDistance >= 0 && index + 1 + eqDistance >= word.length()) {
+        matches.add(match.toString());
+      }
+      final int eqkid = kids[node * KIDS + EQ];
+      if (eqkid != 0) {
+        nearSearchNode(eqkid, eqDistance, matches, match, word, index + 1);
+      }
+
+      final int hikid = kids[node * KIDS + HI];
+      if ((distance > 0 || cmp > 0) && hikid != 0) {
+        nearSearchNode(hikid, distance, matches, match, word, index);
+      }
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return
+      String.format(
+        "%s@%h::caseSensitive=%s,nodeCount=%s,wordCount=%s,frozen=%s",
+        getClass().getName(),
+        hashCode(),
+        caseSensitive,
+        nodeCount,
+        wordCount,
+        frozen);
+  }
+}
@@ -0,0 +1,131 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.util.Iterator;
+
+/**
+ * Provides fast searching for dictionary words using a {@link CompactTernaryTree}. This dictionary offers the same
+ * operations as {@link TernaryTreeDictionary} with a much smaller memory footprint, which makes it suitable for very
+ * large word lists. The tree is frozen once the word list has been inserted, so the dictionary is immutable. This
+ * class inherits the case sensitivity of the supplied word list.
+ *
+ * @author  Middleware Services
+ */
+public class CompactTernaryTreeDictionary implements Dictionary
+{
+
+  /** Ternary tree used for searching. */
+  protected final CompactTernaryTree tree;
+
+
+  /**
+   * Creates a new balanced tree dictionary from the supplied {@link WordList}. This constructor creates a balanced tree
+   * by inserting from the median of the word list, which may require additional work depending on the {@link WordList}
+   * implementation.
+   *
+   * @param  wordList  list of words used to back the dictionary. This list is used exclusively to initialize the
+   *                   internal {@link CompactTernaryTree} used by the dictionary, and may be safely discarded after
+   *                   dictionary creation.
+   */
+  public CompactTernaryTreeDictionary(final WordList wordList)
+  {
+    this(wordList, true);
+  }
+
+
+  /**
+   * Creates a new dictionary instance from the given {@link WordList}.
+   *
+   * @param  wordList  list of words used to back the dictionary. This list is used exclusively to initialize the
+   *                   internal {@link CompactTernaryTree} used by the dictionary, and may be safely discarded after
+   *                   dictionary creation.
+   * @param  useMedian  set to true to force creation of a balanced tree by inserting into the tree from the median of
+   *                    the {@link WordList} outward.
+   */
+  public CompactTernaryTreeDictionary(final WordList wordList, final boolean useMedian)
+  {
+    // Respect case sensitivity of word list in ternary tree
+    final boolean caseSensitive = wordList.getComparator().compare("A", "a") != 0;
+    tree = new CompactTernaryTree(caseSensitive);
+
+    final Iterator<String> iterator = useMedian ? wordList.medianIterator() : wordList.iterator();
+    while (iterator.hasNext()) {
+      tree.insert(iterator.next());
+    }
+    tree.freeze();
+  }
+
+
+  /**
+   * Creates a dictionary that uses the supplied ternary tree for dictionary searches. The tree is frozen if it has not
+   * been already.
+   *
+   * @param  tt  ternary tree used to back dictionary.
+   */
+  public CompactTernaryTreeDictionary(final CompactTernaryTree tt)
+  {
+    tree = tt;
+    tree.freeze();
+  }
+
+
+  @Override
+  public long size()
+  {
+    return tree.getWordCount();
+  }
+
+
+  @Override
+  public boolean search(final String word)
+  {
+    return tree.search(word);
+  }
+
+
+  /**
+   * Returns an array of strings which partially match the supplied word. See {@link
+   * CompactTernaryTree#partialSearch}.
+   *
+   * @param  word  to search for
+   *
+   * @return  array of matching words
+   */
+  public String[] partialSearch(final String word)
+  {
+    return tree.partialSearch(word);
+  }
+
+
+  /**
+   * Returns an array of strings which are near to the supplied word by the supplied distance. See {@link
+   * CompactTernaryTree#nearSearch}.
+   *
+   * @param  word  to search for
+   * @param  distance  for valid match
+   *
+   * @return  array of matching words
+   */
+  public String[] nearSearch(final String word, final int distance)
+  {
+    return tree.nearSearch(word, distance);
+  }
+
+
+  /**
+   * Returns the underlying ternary tree used by this dictionary.
+   *
+   * @return  ternary tree
+   */
+  public CompactTernaryTree getTernaryTree()
+  {
+    return tree;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format("%s@%h::tree=%s", getClass().getName(), hashCode(), tree);
+  }
+}
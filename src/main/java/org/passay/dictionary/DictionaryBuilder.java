@@ -13,7 +13,8 @@ import org.passay.dictionary.sort.ArraysSort;
 
 /**
  * Builder for common dictionary usage. Creates a {@link WordListDictionary} backed by an {@link ArrayWordList} from one
- * or more files containing a list of words, one per line.
+ * or more files containing a list of words, one per line. All words are held in memory; see {@link ExternalSortBuilder}
+ * for sources that do not fit in memory.
  *
  * @author  Middleware Services
  */
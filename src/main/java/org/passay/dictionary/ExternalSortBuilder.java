@@ -0,0 +1,453 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Builder for word list files that are too large to sort in memory. Creates a file containing the words of one or more
+ * sources, one per line, sorted and without duplicates, that can be used with {@link FileWordList} and {@link
+ * MemoryMappedFileWordList} with the same case sensitivity.
+ *
+ * <p>Sources are read sequentially into runs of at most {@link #setRunSize(int) run size} words. Each run is sorted and
+ * written to a temporary file on the {@link #setExecutor(Executor) executor}, while the next run is being read; at most
+ * {@link #setParallelism(int) parallelism} runs are held in memory at a time. The sorted runs are then merged into the
+ * output file. Memory use is therefore bounded by the run size and parallelism, not by the size of the sources, and
+ * all available processors are used for sorting by default.</p>
+ *
+ * @author  Middleware Services
+ */
+public class ExternalSortBuilder
+{
+
+  /** Default number of words per run, value is {@value}. */
+  public static final int DEFAULT_RUN_SIZE = 1000000;
+
+  /** List of word list sources. */
+  private final List<Stream<String>> sources = new ArrayList<>();
+
+  /** Case sensitivity flag. */
+  private boolean caseSensitive = true;
+
+  /** Number of words per run. */
+  private int runSize = DEFAULT_RUN_SIZE;
+
+  /** Maximum number of runs held in memory. */
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+
+  /** Executor used to sort and write runs. */
+  private Executor executor = ForkJoinPool.commonPool();
+
+  /** Directory for temporary run files, null for the default temporary directory. */
+  private File tempDirectory;
+
+
+  /**
+   * Adds a word list file, one word per line, to the word list to be built.
+   *
+   * @param  path  of the word list file
+   * @param  charset  of the word list file
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder addFile(final String path, final Charset charset)
+  {
+    try {
+      return addReader(Files.newBufferedReader(new File(path).toPath(), charset));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read " + path, e);
+    }
+  }
+
+
+  /**
+   * Adds a word list to the word list to be built. The reader is closed once it has been read.
+   *
+   * @param  reader  Reader which returns a word list, one word per line.
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder addReader(final Reader reader)
+  {
+    return addWords(WordLists.streamWords(reader));
+  }
+
+
+  /**
+   * Adds a stream of words to the word list to be built, e.g. one returned by {@link
+   * WordLists#streamZippedWords(java.io.InputStream, Charset, java.util.function.Predicate)}. Empty words are skipped.
+   * The stream is closed once it has been read.
+   *
+   * @param  words  stream of words
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder addWords(final Stream<String> words)
+  {
+    sources.add(words);
+    return this;
+  }
+
+
+  /**
+   * Sets whether the word list is sorted and deduplicated case sensitively. Word lists are built case sensitive by
+   * default. When not case sensitive, the first of several words that differ only by case is kept.
+   *
+   * @param  flag  True for case sensitive, false otherwise.
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder setCaseSensitive(final boolean flag)
+  {
+    caseSensitive = flag;
+    return this;
+  }
+
+
+  /**
+   * Sets the number of words that are sorted in memory at once.
+   *
+   * @param  size  number of words per run, must be greater than 0
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder setRunSize(final int size)
+  {
+    if (size < 1) {
+      throw new IllegalArgumentException("Run size must be greater than 0");
+    }
+    runSize = size;
+    return this;
+  }
+
+
+  /**
+   * Sets the maximum number of runs that are held in memory and sorted concurrently. Defaults to the number of
+   * available processors.
+   *
+   * @param  n  maximum number of runs, must be greater than 0
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder setParallelism(final int n)
+  {
+    if (n < 1) {
+      throw new IllegalArgumentException("Parallelism must be greater than 0");
+    }
+    parallelism = n;
+    return this;
+  }
+
+
+  /**
+   * Sets the executor used to sort and write runs. Defaults to {@link ForkJoinPool#commonPool()}.
+   *
+   * @param  e  executor
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder setExecutor(final Executor e)
+  {
+    if (e == null) {
+      throw new IllegalArgumentException("Executor cannot be null");
+    }
+    executor = e;
+    return this;
+  }
+
+
+  /**
+   * Sets the directory for temporary run files.
+   *
+   * @param  dir  directory or null for the default temporary directory
+   *
+   * @return  This builder.
+   */
+  public ExternalSortBuilder setTempDirectory(final File dir)
+  {
+    tempDirectory = dir;
+    return this;
+  }
+
+
+  /**
+   * Reads all sources and writes their words to the supplied file in UTF-8, one per line, sorted and without
+   * duplicates. Temporary run files are deleted before this method returns.
+   *
+   * @param  output  file to write, which is overwritten if it exists
+   *
+   * @return  number of words written
+   *
+   * @throws  IOException  if an error occurs reading a source or writing a file
+   */
+  public long build(final File output) throws IOException
+  {
+    final Comparator<String> comparator = caseSensitive ?
+      WordLists.CASE_SENSITIVE_COMPARATOR : WordLists.CASE_INSENSITIVE_COMPARATOR;
+    final List<File> runs = new ArrayList<>();
+    try {
+      writeRuns(comparator, runs);
+      return merge(comparator, runs, output);
+    } finally {
+      for (File run : runs) {
+        Files.deleteIfExists(run.toPath());
+      }
+    }
+  }
+
+
+  /**
+   * Reads the sources into runs and sorts and writes each run to a temporary file on the executor.
+   *
+   * @param  comparator  word ordering
+   * @param  runs  list to which temporary files are added in the order the runs were read
+   *
+   * @throws  IOException  if an error occurs reading a source or writing a file
+   */
+  private void writeRuns(final Comparator<String> comparator, final List<File> runs) throws IOException
+  {
+    final Semaphore permits = new Semaphore(parallelism);
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    try {
+      String[] run = new String[runSize];
+      int count = 0;
+      for (Stream<String> source : sources) {
+        try (Stream<String> words = source) {
+          final Iterator<String> i = words.iterator();
+          while (i.hasNext()) {
+            final String word = i.next();
+            if (word.isEmpty()) {
+              continue;
+            }
+            if (count == 0) {
+              permits.acquireUninterruptibly();
+            }
+            run[count++] = word;
+            if (count == runSize) {
+              futures.add(submitRun(run, count, comparator, runs, permits));
+              run = new String[runSize];
+              count = 0;
+            }
+          }
+        }
+      }
+      if (count > 0) {
+        futures.add(submitRun(run, count, comparator, runs, permits));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    } finally {
+      // wait for runs in progress so their files can be deleted
+      for (CompletableFuture<Void> f : futures) {
+        f.exceptionally(ex -> null).join();
+      }
+    }
+  }
+
+
+  /**
+   * Creates the temporary file for a run and submits a task that sorts the run and writes it to the file.
+   *
+   * @param  run  words
+   * @param  count  number of words in run
+   * @param  comparator  word ordering
+   * @param  runs  list to which the temporary file is added
+   * @param  permits  released when the run has been written
+   *
+   * @return  future that completes when the run has been written
+   *
+   * @throws  IOException  if the temporary file cannot be created
+   */
+  private CompletableFuture<Void> submitRun(
+    final String[] run, final int count, final Comparator<String> comparator, final List<File> runs,
+    final Semaphore permits) throws IOException
+  {
+    final File file;
+    try {
+      file = File.createTempFile("passay-run", ".txt", tempDirectory);
+    } catch (IOException e) {
+      permits.release();
+      throw e;
+    }
+    runs.add(file);
+    return CompletableFuture.runAsync(
+      () -> {
+        try {
+          Arrays.sort(run, 0, count, comparator);
+          try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            String previous = null;
+            for (int i = 0; i < count; i++) {
+              if (previous == null || comparator.compare(previous, run[i]) != 0) {
+                writer.write(run[i]);
+                writer.write('\n');
+                previous = run[i];
+              }
+            }
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        } finally {
+          permits.release();
+        }
+      },
+      executor);
+  }
+
+
+  /**
+   * Merges sorted runs into the output file, removing duplicates.
+   *
+   * @param  comparator  word ordering
+   * @param  runs  sorted run files in the order they were read
+   * @param  output  file to write
+   *
+   * @return  number of words written
+   *
+   * @throws  IOException  if an error occurs reading or writing a file
+   */
+  private static long merge(final Comparator<String> comparator, final List<File> runs, final File output)
+    throws IOException
+  {
+    // ties are broken by run order, so the first occurrence of words that compare equal is kept
+    final PriorityQueue<RunReader> queue = new PriorityQueue<>(
+      Math.max(1, runs.size()),
+      (a, b) -> {
+        final int c = comparator.compare(a.word, b.word);
+        return c != 0 ? c : Integer.compare(a.index, b.index);
+      });
+    long count = 0;
+    try (BufferedWriter writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+      try {
+        for (int i = 0; i < runs.size(); i++) {
+          final RunReader reader = new RunReader(runs.get(i), i);
+          if (reader.next()) {
+            queue.add(reader);
+          } else {
+            reader.close();
+          }
+        }
+        String previous = null;
+        while (!queue.isEmpty()) {
+          final RunReader reader = queue.poll();
+          if (previous == null || comparator.compare(previous, reader.word) != 0) {
+            writer.write(reader.word);
+            writer.write('\n');
+            previous = reader.word;
+            count++;
+          }
+          if (reader.next()) {
+            queue.add(reader);
+          } else {
+            reader.close();
+          }
+        }
+      } finally {
+        for (RunReader reader : queue) {
+          reader.close();
+        }
+      }
+    }
+    return count;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "%s@%h::sources=%s,caseSensitive=%s,runSize=%s,parallelism=%s,executor=%s,tempDirectory=%s",
+      getClass().getName(),
+      hashCode(),
+      sources.size(),
+      caseSensitive,
+      runSize,
+      parallelism,
+      executor,
+      tempDirectory);
+  }
+
+
+  /** Reads the words of a sorted run file. */
+  private static final class RunReader
+  {
+
+    /** Reader of the run file. */
+    private final BufferedReader reader;
+
+    /** Position of the run in the order runs were read. */
+    private final int index;
+
+    /** Current word. */
+    private String word;
+
+
+    /**
+     * Creates a new run reader.
+     *
+     * @param  file  run file
+     * @param  i  position of the run
+     *
+     * @throws  IOException  if the file cannot be opened
+     */
+    RunReader(final File file, final int i) throws IOException
+    {
+      reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+      index = i;
+    }
+
+
+    /**
+     * Advances to the next word.
+     *
+     * @return  whether there is a next word
+     *
+     * @throws  IOException  if an error occurs reading the file
+     */
+    boolean next() throws IOException
+    {
+      word = reader.readLine();
+      return word != null;
+    }
+
+
+    /**
+     * Closes the run file.
+     *
+     * @throws  IOException  if an error occurs closing the file
+     */
+    void close() throws IOException
+    {
+      reader.close();
+    }
+  }
+}
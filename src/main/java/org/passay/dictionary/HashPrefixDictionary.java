@@ -0,0 +1,347 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dictionary of hex encoded digests backed by a directory of hash prefix shard files, the layout used by k-anonymity
+ * range queries. Each shard file is named by an upper case hex prefix of fixed length followed by {@link
+ * #SHARD_EXTENSION}, e.g. <code>5BAA6.txt</code>, and contains one digest suffix per line. A line may be followed by a
+ * colon and an occurrence count, e.g. <code>1E4C9B93F3F0682250B6CF8331B7EE68FD8:3861493</code>, which is ignored.
+ *
+ * <p>A search reads only the shard for the prefix of the searched digest, so a lookup costs at most one small read and
+ * memory use depends on the number of cached shards rather than the size of the corpus. The most recently used shards
+ * are held in memory up to {@link #getMaximumShards()}. Missing shard files are treated as empty. Use {@link
+ * #split(Reader, File, int)} to create the shard files from a list of digests sorted by digest.</p>
+ *
+ * <p>This dictionary is intended for use with {@link org.passay.rule.DigestDictionaryRule} and a hash bean that
+ * produces hex encoded digests. Searches are case insensitive and words that are not hex strings longer than the
+ * prefix length are never found. Instances are safe for use by multiple threads.</p>
+ *
+ * @author  Middleware Services
+ */
+public class HashPrefixDictionary implements Dictionary
+{
+
+  /** Extension of shard files, value is {@value}. */
+  public static final String SHARD_EXTENSION = ".txt";
+
+  /** Default length of the hex prefix that names a shard, value is {@value}. */
+  public static final int DEFAULT_PREFIX_LENGTH = 5;
+
+  /** Default maximum number of shards held in memory, value is {@value}. */
+  public static final int DEFAULT_MAXIMUM_SHARDS = 1024;
+
+  /** Load factor of the shard cache. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /** Separator between a digest suffix and its occurrence count. */
+  private static final char COUNT_SEPARATOR = ':';
+
+  /** Directory containing the shard files. */
+  private final File directory;
+
+  /** Length of the hex prefix that names a shard. */
+  private final int prefixLength;
+
+  /** Maximum number of shards held in memory. */
+  private final int maximumShards;
+
+  /** Sorted digest suffixes of the most recently used shards, keyed by prefix. */
+  private final Map<String, String[]> shards;
+
+  /** Number of digests in all shards, computed on first use. */
+  private volatile long size = -1;
+
+
+  /**
+   * Creates a new hash prefix dictionary with {@link #DEFAULT_PREFIX_LENGTH} and {@link #DEFAULT_MAXIMUM_SHARDS}.
+   *
+   * @param  dir  directory containing the shard files
+   */
+  public HashPrefixDictionary(final File dir)
+  {
+    this(dir, DEFAULT_PREFIX_LENGTH, DEFAULT_MAXIMUM_SHARDS);
+  }
+
+
+  /**
+   * Creates a new hash prefix dictionary.
+   *
+   * @param  dir  directory containing the shard files
+   * @param  length  of the hex prefix that names a shard
+   * @param  max  maximum number of shards held in memory
+   */
+  public HashPrefixDictionary(final File dir, final int length, final int max)
+  {
+    if (!dir.isDirectory()) {
+      throw new IllegalArgumentException(dir + " is not a directory");
+    }
+    if (length < 1) {
+      throw new IllegalArgumentException("Prefix length must be greater than 0");
+    }
+    if (max < 1) {
+      throw new IllegalArgumentException("Maximum shards must be greater than 0");
+    }
+    directory = dir;
+    prefixLength = length;
+    maximumShards = max;
+    shards = new LinkedHashMap<String, String[]>(Math.min(max, DEFAULT_MAXIMUM_SHARDS), LOAD_FACTOR, true)
+    {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, String[]> eldest)
+      {
+        return size() > maximumShards;
+      }
+    };
+  }
+
+
+  /**
+   * Returns the directory containing the shard files.
+   *
+   * @return  shard directory
+   */
+  public File getDirectory()
+  {
+    return directory;
+  }
+
+
+  /**
+   * Returns the length of the hex prefix that names a shard.
+   *
+   * @return  prefix length
+   */
+  public int getPrefixLength()
+  {
+    return prefixLength;
+  }
+
+
+  /**
+   * Returns the maximum number of shards held in memory.
+   *
+   * @return  maximum shards
+   */
+  public int getMaximumShards()
+  {
+    return maximumShards;
+  }
+
+
+  /**
+   * Returns the number of digests in this dictionary. The first invocation reads every shard file, which may take some
+   * time for a large corpus; the result is cached.
+   *
+   * @return  number of digests
+   */
+  @Override
+  public long size()
+  {
+    if (size < 0) {
+      long count = 0;
+      final File[] files = directory.listFiles((d, name) -> isShardFile(name));
+      if (files != null) {
+        for (File f : files) {
+          count += readShard(f).length;
+        }
+      }
+      size = count;
+    }
+    return size;
+  }
+
+
+  @Override
+  public boolean search(final String word)
+  {
+    if (word.length() <= prefixLength || !isHex(word)) {
+      return false;
+    }
+    final String digest = word.toUpperCase(Locale.ROOT);
+    return Arrays.binarySearch(getShard(digest.substring(0, prefixLength)), digest.substring(prefixLength)) >= 0;
+  }
+
+
+  /**
+   * Removes all shards held in memory.
+   */
+  public void clear()
+  {
+    synchronized (shards) {
+      shards.clear();
+    }
+  }
+
+
+  /**
+   * Returns the sorted digest suffixes of the shard for the supplied prefix, reading the shard file if it is not held
+   * in memory.
+   *
+   * @param  prefix  upper case hex prefix
+   *
+   * @return  sorted digest suffixes
+   */
+  private String[] getShard(final String prefix)
+  {
+    synchronized (shards) {
+      final String[] shard = shards.get(prefix);
+      if (shard != null) {
+        return shard;
+      }
+    }
+    // read outside the lock so lookups of other shards are not blocked by I/O
+    final String[] shard = readShard(new File(directory, prefix + SHARD_EXTENSION));
+    synchronized (shards) {
+      shards.putIfAbsent(prefix, shard);
+    }
+    return shard;
+  }
+
+
+  /**
+   * Reads the digest suffixes of a shard file.
+   *
+   * @param  file  shard file
+   *
+   * @return  sorted upper case digest suffixes, empty if the file does not exist
+   */
+  private static String[] readShard(final File file)
+  {
+    if (!file.exists()) {
+      return new String[0];
+    }
+    final List<String> suffixes = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final int i = line.indexOf(COUNT_SEPARATOR);
+        final String suffix = (i < 0 ? line : line.substring(0, i)).trim();
+        if (!suffix.isEmpty()) {
+          suffixes.add(suffix.toUpperCase(Locale.ROOT));
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error reading shard file " + file, e);
+    }
+    final String[] shard = suffixes.toArray(new String[0]);
+    Arrays.sort(shard);
+    return shard;
+  }
+
+
+  /**
+   * Writes the shard files for a list of hex encoded digests, one per line and sorted by digest, as produced by breach
+   * corpus downloads. Lines may be followed by a colon and an occurrence count, which is preserved. Existing shard
+   * files in the directory are overwritten.
+   *
+   * @param  reader  to read digests from, which is not closed
+   * @param  dir  directory to write shard files to
+   * @param  length  of the hex prefix that names a shard
+   *
+   * @return  number of digests written
+   *
+   * @throws  IOException  if an error occurs reading or writing
+   * @throws  IllegalArgumentException  if a digest is not a hex string longer than length or digests are not sorted
+   */
+  public static long split(final Reader reader, final File dir, final int length)
+    throws IOException
+  {
+    final BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    long count = 0;
+    String prefix = null;
+    Writer out = null;
+    try {
+      String line;
+      while ((line = in.readLine()) != null) {
+        final String entry = line.trim().toUpperCase(Locale.ROOT);
+        if (entry.isEmpty()) {
+          continue;
+        }
+        final int i = entry.indexOf(COUNT_SEPARATOR);
+        final String digest = i < 0 ? entry : entry.substring(0, i);
+        if (digest.length() <= length || !isHex(digest)) {
+          throw new IllegalArgumentException("Invalid digest " + digest);
+        }
+        final String p = digest.substring(0, length);
+        if (!p.equals(prefix)) {
+          if (prefix != null && p.compareTo(prefix) < 0) {
+            throw new IllegalArgumentException("Digests are not sorted at " + digest);
+          }
+          if (out != null) {
+            out.close();
+          }
+          prefix = p;
+          out = Files.newBufferedWriter(new File(dir, prefix + SHARD_EXTENSION).toPath(), StandardCharsets.UTF_8);
+        }
+        out.write(entry, length, entry.length() - length);
+        out.write('\n');
+        count++;
+      }
+    } finally {
+      if (out != null) {
+        out.close();
+      }
+    }
+    return count;
+  }
+
+
+  /**
+   * Returns whether the supplied file name is the name of a shard file.
+   *
+   * @param  name  of a file
+   *
+   * @return  whether name is a hex string followed by {@link #SHARD_EXTENSION}
+   */
+  private boolean isShardFile(final String name)
+  {
+    return name.length() == prefixLength + SHARD_EXTENSION.length() &&
+      name.endsWith(SHARD_EXTENSION) && isHex(name.substring(0, prefixLength));
+  }
+
+
+  /**
+   * Returns whether the supplied string contains only hex digits.
+   *
+   * @param  s  to check
+   *
+   * @return  whether s is a hex string
+   */
+  private static boolean isHex(final String s)
+  {
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'A' || c > 'F') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "%s@%h::directory=%s,prefixLength=%s,maximumShards=%s",
+      getClass().getName(),
+      hashCode(),
+      directory,
+      prefixLength,
+      maximumShards);
+  }
+}
@@ -14,7 +14,8 @@ import java.nio.charset.StandardCharsets;
  * Provides an implementation of a {@link WordList} that is backed by a file and leverages a {@link MappedByteBuffer}.
  * Each word is read from the file for every get, though the implementation supports a simple memory cache to improve
  * read performance. This implementation does not support files greater than 2GB in size. Use this implementation when
- * the initialization cost of {@link FileWordList} is too high.
+ * the initialization cost of {@link FileWordList} is too high. Reads do not acquire any lock, so multiple threads may
+ * search the same word list concurrently.
  *
  * @author  Middleware Services
  */
@@ -130,6 +131,13 @@ public class MemoryMappedFileWordList extends AbstractFileWordList
   }
 
 
+  @Override
+  protected String readWord(final int index) throws IOException
+  {
+    return readWord(index, (ByteBuffer) buffer);
+  }
+
+
   @Override
   protected void seek(final long offset)
   {
@@ -0,0 +1,541 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dictionary that supports adding and removing words while it is being searched. Words are organized like a
+ * log-structured merge tree: additions and removals are written to a small sorted in-memory table, which is flushed to
+ * an immutable sorted segment once it holds {@link #getMemtableSize()} entries. Removals are recorded as tombstones
+ * that hide the word in older segments. Once there are more than {@link #getMaximumSegments()} segments, all segments
+ * are merged into one and tombstones are discarded.
+ *
+ * <p>Flushing and compaction run in the background, on the {@link #setExecutor(Executor) executor} of this dictionary
+ * or on a new thread, so that writers are not blocked by merging and searches never wait for writers. A search examines
+ * the table and then the segments from newest to oldest, with one binary search each. Writes are serialized, but only
+ * perform in-memory inserts. {@link #flush()} and {@link #compact()} may be invoked to perform maintenance on the
+ * calling thread.</p>
+ *
+ * <p>Instances are safe for use by multiple threads.</p>
+ *
+ * @author  Middleware Services
+ */
+public class MutableDictionary implements Dictionary
+{
+
+  /** Default number of table entries that causes a flush, value is {@value}. */
+  public static final int DEFAULT_MEMTABLE_SIZE = 10000;
+
+  /** Default number of segments that causes a compaction, value is {@value}. */
+  public static final int DEFAULT_MAXIMUM_SEGMENTS = 4;
+
+  /** Word ordering. */
+  private final Comparator<String> comparator;
+
+  /** Number of words in this dictionary. */
+  private final AtomicLong size = new AtomicLong();
+
+  /** Serializes writes and publication of new states. */
+  private final Object writeLock = new Object();
+
+  /** Serializes flushing and compaction. */
+  private final Object maintenanceLock = new Object();
+
+  /** Whether flushing or compaction has been scheduled. */
+  private final AtomicBoolean maintenanceScheduled = new AtomicBoolean();
+
+  /** Current table and segments. */
+  private volatile State state;
+
+  /** Number of table entries that causes a flush. */
+  private int memtableSize = DEFAULT_MEMTABLE_SIZE;
+
+  /** Number of segments that causes a compaction. */
+  private int maximumSegments = DEFAULT_MAXIMUM_SEGMENTS;
+
+  /** Executor used for flushing and compaction, null to start a new thread. */
+  private Executor executor;
+
+
+  /** Creates a new empty case sensitive mutable dictionary. */
+  public MutableDictionary()
+  {
+    this(true);
+  }
+
+
+  /**
+   * Creates a new empty mutable dictionary.
+   *
+   * @param  caseSensitive  whether words are compared case sensitively
+   */
+  public MutableDictionary(final boolean caseSensitive)
+  {
+    this(new ArrayWordList(new String[0], caseSensitive));
+  }
+
+
+  /**
+   * Creates a new mutable dictionary whose initial words are the supplied word list, which becomes the oldest segment.
+   * The word list is read into memory when it is compacted.
+   *
+   * @param  wl  word list without duplicates, sorted according to {@link WordList#getComparator()}
+   */
+  public MutableDictionary(final WordList wl)
+  {
+    comparator = wl.getComparator();
+    final List<Segment> segments = new ArrayList<>(1);
+    if (wl.size() > 0) {
+      segments.add(new Segment(wl));
+      size.set(wl.size());
+    }
+    state = new State(newMemtable(), 0, null, Collections.unmodifiableList(segments));
+  }
+
+
+  /**
+   * Returns the number of table entries that causes a flush.
+   *
+   * @return  memtable size
+   */
+  public int getMemtableSize()
+  {
+    return memtableSize;
+  }
+
+
+  /**
+   * Sets the number of table entries that causes a flush.
+   *
+   * @param  n  memtable size, must be greater than 0
+   */
+  public void setMemtableSize(final int n)
+  {
+    if (n < 1) {
+      throw new IllegalArgumentException("Memtable size must be greater than 0");
+    }
+    memtableSize = n;
+  }
+
+
+  /**
+   * Returns the number of segments that causes a compaction.
+   *
+   * @return  maximum segments
+   */
+  public int getMaximumSegments()
+  {
+    return maximumSegments;
+  }
+
+
+  /**
+   * Sets the number of segments that causes a compaction.
+   *
+   * @param  n  maximum segments, must be greater than 0
+   */
+  public void setMaximumSegments(final int n)
+  {
+    if (n < 1) {
+      throw new IllegalArgumentException("Maximum segments must be greater than 0");
+    }
+    maximumSegments = n;
+  }
+
+
+  /**
+   * Returns the executor used for flushing and compaction.
+   *
+   * @return  executor or null if a new thread is started for maintenance
+   */
+  public Executor getExecutor()
+  {
+    return executor;
+  }
+
+
+  /**
+   * Sets the executor used for flushing and compaction.
+   *
+   * @param  e  executor or null to start a new thread for maintenance
+   */
+  public void setExecutor(final Executor e)
+  {
+    executor = e;
+  }
+
+
+  /**
+   * Returns the number of immutable segments.
+   *
+   * @return  number of segments
+   */
+  public int getSegmentCount()
+  {
+    return state.segments.size();
+  }
+
+
+  @Override
+  public long size()
+  {
+    return size.get();
+  }
+
+
+  @Override
+  public boolean search(final String word)
+  {
+    final State s = state;
+    Boolean found = s.memtable.get(word);
+    if (found == null && s.flushing != null) {
+      found = s.flushing.get(word);
+    }
+    for (int i = 0; found == null && i < s.segments.size(); i++) {
+      found = s.segments.get(i).find(word);
+    }
+    return found != null && found;
+  }
+
+
+  /**
+   * Adds a word to this dictionary.
+   *
+   * @param  word  to add
+   *
+   * @return  whether the word was added, false if it was already present
+   */
+  public boolean add(final String word)
+  {
+    return write(word, true);
+  }
+
+
+  /**
+   * Removes a word from this dictionary.
+   *
+   * @param  word  to remove
+   *
+   * @return  whether the word was removed, false if it was not present
+   */
+  public boolean remove(final String word)
+  {
+    return write(word, false);
+  }
+
+
+  /** Flushes the table to a new segment on the calling thread, if it is not empty. */
+  public void flush()
+  {
+    synchronized (maintenanceLock) {
+      final State s;
+      synchronized (writeLock) {
+        if (state.memtableCount == 0) {
+          return;
+        }
+        s = new State(newMemtable(), 0, state.memtable, state.segments);
+        state = s;
+      }
+      // readers search the flushing table until the segment is published
+      final Segment segment = new Segment(s.flushing, comparator);
+      synchronized (writeLock) {
+        final List<Segment> segments = new ArrayList<>(state.segments.size() + 1);
+        segments.add(segment);
+        segments.addAll(state.segments);
+        state = new State(state.memtable, state.memtableCount, null, Collections.unmodifiableList(segments));
+      }
+    }
+  }
+
+
+  /** Merges all segments into one on the calling thread, discarding removed words. */
+  public void compact()
+  {
+    synchronized (maintenanceLock) {
+      final List<Segment> segments = state.segments;
+      if (segments.size() < 2 && (segments.isEmpty() || segments.get(0).removed.length == 0)) {
+        return;
+      }
+      // segments only change under the maintenance lock, so the merged segments are still current when published
+      // the oldest segment hides no older words, so its removed words are discarded
+      Segment merged = new Segment(segments.get(segments.size() - 1).words);
+      for (int i = segments.size() - 2; i >= 0; i--) {
+        merged = segments.get(i).overlay(merged, comparator);
+      }
+      synchronized (writeLock) {
+        state = new State(state.memtable, state.memtableCount, state.flushing, Collections.singletonList(merged));
+      }
+    }
+  }
+
+
+  /**
+   * Adds or removes a word and schedules maintenance if necessary.
+   *
+   * @param  word  to add or remove
+   * @param  present  whether to add the word
+   *
+   * @return  whether this dictionary changed
+   */
+  private boolean write(final String word, final boolean present)
+  {
+    if (word == null) {
+      throw new NullPointerException("Word cannot be null");
+    }
+    final boolean changed;
+    synchronized (writeLock) {
+      changed = search(word) != present;
+      if (changed) {
+        final State s = state;
+        if (s.memtable.put(word, present) == null) {
+          state = new State(s.memtable, s.memtableCount + 1, s.flushing, s.segments);
+        }
+        size.addAndGet(present ? 1 : -1);
+      }
+    }
+    if (changed) {
+      scheduleMaintenance();
+    }
+    return changed;
+  }
+
+
+  /** Schedules flushing and compaction if the table is full and maintenance is not already scheduled. */
+  private void scheduleMaintenance()
+  {
+    if (state.memtableCount < memtableSize || !maintenanceScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    final Runnable task = () -> {
+      try {
+        flush();
+        if (state.segments.size() > maximumSegments) {
+          compact();
+        }
+      } finally {
+        maintenanceScheduled.set(false);
+      }
+    };
+    if (executor != null) {
+      executor.execute(task);
+    } else {
+      final Thread t = new Thread(task, getClass().getSimpleName() + "-maintenance");
+      t.setDaemon(true);
+      t.start();
+    }
+  }
+
+
+  /**
+   * Creates a new empty table.
+   *
+   * @return  table
+   */
+  private NavigableMap<String, Boolean> newMemtable()
+  {
+    return new ConcurrentSkipListMap<>(comparator);
+  }
+
+
+  @Override
+  public String toString()
+  {
+    final State s = state;
+    return String.format(
+      "%s@%h::size=%s,memtable=%s,segments=%s,memtableSize=%s,maximumSegments=%s,executor=%s",
+      getClass().getName(),
+      hashCode(),
+      size,
+      s.memtableCount,
+      s.segments.size(),
+      memtableSize,
+      maximumSegments,
+      executor);
+  }
+
+
+  /** Immutable snapshot of the table and segments of this dictionary. */
+  private static final class State
+  {
+
+    /** Table that receives writes. */
+    private final NavigableMap<String, Boolean> memtable;
+
+    /** Number of entries in the table. */
+    private final int memtableCount;
+
+    /** Table that is being flushed, or null. */
+    private final NavigableMap<String, Boolean> flushing;
+
+    /** Segments from newest to oldest. */
+    private final List<Segment> segments;
+
+
+    /**
+     * Creates a new state.
+     *
+     * @param  m  table that receives writes
+     * @param  count  number of entries in m
+     * @param  f  table that is being flushed, or null
+     * @param  s  segments from newest to oldest
+     */
+    State(final NavigableMap<String, Boolean> m, final int count, final NavigableMap<String, Boolean> f,
+          final List<Segment> s)
+    {
+      memtable = m;
+      memtableCount = count;
+      flushing = f;
+      segments = s;
+    }
+  }
+
+
+  /** Immutable sorted words and removed words. */
+  private static final class Segment
+  {
+
+    /** Word list of present words. */
+    private final WordList words;
+
+    /** Sorted removed words. */
+    private final String[] removed;
+
+
+    /**
+     * Creates a new segment from a word list.
+     *
+     * @param  wl  sorted present words
+     */
+    Segment(final WordList wl)
+    {
+      words = wl;
+      removed = new String[0];
+    }
+
+
+    /**
+     * Creates a new segment from a table.
+     *
+     * @param  table  to copy
+     * @param  c  word ordering
+     */
+    Segment(final NavigableMap<String, Boolean> table, final Comparator<String> c)
+    {
+      final List<String> present = new ArrayList<>(table.size());
+      final List<String> absent = new ArrayList<>();
+      for (Map.Entry<String, Boolean> e : table.entrySet()) {
+        (e.getValue() ? present : absent).add(e.getKey());
+      }
+      words = new SortedWordList(present.toArray(new String[0]), c);
+      removed = absent.toArray(new String[0]);
+    }
+
+
+    /**
+     * Returns whether this segment records the supplied word as present or removed.
+     *
+     * @param  word  to find
+     *
+     * @return  true if present, false if removed, null if this segment does not record the word
+     */
+    Boolean find(final String word)
+    {
+      Boolean found = null;
+      if (WordLists.binarySearch(words, word) >= 0) {
+        found = Boolean.TRUE;
+      } else if (removed.length > 0 && Arrays.binarySearch(removed, word, words.getComparator()) >= 0) {
+        found = Boolean.FALSE;
+      }
+      return found;
+    }
+
+
+    /**
+     * Merges this segment over an older segment that has no removed words. Words removed in this segment are dropped
+     * from the older segment.
+     *
+     * @param  older  segment without removed words
+     * @param  c  word ordering
+     *
+     * @return  merged segment without removed words
+     */
+    Segment overlay(final Segment older, final Comparator<String> c)
+    {
+      final List<String> merged = new ArrayList<>(older.words.size() + words.size());
+      int i = 0;
+      int j = 0;
+      int k = 0;
+      while (i < older.words.size() || j < words.size()) {
+        final int cmp;
+        if (i == older.words.size()) {
+          cmp = 1;
+        } else if (j == words.size()) {
+          cmp = -1;
+        } else {
+          cmp = c.compare(older.words.get(i), words.get(j));
+        }
+        if (cmp < 0) {
+          final String word = older.words.get(i++);
+          while (k < removed.length && c.compare(removed[k], word) < 0) {
+            k++;
+          }
+          if (k == removed.length || c.compare(removed[k], word) != 0) {
+            merged.add(word);
+          }
+        } else {
+          merged.add(words.get(j++));
+          if (cmp == 0) {
+            i++;
+          }
+        }
+      }
+      return new Segment(new SortedWordList(merged.toArray(new String[0]), c));
+    }
+  }
+
+
+  /** Word list over an array that is already sorted by a comparator. */
+  private static final class SortedWordList extends AbstractWordList
+  {
+
+    /** Sorted words. */
+    private final String[] words;
+
+
+    /**
+     * Creates a new sorted word list.
+     *
+     * @param  array  sorted words
+     * @param  c  word ordering
+     */
+    SortedWordList(final String[] array, final Comparator<String> c)
+    {
+      words = array;
+      comparator = c;
+    }
+
+
+    @Override
+    public String get(final int index)
+    {
+      return words[index];
+    }
+
+
+    @Override
+    public int size()
+    {
+      return words.length;
+    }
+  }
+}
@@ -0,0 +1,303 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dictionary that delegates to a dictionary created by a loader and that can be reloaded without blocking searches.
+ * {@link #reload()} runs the loader on a background thread and publishes the new dictionary atomically once it has been
+ * fully built; searches always see either the previous or the new dictionary, never a partially built one.
+ *
+ * <p>The previous dictionary is closed once all searches that started against it have completed, see {@link
+ * #close(Dictionary)}. This allows file backed word lists such as {@link MemoryMappedFileWordList} to be replaced
+ * without closing a file that is still being read.</p>
+ *
+ * <p>Instances are safe for use by multiple threads.</p>
+ *
+ * @author  Middleware Services
+ */
+public class ReloadableDictionary implements Dictionary, AutoCloseable
+{
+
+  /** Creates dictionaries. */
+  private final Callable<? extends Dictionary> loader;
+
+  /** Current dictionary. */
+  private final AtomicReference<Generation> current = new AtomicReference<>();
+
+  /** Executor used to run the loader, null to start a new thread for each reload. */
+  private Executor executor;
+
+
+  /**
+   * Creates a new reloadable dictionary. The loader is invoked immediately on the calling thread to create the initial
+   * dictionary.
+   *
+   * @param  l  creates a new, fully built dictionary each time it is invoked
+   *
+   * @throws  RuntimeException  if the loader fails
+   */
+  public ReloadableDictionary(final Callable<? extends Dictionary> l)
+  {
+    if (l == null) {
+      throw new IllegalArgumentException("Loader cannot be null");
+    }
+    loader = l;
+    current.set(new Generation(load()));
+  }
+
+
+  /**
+   * Returns the executor used to run the loader.
+   *
+   * @return  executor or null if a new thread is started for each reload
+   */
+  public Executor getExecutor()
+  {
+    return executor;
+  }
+
+
+  /**
+   * Sets the executor used to run the loader.
+   *
+   * @param  e  executor or null to start a new thread for each reload
+   */
+  public void setExecutor(final Executor e)
+  {
+    executor = e;
+  }
+
+
+  /**
+   * Returns the current dictionary. The returned dictionary may be closed by a subsequent reload.
+   *
+   * @return  current dictionary
+   */
+  public Dictionary getDictionary()
+  {
+    return current.get().dictionary;
+  }
+
+
+  /**
+   * Invokes the loader on a background thread and publishes the new dictionary when it completes. If the loader fails,
+   * the current dictionary remains in use and the returned future completes exceptionally.
+   *
+   * @return  future that completes with the new dictionary once it has been published
+   */
+  public CompletableFuture<Dictionary> reload()
+  {
+    final Executor e = executor != null ? executor : r -> {
+      final Thread t = new Thread(r, getClass().getSimpleName() + "-reload");
+      t.setDaemon(true);
+      t.start();
+    };
+    return CompletableFuture.supplyAsync(this::load, e).thenApply(this::publish);
+  }
+
+
+  /**
+   * Invokes the loader on the calling thread and publishes the new dictionary.
+   *
+   * @return  new dictionary
+   *
+   * @throws  RuntimeException  if the loader fails
+   */
+  public Dictionary reloadNow()
+  {
+    return publish(load());
+  }
+
+
+  @Override
+  public boolean search(final String word)
+  {
+    final Generation g = acquire();
+    try {
+      return g.dictionary.search(word);
+    } finally {
+      g.release();
+    }
+  }
+
+
+  @Override
+  public long size()
+  {
+    final Generation g = acquire();
+    try {
+      return g.dictionary.size();
+    } finally {
+      g.release();
+    }
+  }
+
+
+  /**
+   * Closes the current dictionary once searches in progress have completed. This dictionary must not be used
+   * afterwards.
+   */
+  @Override
+  public void close()
+  {
+    current.get().retire();
+  }
+
+
+  /**
+   * Closes a dictionary that has been replaced and is no longer in use. The default implementation closes dictionaries
+   * that are {@link AutoCloseable} and the word lists of {@link WordListDictionary} instances that are {@link
+   * AutoCloseable}, such as file backed word lists. Exceptions are ignored, since the dictionary is no longer in use.
+   *
+   * @param  dict  to close
+   */
+  protected void close(final Dictionary dict)
+  {
+    try {
+      if (dict instanceof AutoCloseable) {
+        ((AutoCloseable) dict).close();
+      } else if (dict instanceof WordListDictionary &&
+          ((WordListDictionary) dict).getWordList() instanceof AutoCloseable) {
+        ((AutoCloseable) ((WordListDictionary) dict).getWordList()).close();
+      }
+    } catch (Exception e) {
+      // dictionary is no longer in use
+      return;
+    }
+  }
+
+
+  /**
+   * Invokes the loader.
+   *
+   * @return  new dictionary
+   */
+  private Dictionary load()
+  {
+    final Dictionary dict;
+    try {
+      dict = loader.call();
+    } catch (IOException e) {
+      throw new RuntimeException("IO error loading dictionary", e);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException("Error loading dictionary", e);
+    }
+    if (dict == null) {
+      throw new IllegalStateException("Loader returned null");
+    }
+    return dict;
+  }
+
+
+  /**
+   * Makes the supplied dictionary current and retires the previous one.
+   *
+   * @param  dict  new dictionary
+   *
+   * @return  dict
+   */
+  private Dictionary publish(final Dictionary dict)
+  {
+    current.getAndSet(new Generation(dict)).retire();
+    return dict;
+  }
+
+
+  /**
+   * Returns the current generation after registering a search against it. The caller must invoke {@link
+   * Generation#release()} when the search completes.
+   *
+   * @return  current generation
+   */
+  private Generation acquire()
+  {
+    while (true) {
+      final Generation g = current.get();
+      g.users.incrementAndGet();
+      if (current.get() == g) {
+        return g;
+      }
+      // replaced concurrently, it may already be draining
+      g.release();
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "%s@%h::dictionary=%s,loader=%s,executor=%s",
+      getClass().getName(),
+      hashCode(),
+      current.get().dictionary,
+      loader,
+      executor);
+  }
+
+
+  /** Dictionary and the number of searches in progress against it. */
+  private final class Generation
+  {
+
+    /** Dictionary. */
+    private final Dictionary dictionary;
+
+    /** Number of searches in progress. */
+    private final AtomicInteger users = new AtomicInteger();
+
+    /** Whether this generation has been replaced. */
+    private volatile boolean retired;
+
+    /** Whether the dictionary has been closed. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+
+    /**
+     * Creates a new generation.
+     *
+     * @param  dict  dictionary
+     */
+    Generation(final Dictionary dict)
+    {
+      dictionary = dict;
+    }
+
+
+    /** Marks this generation as replaced and closes it if no searches are in progress. */
+    void retire()
+    {
+      retired = true;
+      if (users.get() == 0) {
+        closeOnce();
+      }
+    }
+
+
+    /** Unregisters a search and closes this generation if it is the last search after it was replaced. */
+    void release()
+    {
+      if (users.decrementAndGet() == 0 && retired) {
+        closeOnce();
+      }
+    }
+
+
+    /** Closes the dictionary unless it has already been closed. */
+    private void closeOnce()
+    {
+      if (closed.compareAndSet(false, true)) {
+        close(dictionary);
+      }
+    }
+  }
+}
@@ -0,0 +1,276 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dictionary composed of several underlying dictionaries, or shards, such as one word list per language or per breach
+ * source. A word is found if any shard contains it.
+ *
+ * <p>By default every shard is searched, in order, and the search stops at the first shard that contains the word. If
+ * a {@link Router} is supplied, words are routed to a single shard, which requires that the shards were partitioned
+ * with the same router, e.g. by {@link #HASH_ROUTER} or, for case insensitive shards, {@link
+ * #CASE_INSENSITIVE_HASH_ROUTER}. If an {@link #setExecutor(Executor) executor} is supplied,
+ * shards are searched in parallel and the search returns as soon as any shard reports a match.</p>
+ *
+ * <p>Shards may be replaced at any time with {@link #setShard(int, Dictionary)}, e.g. when a single word list is
+ * refreshed; searches in progress complete against the shard they started with. Instances are safe for use by multiple
+ * threads if the shards are.</p>
+ *
+ * @author  Middleware Services
+ */
+public class ShardedDictionary implements Dictionary
+{
+
+  /**
+   * Router that selects a shard by the hash code of the word. Words that differ only in case are routed to different
+   * shards, so this router only suits case sensitive shards; use {@link #CASE_INSENSITIVE_HASH_ROUTER} for case
+   * insensitive shards.
+   */
+  public static final Router HASH_ROUTER = (word, count) -> Math.floorMod(word.hashCode(), count);
+
+  /**
+   * Router that selects a shard by the hash code of the case folded word, see {@link WordLists#foldCase(String)}, so
+   * that words that differ only in case are routed to the same case insensitive shard.
+   */
+  public static final Router CASE_INSENSITIVE_HASH_ROUTER =
+    (word, count) -> Math.floorMod(WordLists.foldCase(word).hashCode(), count);
+
+  /** Shards of this dictionary. */
+  private final AtomicReferenceArray<Dictionary> shards;
+
+  /** Router that selects the shard for a word, null to search all shards. */
+  private final Router router;
+
+  /** Executor used to search shards in parallel, null to search on the calling thread. */
+  private Executor executor;
+
+
+  /**
+   * Creates a new sharded dictionary that searches all shards.
+   *
+   * @param  dicts  shards of this dictionary
+   */
+  public ShardedDictionary(final Dictionary... dicts)
+  {
+    this(null, dicts);
+  }
+
+
+  /**
+   * Creates a new sharded dictionary.
+   *
+   * @param  r  router that selects the shard for a word, null to search all shards
+   * @param  dicts  shards of this dictionary
+   */
+  public ShardedDictionary(final Router r, final Dictionary... dicts)
+  {
+    if (dicts == null || dicts.length == 0) {
+      throw new IllegalArgumentException("Shards cannot be empty");
+    }
+    for (Dictionary d : dicts) {
+      if (d == null) {
+        throw new IllegalArgumentException("Shard cannot be null");
+      }
+    }
+    shards = new AtomicReferenceArray<>(dicts);
+    router = r;
+  }
+
+
+  /**
+   * Returns the number of shards.
+   *
+   * @return  number of shards
+   */
+  public int getShardCount()
+  {
+    return shards.length();
+  }
+
+
+  /**
+   * Returns the shard at the supplied index.
+   *
+   * @param  index  of the shard
+   *
+   * @return  shard
+   */
+  public Dictionary getShard(final int index)
+  {
+    return shards.get(index);
+  }
+
+
+  /**
+   * Replaces the shard at the supplied index. Searches that are in progress may still use the previous shard.
+   *
+   * @param  index  of the shard
+   * @param  dict  new shard
+   *
+   * @return  previous shard
+   */
+  public Dictionary setShard(final int index, final Dictionary dict)
+  {
+    if (dict == null) {
+      throw new IllegalArgumentException("Shard cannot be null");
+    }
+    return shards.getAndSet(index, dict);
+  }
+
+
+  /**
+   * Returns the router that selects the shard for a word.
+   *
+   * @return  router or null if all shards are searched
+   */
+  public Router getRouter()
+  {
+    return router;
+  }
+
+
+  /**
+   * Returns the executor used to search shards in parallel.
+   *
+   * @return  executor or null if shards are searched on the calling thread
+   */
+  public Executor getExecutor()
+  {
+    return executor;
+  }
+
+
+  /**
+   * Sets the executor used to search shards in parallel. Parallel search only applies when words are not routed to a
+   * single shard. It pays off when shards are slow to search, e.g. file or database backed shards.
+   *
+   * @param  e  executor or null to search on the calling thread
+   */
+  public void setExecutor(final Executor e)
+  {
+    executor = e;
+  }
+
+
+  /**
+   * Returns the sum of the sizes of the shards.
+   *
+   * @return  number of words in all shards
+   */
+  @Override
+  public long size()
+  {
+    long size = 0;
+    for (int i = 0; i < shards.length(); i++) {
+      size += shards.get(i).size();
+    }
+    return size;
+  }
+
+
+  @Override
+  public boolean search(final String word)
+  {
+    final boolean found;
+    if (router != null) {
+      found = shards.get(router.route(word, shards.length())).search(word);
+    } else if (executor == null || shards.length() < 2) {
+      found = searchSequential(word);
+    } else {
+      found = searchParallel(word);
+    }
+    return found;
+  }
+
+
+  /**
+   * Searches the shards in order on the calling thread and stops at the first shard that contains the word.
+   *
+   * @param  word  to search for
+   *
+   * @return  whether any shard contains the word
+   */
+  private boolean searchSequential(final String word)
+  {
+    for (int i = 0; i < shards.length(); i++) {
+      if (shards.get(i).search(word)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  /**
+   * Searches all shards on the executor of this dictionary and returns when any shard reports a match or all shards
+   * have been searched. Shards that have not started searching when a match is found are skipped.
+   *
+   * @param  word  to search for
+   *
+   * @return  whether any shard contains the word
+   */
+  private boolean searchParallel(final String word)
+  {
+    final CompletableFuture<Boolean> result = new CompletableFuture<>();
+    final AtomicInteger remaining = new AtomicInteger(shards.length());
+    for (int i = 0; i < shards.length(); i++) {
+      final Dictionary shard = shards.get(i);
+      CompletableFuture.supplyAsync(() -> !result.isDone() && shard.search(word), executor).whenComplete(
+        (found, ex) -> {
+          if (ex != null) {
+            result.completeExceptionally(ex);
+          } else if (found) {
+            result.complete(true);
+          } else if (remaining.decrementAndGet() == 0) {
+            result.complete(false);
+          }
+        });
+    }
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "%s@%h::shards=%s,router=%s,executor=%s",
+      getClass().getName(),
+      hashCode(),
+      shards,
+      router,
+      executor);
+  }
+
+
+  /** Selects the shard that contains a word. */
+  @FunctionalInterface
+  public interface Router
+  {
+
+
+    /**
+     * Returns the index of the shard that contains the supplied word.
+     *
+     * @param  word  to route
+     * @param  count  number of shards
+     *
+     * @return  shard index between 0 and count - 1
+     */
+    int route(String word, int count);
+  }
+}
@@ -4,44 +4,83 @@ package org.passay.dictionary;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
- * Implementation of a ternary tree. Methods are provided for inserting strings and searching for strings. The
- * algorithms in this class are all recursive, and have not been optimized for any particular purpose. Data which is
+ * Implementation of a ternary tree. Methods are provided for inserting strings and searching for strings. Searches
+ * and traversals are iterative: they keep an explicit stack of nodes and build matching words in a single reusable
+ * character buffer, which can be passed to a {@link WordVisitor} rather than collected into strings. Data which is
  * inserted is not sorted before insertion, however data can be inserted beginning with the median of the supplied data.
  *
+ * <p>Case insensitive trees store words in their case folded form, see {@link WordLists#foldCase(String)}, and fold
+ * each search word once, so every node comparison is a plain character comparison. Words returned by searches, {@link
+ * #getWords()} and {@link #print(Writer)} are therefore folded, e.g. "STRAßE" is returned as "straße". Folding matches
+ * {@link String#equalsIgnoreCase(String)}, which also equates characters that {@link Character#toLowerCase(char)} does
+ * not, such as 'ı' and 'i', 'ſ' and 's', or 'ς' and 'σ'.</p>
+ *
  * @author  Middleware Services
  */
 
 public class TernaryTree
 {
 
-  /** Case sensitive comparator. */
+  /**
+   * Case sensitive comparator.
+   *
+   * @deprecated  no longer used, words are compared as case folded characters, see {@link #isCaseSensitive()}
+   */
+  @Deprecated
   protected static final Comparator<Character> CASE_SENSITIVE_COMPARATOR =
     (a, b) -> a - b;
-  /** Case insensitive comparator. */
+  /**
+   * Case insensitive comparator.
+   *
+   * @deprecated  no longer used, words are compared as case folded characters, see {@link #isCaseSensitive()}
+   */
+  @Deprecated
   protected static final Comparator<Character> CASE_INSENSITIVE_COMPARATOR =
     (a, b) -> Character.toLowerCase(a) - Character.toLowerCase(b);
 
   /** File system line separator. */
   private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
+  /** Step of a traversal frame that visits the lo child. */
+  private static final int LO = 0;
+
+  /** Step of a traversal frame that visits the node itself and its eq child. */
+  private static final int EQ = 1;
+
+  /** Step of a traversal frame that visits the hi child. */
+  private static final int HI = 2;
+
+  /** Number of traversal steps between polls of a cancellation supplier. */
+  private static final int CANCELLATION_INTERVAL = 1024;
+
   /**
-   * An empty results array.
+   * Character comparator.
+   *
+   * @deprecated  no longer used, words are compared as case folded characters, see {@link #isCaseSensitive()}
    */
-  private static final String[] EMPTY_ARRAY = new String[0];
-
-  /** Character comparator. */
+  @Deprecated
   protected final Comparator<Character> comparator;
 
+  /** Whether this tree is case sensitive. */
+  protected final boolean caseSensitive;
+
   /** root node of the ternary tree. */
   private TernaryNode root;
 
+  /** Number of words in this tree. */
+  private int wordCount;
+
 
   /** Creates an empty case sensitive ternary tree. */
   public TernaryTree()
@@ -53,11 +92,23 @@ public class TernaryTree
   /**
    * Creates an empty ternary tree with the given case sensitivity.
    *
-   * @param  caseSensitive  whether this ternary tree should be case sensitive.
+   * @param  sensitive  whether this ternary tree should be case sensitive.
    */
-  public TernaryTree(final boolean caseSensitive)
+  public TernaryTree(final boolean sensitive)
   {
-    comparator = caseSensitive ? CASE_SENSITIVE_COMPARATOR : CASE_INSENSITIVE_COMPARATOR;
+    caseSensitive = sensitive;
+    comparator = sensitive ? CASE_SENSITIVE_COMPARATOR : CASE_INSENSITIVE_COMPARATOR;
+  }
+
+
+  /**
+   * Returns whether this tree is case sensitive.
+   *
+   * @return  whether this tree is case sensitive
+   */
+  public boolean isCaseSensitive()
+  {
+    return caseSensitive;
   }
 
 
@@ -68,8 +119,41 @@ public class TernaryTree
    */
   public void insert(final String word)
   {
-    if (word != null) {
-      root = insertNode(root, word, 0);
+    if (word == null || word.isEmpty()) {
+      return;
+    }
+    final String key = fold(word);
+    if (root == null) {
+      root = new TernaryNode(key.charAt(0));
+    }
+    TernaryNode node = root;
+    int index = 0;
+    while (index < key.length()) {
+      final char c = key.charAt(index);
+      final int cmp = c - node.getSplitChar();
+      if (cmp < 0) {
+        if (node.getLokid() == null) {
+          node.setLokid(new TernaryNode(c));
+        }
+        node = node.getLokid();
+      } else if (cmp > 0) {
+        if (node.getHikid() == null) {
+          node.setHikid(new TernaryNode(c));
+        }
+        node = node.getHikid();
+      } else if (index == key.length() - 1) {
+        if (!node.isEndOfWord()) {
+          node.setEndOfWord(true);
+          wordCount++;
+        }
+        index++;
+      } else {
+        index++;
+        if (node.getEqkid() == null) {
+          node.setEqkid(new TernaryNode(key.charAt(index)));
+        }
+        node = node.getEqkid();
+      }
     }
   }
 
@@ -89,6 +173,18 @@ public class TernaryTree
   }
 
 
+  /**
+   * Returns the number of words in this tree. The count is maintained as words are inserted, so this method does not
+   * traverse the tree.
+   *
+   * @return  number of words
+   */
+  public int getWordCount()
+  {
+    return wordCount;
+  }
+
+
   /**
    * Returns whether the supplied word has been inserted into this ternary tree.
    *
@@ -96,10 +192,28 @@ public class TernaryTree
    *
    * @return  whether the word was found
    */
+  // CheckStyle:ReturnCount OFF
   public boolean search(final String word)
   {
-    return searchNode(root, word, 0);
+    final String key = fold(word);
+    TernaryNode node = root;
+    int index = 0;
+    while (node != null && index < key.length()) {
+      final int cmp = key.charAt(index) - node.getSplitChar();
+      if (cmp < 0) {
+        node = node.getLokid();
+      } else if (cmp > 0) {
+        node = node.getHikid();
+      } else if (index == key.length() - 1) {
+        return node.isEndOfWord();
+      } else {
+        node = node.getEqkid();
+        index++;
+      }
+    }
+    return false;
   }
+  // CheckStyle:ReturnCount ON
 
 
   /**
@@ -108,322 +222,390 @@ public class TernaryTree
    * severe Note that no substring matching occurs, results only include strings of the same length. If the supplied
    * word does not contain the '.' character, then a regular search is performed.
    *
-   * <p><strong>NOTE</strong> This method is not supported for case insensitive ternary trees. Since the tree is built
-   * without regard to case any words returned from the tree may or may not match the case of the supplied word.</p>
+   * <p>Case insensitive trees match without regard to case and return words in their case folded form.</p>
    *
    * @param  word  to search for
    *
    * @return  array of matching words
-   *
-   * @throws  UnsupportedOperationException  if this is a case insensitive ternary tree
    */
   public String[] partialSearch(final String word)
   {
-    if (comparator == CASE_INSENSITIVE_COMPARATOR) {
-      throw new UnsupportedOperationException("Partial search is not supported for case insensitive ternary trees");
-    }
+    final List<String> matches = new ArrayList<>();
+    partialSearch(word, (w, length) -> matches.add(new String(w, 0, length)));
+    return matches.toArray(new String[matches.size()]);
+  }
+
 
-    final List<String> matches = partialSearchNode(root, null, "", word, 0);
-    return matches == null ? EMPTY_ARRAY : matches.toArray(new String[matches.size()]);
+  /**
+   * Returns at most limit strings which partially match the supplied word, which are the first matches in
+   * lexicographic order. The search stops as soon as the limit is reached. See {@link #partialSearch(String)}.
+   *
+   * @param  word  to search for
+   * @param  limit  maximum number of matches, must be greater than 0
+   *
+   * @return  array of matching words
+   */
+  public String[] partialSearch(final String word, final int limit)
+  {
+    checkLimit(limit);
+    final List<String> matches = new ArrayList<>();
+    partialSearch(
+      word,
+      (w, length) -> {
+        matches.add(new String(w, 0, length));
+        return matches.size() < limit;
+      });
+    return matches.toArray(new String[matches.size()]);
   }
 
 
+  /**
+   * Passes the words which partially match the supplied word to the supplied visitor in lexicographic order, without
+   * creating a string for any of them. See {@link #partialSearch(String)}.
+   *
+   * @param  word  to search for
+   * @param  visitor  to receive matching words
+   *
+   * @return  true if the search completed, false if it was stopped by the visitor
+   */
+  public boolean partialSearch(final String word, final WordVisitor visitor)
+  {
+    return partialSearch(word, visitor, null);
+  }
+
+
+  /**
+   * Passes the words which partially match the supplied word to the supplied visitor in lexicographic order, stopping
+   * when the visitor returns false or the search is cancelled. See {@link #partialSearch(String)}.
+   *
+   * @param  word  to search for
+   * @param  visitor  to receive matching words
+   * @param  cancelled  polled periodically during the search, which stops once it returns true, or null
+   *
+   * @return  true if the search completed, false if it was stopped by the visitor or cancelled
+   */
+  // CheckStyle:ReturnCount OFF
+  public boolean partialSearch(final String word, final WordVisitor visitor, final BooleanSupplier cancelled)
+  {
+    final String key = fold(word);
+    final int last = key.length() - 1;
+    final Traversal t = new Traversal(key.length());
+    if (root != null && last >= 0) {
+      t.push(root, 0, 0);
+    }
+    int steps = 0;
+    while (t.size > 0) {
+      if (isCancelled(cancelled, steps++)) {
+        return false;
+      }
+      final int top = t.size - 1;
+      final TernaryNode node = t.nodes[top];
+      final int index = t.indexes[top];
+      final char c = key.charAt(index);
+      final boolean any = c == '.';
+      final int cmp = c - node.getSplitChar();
+      if (t.steps[top] == LO) {
+        t.steps[top] = EQ;
+        if ((any || cmp < 0) && node.getLokid() != null) {
+          t.push(node.getLokid(), index, 0);
+        }
+      } else if (t.steps[top] == EQ) {
+        t.steps[top] = HI;
+        if (any || cmp == 0) {
+          t.setChar(index, node.getSplitChar());
+          if (index == last) {
+            if (node.isEndOfWord() && !visitor.visit(t.path, index + 1)) {
+              return false;
+            }
+          } else if (node.getEqkid() != null) {
+            t.push(node.getEqkid(), index + 1, 0);
+          }
+        }
+      } else {
+        t.replace(any || cmp > 0 ? node.getHikid() : null);
+      }
+    }
+    return true;
+  }
+  // CheckStyle:ReturnCount ON
+
+
   /**
    * Return an array of strings which are near to the supplied word by the supplied distance. For the query
    * nearSearch("fisher", 2): Possible results include: cipher, either, fishery, kosher, sister. If the supplied
    * distance is not &gt; 0, then a regular search is performed.
    *
-   * <p><strong>NOTE</strong> This method is not supported for case insensitive ternary trees. Since the tree is built
-   * without regard to case any words returned from the tree may or may not match the case of the supplied word.</p>
+   * <p>Case insensitive trees match without regard to case and return words in their case folded form.</p>
    *
    * @param  word  to search for
    * @param  distance  for valid match
    *
    * @return  array of matching words
-   *
-   * @throws  UnsupportedOperationException  if this is a case insensitive ternary tree
    */
   public String[] nearSearch(final String word, final int distance)
   {
-    if (comparator == CASE_INSENSITIVE_COMPARATOR) {
-      throw new UnsupportedOperationException("Near search is not supported for case insensitive ternary trees");
-    }
-
-    final List<String> matches = nearSearchNode(root, distance, null, "", word, 0);
-    return matches == null ? EMPTY_ARRAY : matches.toArray(new String[matches.size()]);
+    final List<String> matches = new ArrayList<>();
+    nearSearch(word, distance, (w, length) -> matches.add(new String(w, 0, length)));
+    return matches.toArray(new String[matches.size()]);
   }
 
 
   /**
-   * Returns a list of all the words in this ternary tree. This is a very expensive operation, every node in the tree is
-   * traversed. The returned list cannot be modified.
+   * Returns at most limit strings which are near to the supplied word by the supplied distance, nearest first. See
+   * {@link #nearSearch(String, int, int, BooleanSupplier)}.
    *
-   * @return  unmodifiable list of words
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  limit  maximum number of matches, must be greater than 0
+   *
+   * @return  array of matching words
    */
-  public List<String> getWords()
+  public String[] nearSearch(final String word, final int distance, final int limit)
   {
-    final List<String> words = traverseNode(root, "", new ArrayList<>());
-    return Collections.unmodifiableList(words);
+    return nearSearch(word, distance, limit, null);
   }
 
 
   /**
-   * Prints an ASCII representation of this ternary tree to the supplied writer. This is a very expensive operation,
-   * every node in the tree is traversed. The output produced is hard to read, but it should give an indication of
-   * whether or not your tree is balanced.
+   * Returns at most limit strings which are near to the supplied word by the supplied distance, nearest first. The
+   * tree is searched at each distance from 0 up to the supplied distance, so all matches at a smaller distance are
+   * returned before any match at a larger distance, and matches at the same distance are in lexicographic order. The
+   * search stops as soon as the limit is reached, without searching larger distances, and the words found so far are
+   * returned if the search is cancelled. Since near searches are cheap at small distances, the total cost is
+   * dominated by the search at the largest distance reached. See {@link #nearSearch(String, int)}.
    *
-   * @param  out  to print to
-   * @param  fullPath  specifies whether each line should show the full path from root or only the suffix
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  limit  maximum number of matches, must be greater than 0
+   * @param  cancelled  polled periodically during the search, which stops once it returns true, or null
    *
-   * @throws  IOException  if an error occurs
+   * @return  array of matching words
    */
-  public void print(final Writer out, final boolean fullPath) throws IOException
+  public String[] nearSearch(
+    final String word, final int distance, final int limit, final BooleanSupplier cancelled)
   {
-    final StringBuilder buffer = new StringBuilder();
-    printNode(root, "", 0, fullPath, buffer);
-    out.write(buffer.toString());
-    out.flush();
+    checkLimit(limit);
+    final Set<String> matches = new LinkedHashSet<>();
+    final WordVisitor visitor = (w, length) -> {
+      matches.add(new String(w, 0, length));
+      return matches.size() < limit;
+    };
+    for (int d = 0; d <= distance; d++) {
+      if (!nearSearch(word, d, visitor, cancelled)) {
+        break;
+      }
+    }
+    return matches.toArray(new String[matches.size()]);
   }
 
 
   /**
-   * Prints an ASCII representation of this ternary tree to the supplied writer. This is a very expensive operation,
-   * every node in the tree is traversed. The output produced is hard to read, but it should give an indication of
-   * whether or not your tree is balanced.
+   * Passes the words which are near to the supplied word by the supplied distance to the supplied visitor in
+   * lexicographic order, without creating a string for any of them. See {@link #nearSearch(String, int)}.
    *
-   * @param  out  to print to
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  visitor  to receive matching words
    *
-   * @throws  IOException  if an error occurs
+   * @return  true if the search completed, false if it was stopped by the visitor
    */
-  public void print(final Writer out) throws IOException
+  public boolean nearSearch(final String word, final int distance, final WordVisitor visitor)
   {
-    print(out, false);
+    return nearSearch(word, distance, visitor, null);
   }
 
 
   /**
-   * Recursively inserts a word into the ternary tree one node at a time beginning at the supplied node.
+   * Passes the words which are near to the supplied word by the supplied distance to the supplied visitor in
+   * lexicographic order, stopping when the visitor returns false or the search is cancelled. See {@link
+   * #nearSearch(String, int)}. A deadline can be enforced with a supplier such as {@code () -> System.nanoTime() -
+   * deadline >= 0}.
    *
-   * @param  node  to put character in
-   * @param  word  to be inserted
-   * @param  index  of character in word
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  visitor  to receive matching words
+   * @param  cancelled  polled periodically during the search, which stops once it returns true, or null
    *
-   * @return  ternary node to insert
+   * @return  true if the search completed, false if it was stopped by the visitor or cancelled
    */
-  // CheckStyle:FinalParametersCheck OFF
-  private TernaryNode insertNode(TernaryNode node, final String word, final int index)
-  // CheckStyle:FinalParametersCheck ON
+  // CheckStyle:ReturnCount OFF
+  public boolean nearSearch(
+    final String word, final int distance, final WordVisitor visitor, final BooleanSupplier cancelled)
   {
-    if (index < word.length()) {
-      final char c = word.charAt(index);
-      if (node == null) {
-        // CheckStyle:ParameterAssignmentCheck OFF
-        node = new TernaryNode(c);
-        // CheckStyle:ParameterAssignmentCheck ON
+    final String key = fold(word);
+    final int length = key.length();
+    final Traversal t = new Traversal(length + Math.max(distance, 0) + 1);
+    if (root != null && distance >= 0) {
+      t.push(root, 0, distance);
+    }
+    int steps = 0;
+    while (t.size > 0) {
+      if (isCancelled(cancelled, steps++)) {
+        return false;
       }
-
-      final char split = node.getSplitChar();
-      final int cmp = comparator.compare(c, split);
-      if (cmp < 0) {
-        node.setLokid(insertNode(node.getLokid(), word, index));
-      } else if (cmp > 0) {
-        node.setHikid(insertNode(node.getHikid(), word, index));
-      } else if (index == word.length() - 1) {
-        node.setEndOfWord(true);
+      final int top = t.size - 1;
+      final TernaryNode node = t.nodes[top];
+      final int index = t.indexes[top];
+      final int d = t.distances[top];
+      final char c = index < length ? key.charAt(index) : Character.MAX_VALUE;
+      final int cmp = c - node.getSplitChar();
+      if (t.steps[top] == LO) {
+        t.steps[top] = EQ;
+        if ((d > 0 || cmp < 0) && node.getLokid() != null) {
+          t.push(node.getLokid(), index, d);
+        }
+      } else if (t.steps[top] == EQ) {
+        t.steps[top] = HI;
+        t.setChar(index, node.getSplitChar());
+        final int eqDistance = cmp == 0 ? d : d - 1;
+        if (eqDistance >= 0) {
+          if (node.isEndOfWord() && index + 1 + eqDistance >= length && !visitor.visit(t.path, index + 1)) {
+            return false;
+          }
+          if (node.getEqkid() != null) {
+            t.push(node.getEqkid(), index + 1, eqDistance);
+          }
+        }
       } else {
-        node.setEqkid(insertNode(node.getEqkid(), word, index + 1));
+        t.replace(d > 0 || cmp > 0 ? node.getHikid() : null);
       }
     }
-    return node;
+    return true;
   }
+  // CheckStyle:ReturnCount ON
 
 
   /**
-   * Recursively searches for a word in the ternary tree one node at a time beginning at the supplied node.
+   * Returns a list of all the words in this ternary tree in lexicographic order. This is a very expensive operation,
+   * every node in the tree is traversed. The returned list cannot be modified. Words of case insensitive trees are case
+   * folded. Use {@link #getWordCount()} for the number of words.
    *
-   * @param  node  to search in
-   * @param  word  to search for
-   * @param  index  of character in word
+   * @return  unmodifiable list of words
+   */
+  public List<String> getWords()
+  {
+    final List<String> words = new ArrayList<>(wordCount);
+    visitWords((w, length) -> words.add(new String(w, 0, length)));
+    return Collections.unmodifiableList(words);
+  }
+
+
+  /**
+   * Passes every word in this ternary tree to the supplied visitor in lexicographic order, without creating a string
+   * for any of them. Words of case insensitive trees are case folded.
+   *
+   * @param  visitor  to receive words
    *
-   * @return  whether or not the word was found
+   * @return  true if the traversal completed, false if it was stopped by the visitor
    */
   // CheckStyle:ReturnCount OFF
-  private boolean searchNode(final TernaryNode node, final String word, final int index)
+  public boolean visitWords(final WordVisitor visitor)
   {
-    if (node != null && index < word.length()) {
-      final char c = word.charAt(index);
-      final char split = node.getSplitChar();
-      final int cmp = comparator.compare(c, split);
-      if (cmp < 0) {
-        return searchNode(node.getLokid(), word, index);
-      } else if (cmp > 0) {
-        return searchNode(node.getHikid(), word, index);
-      } else if (index == word.length() - 1) {
-        return node.isEndOfWord();
+    final Traversal t = new Traversal(0);
+    if (root != null) {
+      t.push(root, 0, 0);
+    }
+    while (t.size > 0) {
+      final int top = t.size - 1;
+      final TernaryNode node = t.nodes[top];
+      final int index = t.indexes[top];
+      if (t.steps[top] == LO) {
+        t.steps[top] = EQ;
+        if (node.getLokid() != null) {
+          t.push(node.getLokid(), index, 0);
+        }
+      } else if (t.steps[top] == EQ) {
+        t.steps[top] = HI;
+        t.setChar(index, node.getSplitChar());
+        if (node.isEndOfWord() && !visitor.visit(t.path, index + 1)) {
+          return false;
+        }
+        if (node.getEqkid() != null) {
+          t.push(node.getEqkid(), index + 1, 0);
+        }
       } else {
-        return searchNode(node.getEqkid(), word, index + 1);
+        t.replace(node.getHikid());
       }
     }
-    return false;
+    return true;
   }
   // CheckStyle:ReturnCount ON
 
 
   /**
-   * Recursively searches for a partial word in the ternary tree one node at a time beginning at the supplied node.
+   * Prints an ASCII representation of this ternary tree to the supplied writer. This is a very expensive operation,
+   * every node in the tree is traversed. The output produced is hard to read, but it should give an indication of
+   * whether or not your tree is balanced. Words of case insensitive trees are printed case folded.
    *
-   * @param  node  to search in
-   * @param  matches  of partial matches
-   * @param  match  the current word being examined
-   * @param  word  to search for
-   * @param  index  of character in word
+   * @param  out  to print to
+   * @param  fullPath  specifies whether each line should show the full path from root or only the suffix
    *
-   * @return  list of matches
+   * @throws  IOException  if an error occurs
    */
-  // CheckStyle:FinalParametersCheck OFF
-  private List<String> partialSearchNode(final TernaryNode node, List<String> matches,
-    final String match, final String word, final int index)
-  // CheckStyle:FinalParametersCheck ON
+  public void print(final Writer out, final boolean fullPath) throws IOException
   {
-    if (node != null && index < word.length()) {
-      final char c = word.charAt(index);
-      final char split = node.getSplitChar();
-      final int cmp = comparator.compare(c, split);
-      if (c == '.' || cmp < 0) {
-        // CheckStyle:ParameterAssignmentCheck OFF
-        matches = partialSearchNode(node.getLokid(), matches, match, word, index);
-        // CheckStyle:ParameterAssignmentCheck ON
-      }
-      if (c == '.' || cmp == 0) {
-        if (index == word.length() - 1) {
-          if (node.isEndOfWord()) {
-            if (matches == null) {
-              // CheckStyle:ParameterAssignmentCheck OFF
-              matches = new ArrayList<>();
-              // CheckStyle:ParameterAssignmentCheck ON
-            }
-            matches.add(match + split);
-          }
-        } else {
-          // CheckStyle:ParameterAssignmentCheck OFF
-          matches = partialSearchNode(node.getEqkid(), matches, match + split, word, index + 1);
-          // CheckStyle:ParameterAssignmentCheck ON
-        }
-      }
-      if (c == '.' || cmp > 0) {
-        // CheckStyle:ParameterAssignmentCheck OFF
-        matches = partialSearchNode(node.getHikid(), matches, match, word, index);
-        // CheckStyle:ParameterAssignmentCheck ON
-      }
-    }
-    return matches;
+    final StringBuilder buffer = new StringBuilder();
+    printNode(root, "", 0, fullPath, buffer);
+    out.write(buffer.toString());
+    out.flush();
   }
 
 
   /**
-   * Recursively searches for a near match word in the ternary tree one node at a time beginning at the supplied node.
+   * Prints an ASCII representation of this ternary tree to the supplied writer. This is a very expensive operation,
+   * every node in the tree is traversed. The output produced is hard to read, but it should give an indication of
+   * whether or not your tree is balanced. Words of case insensitive trees are printed case folded.
    *
-   * @param  node  to search in
-   * @param  distance  of a valid match, must be > 0
-   * @param  matches  list of near matches
-   * @param  match  the current word being examined
-   * @param  word  to search for
-   * @param  index  of character in word
+   * @param  out  to print to
    *
-   * @return  list of matches
+   * @throws  IOException  if an error occurs
    */
-  // CheckStyle:FinalParametersCheck OFF
-  private List<String> nearSearchNode(final TernaryNode node, final int distance, List<String> matches,
-    final String match, final String word, final int index)
-  // CheckStyle:FinalParametersCheck ON
+  public void print(final Writer out) throws IOException
   {
-    if (node != null && distance >= 0) {
-
-      final char c = index < word.length() ? word.charAt(index) : Character.MAX_VALUE;
-      final char split = node.getSplitChar();
-      final int cmp = comparator.compare(c, split);
+    print(out, false);
+  }
 
-      if (distance > 0 || cmp < 0) {
-        // CheckStyle:ParameterAssignmentCheck OFF
-        matches = nearSearchNode(node.getLokid(), distance, matches, match, word, index);
-        // CheckStyle:ParameterAssignmentCheck ON
-      }
 
-      final String newMatch = match + split;
-      if (cmp == 0) {
-        if (node.isEndOfWord() && newMatch.length() + distance >= word.length()) {
-          if (matches == null) {
-            // CheckStyle:ParameterAssignmentCheck OFF
-            matches = new ArrayList<>();
-            // CheckStyle:ParameterAssignmentCheck ON
-          }
-          matches.add(newMatch);
-        }
-
-        // CheckStyle:ParameterAssignmentCheck OFF
-        matches = nearSearchNode(node.getEqkid(), distance, matches, newMatch, word, index + 1);
-        // CheckStyle:ParameterAssignmentCheck ON
-      } else {
-        if (node.isEndOfWord() && distance - 1 >= 0 && newMatch.length() + distance - 1 >= word.length()) {
-          if (matches == null) {
-            // CheckStyle:ParameterAssignmentCheck OFF
-            matches = new ArrayList<>();
-            // CheckStyle:ParameterAssignmentCheck ON
-          }
-          matches.add(newMatch);
-        }
+  /**
+   * Returns the supplied word as it is stored in this tree, which is case folded if this tree is case insensitive.
+   *
+   * @param  word  to fold
+   *
+   * @return  word or case folded word
+   */
+  private String fold(final String word)
+  {
+    return caseSensitive ? word : WordLists.foldCase(word);
+  }
 
-        // CheckStyle:ParameterAssignmentCheck OFF
-        matches = nearSearchNode(node.getEqkid(), distance - 1, matches, newMatch, word, index + 1);
-        // CheckStyle:ParameterAssignmentCheck ON
-      }
 
-      if (distance > 0 || cmp > 0) {
-        // CheckStyle:ParameterAssignmentCheck OFF
-        matches = nearSearchNode(node.getHikid(), distance, matches, match, word, index);
-        // CheckStyle:ParameterAssignmentCheck ON
-      }
+  /**
+   * Checks that the supplied result limit is valid.
+   *
+   * @param  limit  maximum number of matches
+   *
+   * @throws  IllegalArgumentException  if limit is not greater than 0
+   */
+  private static void checkLimit(final int limit)
+  {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Limit must be greater than 0");
     }
-    return matches;
   }
 
 
   /**
-   * Recursively traverses every node in the ternary tree one node at a time beginning at the supplied node. The result
-   * is a string representing every word, which is delimited by the LINE_SEPARATOR character.
+   * Returns whether a search has been cancelled. The supplier is polled on the first step and then once every {@link
+   * #CANCELLATION_INTERVAL} steps, so that it adds little to the cost of the search.
    *
-   * @param  node  to begin traversing
-   * @param  s  string of words found at the supplied node
-   * @param  words  which will be returned (recursive function)
+   * @param  cancelled  cancellation supplier or null
+   * @param  step  number of steps taken by the search
    *
-   * @return  string containing all words from the supplied node
+   * @return  whether the search should stop
    */
-  // CheckStyle:FinalParametersCheck OFF
-  private List<String> traverseNode(final TernaryNode node, final String s, List<String> words)
-  // CheckStyle:FinalParametersCheck ON
+  private static boolean isCancelled(final BooleanSupplier cancelled, final int step)
   {
-    if (node != null) {
-
-      // CheckStyle:ParameterAssignmentCheck OFF
-      words = traverseNode(node.getLokid(), s, words);
-      // CheckStyle:ParameterAssignmentCheck ON
-
-      final char c = node.getSplitChar();
-      if (node.getEqkid() != null) {
-        // CheckStyle:ParameterAssignmentCheck OFF
-        words = traverseNode(node.getEqkid(), s + c, words);
-        // CheckStyle:ParameterAssignmentCheck ON
-      }
-
-      if (node.isEndOfWord()) {
-        words.add(s + c);
-      }
-
-      // CheckStyle:ParameterAssignmentCheck OFF
-      words = traverseNode(node.getHikid(), s, words);
-      // CheckStyle:ParameterAssignmentCheck ON
-    }
-    return words;
+    return cancelled != null && step % CANCELLATION_INTERVAL == 0 && cancelled.getAsBoolean();
   }
 
 
@@ -490,4 +672,102 @@ public class TernaryTree
   {
     return getNodeStats(root, 0, new HashMap<>());
   }
+
+
+  /**
+   * Explicit stack of the nodes of a search or traversal and the characters of the current path. Each frame holds a
+   * node, the index of its character in the path, the remaining distance of a near search and the next step to take.
+   * One instance is used per search, so the number of allocations does not depend on the number of nodes visited.
+   */
+  private static final class Traversal
+  {
+
+    /** Initial capacity of the stack and path. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Node of each frame. */
+    private TernaryNode[] nodes = new TernaryNode[INITIAL_CAPACITY];
+
+    /** Path index of each frame. */
+    private int[] indexes = new int[INITIAL_CAPACITY];
+
+    /** Remaining distance of each frame. */
+    private int[] distances = new int[INITIAL_CAPACITY];
+
+    /** Next step of each frame, one of {@link #LO}, {@link #EQ} or {@link #HI}. */
+    private int[] steps = new int[INITIAL_CAPACITY];
+
+    /** Number of frames. */
+    private int size;
+
+    /** Characters of the current path. */
+    private char[] path;
+
+
+    /**
+     * Creates a new traversal.
+     *
+     * @param  length  expected maximum path length
+     */
+    Traversal(final int length)
+    {
+      path = new char[Math.max(INITIAL_CAPACITY, length)];
+    }
+
+
+    /**
+     * Pushes a frame for the supplied node.
+     *
+     * @param  node  to visit
+     * @param  index  of the character of the node in the path
+     * @param  distance  remaining distance
+     */
+    void push(final TernaryNode node, final int index, final int distance)
+    {
+      if (size == nodes.length) {
+        final int capacity = size * 2;
+        nodes = Arrays.copyOf(nodes, capacity);
+        indexes = Arrays.copyOf(indexes, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        steps = Arrays.copyOf(steps, capacity);
+      }
+      nodes[size] = node;
+      indexes[size] = index;
+      distances[size] = distance;
+      steps[size] = LO;
+      size++;
+    }
+
+
+    /**
+     * Replaces the top frame with a frame for the supplied sibling node, which has the same path index and distance,
+     * or pops the top frame if the node is null.
+     *
+     * @param  node  to visit or null
+     */
+    void replace(final TernaryNode node)
+    {
+      if (node == null) {
+        nodes[--size] = null;
+      } else {
+        nodes[size - 1] = node;
+        steps[size - 1] = LO;
+      }
+    }
+
+
+    /**
+     * Sets the character at the supplied index of the path, growing the path as needed.
+     *
+     * @param  index  in the path
+     * @param  c  character
+     */
+    void setChar(final int index, final char c)
+    {
+      if (index == path.length) {
+        path = Arrays.copyOf(path, path.length * 2);
+      }
+      path[index] = c;
+    }
+  }
 }
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import org.passay.dictionary.sort.ArraysSort;
 
 /**
@@ -15,6 +16,13 @@ import org.passay.dictionary.sort.ArraysSort;
  * inserted using their median. This helps to produce a balanced ternary tree which improves search time. This class
  * inherits the lower case property of the supplied word list.
  *
+ * <p>A case insensitive dictionary stores words in their case folded form, see {@link WordLists#foldCase(String)}.
+ * Words returned by {@link #partialSearch(String)}, {@link #nearSearch(String, int)} and the tree's {@link
+ * TernaryTree#getWords()} and {@link TernaryTree#print(java.io.Writer)} are folded rather than as inserted, e.g.
+ * "STRAßE" is returned as "straße". Folding matches {@link String#equalsIgnoreCase(String)}, so a search also matches
+ * words that differ only in characters with several case forms, such as 'ı' and 'i', 'ſ' and 's', or 'ς' and 'σ',
+ * which comparing {@link String#toLowerCase()} forms would not.</p>
+ *
  * @author  Middleware Services
  */
 
@@ -83,7 +91,7 @@ public class TernaryTreeDictionary implements Dictionary
   @Override
   public long size()
   {
-    return tree == null ? 0 : tree.getWords().size();
+    return tree == null ? 0 : tree.getWordCount();
   }
 
 
@@ -108,6 +116,52 @@ public class TernaryTreeDictionary implements Dictionary
   }
 
 
+  /**
+   * Passes the words which partially match the supplied word to the supplied visitor. See {@link
+   * TernaryTree#partialSearch(String, WordVisitor)}.
+   *
+   * @param  word  to search for
+   * @param  visitor  to receive matching words
+   *
+   * @return  true if the search completed, false if it was stopped by the visitor
+   */
+  public boolean partialSearch(final String word, final WordVisitor visitor)
+  {
+    return tree.partialSearch(word, visitor);
+  }
+
+
+  /**
+   * Passes the words which partially match the supplied word to the supplied visitor until the search is cancelled.
+   * See {@link TernaryTree#partialSearch(String, WordVisitor, BooleanSupplier)}.
+   *
+   * @param  word  to search for
+   * @param  visitor  to receive matching words
+   * @param  cancelled  polled periodically during the search, which stops once it returns true, or null
+   *
+   * @return  true if the search completed, false if it was stopped by the visitor or cancelled
+   */
+  public boolean partialSearch(final String word, final WordVisitor visitor, final BooleanSupplier cancelled)
+  {
+    return tree.partialSearch(word, visitor, cancelled);
+  }
+
+
+  /**
+   * Returns at most limit strings which partially match the supplied word. See {@link TernaryTree#partialSearch(String,
+   * int)}.
+   *
+   * @param  word  to search for
+   * @param  limit  maximum number of matches, must be greater than 0
+   *
+   * @return  array of matching words
+   */
+  public String[] partialSearch(final String word, final int limit)
+  {
+    return tree.partialSearch(word, limit);
+  }
+
+
   /**
    * Returns an array of strings which are near to the supplied word by the supplied distance. This search is case
    * sensitive by default. See {@link TernaryTree#nearSearch}.
@@ -123,6 +177,75 @@ public class TernaryTreeDictionary implements Dictionary
   }
 
 
+  /**
+   * Passes the words which are near to the supplied word by the supplied distance to the supplied visitor. See {@link
+   * TernaryTree#nearSearch(String, int, WordVisitor)}.
+   *
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  visitor  to receive matching words
+   *
+   * @return  true if the search completed, false if it was stopped by the visitor
+   */
+  public boolean nearSearch(final String word, final int distance, final WordVisitor visitor)
+  {
+    return tree.nearSearch(word, distance, visitor);
+  }
+
+
+  /**
+   * Passes the words which are near to the supplied word by the supplied distance to the supplied visitor until the
+   * search is cancelled. See {@link TernaryTree#nearSearch(String, int, WordVisitor, BooleanSupplier)}.
+   *
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  visitor  to receive matching words
+   * @param  cancelled  polled periodically during the search, which stops once it returns true, or null
+   *
+   * @return  true if the search completed, false if it was stopped by the visitor or cancelled
+   */
+  public boolean nearSearch(
+    final String word, final int distance, final WordVisitor visitor, final BooleanSupplier cancelled)
+  {
+    return tree.nearSearch(word, distance, visitor, cancelled);
+  }
+
+
+  /**
+   * Returns at most limit strings which are near to the supplied word by the supplied distance, nearest first. See
+   * {@link TernaryTree#nearSearch(String, int, int)}.
+   *
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  limit  maximum number of matches, must be greater than 0
+   *
+   * @return  array of matching words
+   */
+  public String[] nearSearch(final String word, final int distance, final int limit)
+  {
+    return tree.nearSearch(word, distance, limit);
+  }
+
+
+  /**
+   * Returns at most limit strings which are near to the supplied word by the supplied distance, nearest first, or the
+   * words found before the search was cancelled. See {@link TernaryTree#nearSearch(String, int, int,
+   * BooleanSupplier)}.
+   *
+   * @param  word  to search for
+   * @param  distance  for valid match
+   * @param  limit  maximum number of matches, must be greater than 0
+   * @param  cancelled  polled periodically during the search, which stops once it returns true, or null
+   *
+   * @return  array of matching words
+   */
+  public String[] nearSearch(
+    final String word, final int distance, final int limit, final BooleanSupplier cancelled)
+  {
+    return tree.nearSearch(word, distance, limit, cancelled);
+  }
+
+
   /**
    * Returns the underlying ternary tree used by this dictionary.
    *
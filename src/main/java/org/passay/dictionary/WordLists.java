@@ -2,14 +2,26 @@
 package org.passay.dictionary;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.passay.dictionary.sort.ArraySorter;
@@ -66,8 +78,12 @@ public final class WordLists
    *
    * @return  index of supplied word in list or a negative number if not found.
    */
+  // CheckStyle:ReturnCount OFF
   public static int binarySearch(final WordList wordList, final String word)
   {
+    if (wordList instanceof ByteArrayWordList) {
+      return ((ByteArrayWordList) wordList).binarySearch(word);
+    }
     final Comparator<String> comparator = wordList.getComparator();
     int low = 0;
     int high = wordList.size() - 1;
@@ -86,6 +102,47 @@ public final class WordLists
     }
     return NOT_FOUND;
   }
+  // CheckStyle:ReturnCount ON
+
+
+  /**
+   * Returns the case folded form of the supplied character. Two characters are equal according to {@link
+   * #CASE_INSENSITIVE_COMPARATOR} if and only if their folded forms are equal, and folded characters are ordered as
+   * that comparator orders them.
+   *
+   * @param  c  character to fold
+   *
+   * @return  case folded character
+   */
+  public static char foldCase(final char c)
+  {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+
+  /**
+   * Returns the case folded form of the supplied word, see {@link #foldCase(char)}. Case insensitive structures can
+   * store folded words and fold each search word once, then compare characters directly rather than folding both
+   * characters of every comparison.
+   *
+   * @param  word  to fold
+   *
+   * @return  case folded word, which is the supplied word if it is already folded
+   */
+  public static String foldCase(final String word)
+  {
+    for (int i = 0; i < word.length(); i++) {
+      final char c = word.charAt(i);
+      if (foldCase(c) != c) {
+        final char[] folded = word.toCharArray();
+        for (int j = i; j < folded.length; j++) {
+          folded[j] = foldCase(folded[j]);
+        }
+        return new String(folded);
+      }
+    }
+    return word;
+  }
 
 
   /**
@@ -225,4 +282,250 @@ public final class WordLists
       reader.close();
     }
   }
+
+
+  /**
+   * Returns a lazy stream of the words, one per line, read from a reader. Empty lines are skipped. Lines are read as
+   * the stream is consumed, so arbitrarily large word lists can be processed in constant memory. Errors reading from
+   * the reader are thrown as {@link UncheckedIOException}.
+   * <p>
+   * Closing the returned stream closes the reader.
+   *
+   * @param reader the reader to read words from
+   * @return stream of words
+   */
+  public static Stream<String> streamWords(final Reader reader)
+  {
+    final BufferedReader bufferedReader = reader instanceof BufferedReader
+            ? (BufferedReader) reader
+            : new BufferedReader(reader);
+    return stream(new LineIterator(bufferedReader), bufferedReader);
+  }
+
+
+  /**
+   * Returns a lazy stream of the words, one per line, read from an input stream. See {@link #streamWords(Reader)}.
+   * <p>
+   * Closing the returned stream closes the input stream.
+   *
+   * @param in the input stream to read words from
+   * @param charset the charset used to decode text from the stream
+   * @return stream of words
+   */
+  public static Stream<String> streamWords(final InputStream in, final Charset charset)
+  {
+    return streamWords(new InputStreamReader(in, charset));
+  }
+
+
+  /**
+   * Returns a lazy stream of the words, one per line, read from an input stream. The supplied decoder determines how
+   * malformed input is handled. See {@link #streamWords(Reader)}.
+   * <p>
+   * Closing the returned stream closes the input stream.
+   *
+   * @param in the input stream to read words from
+   * @param decoder the decoder used to decode text from the stream
+   * @return stream of words
+   */
+  public static Stream<String> streamWords(final InputStream in, final CharsetDecoder decoder)
+  {
+    return streamWords(new InputStreamReader(in, decoder));
+  }
+
+
+  /**
+   * Returns a lazy stream of the words, one per line, read from an input stream that contains compressed data in the
+   * GZIP format. See {@link #streamWords(Reader)}.
+   * <p>
+   * Closing the returned stream closes the input stream.
+   *
+   * @param in the input stream containing compressed data to read words from
+   * @param charset the charset used to decode text from the stream
+   * @return stream of words
+   * @throws IOException if the GZIP header cannot be read
+   */
+  public static Stream<String> streamGzippedWords(final InputStream in, final Charset charset) throws IOException
+  {
+    return streamWords(new GZIPInputStream(in), charset);
+  }
+
+
+  /**
+   * Returns a lazy stream of the words, one per line, read from the entries of an input stream that contains compressed
+   * data in the ZIP format. Entries are decompressed one at a time as the stream is consumed. See {@link
+   * #streamWords(Reader)}.
+   * <p>
+   * Closing the returned stream closes the input stream.
+   *
+   * @param in the input stream containing compressed data to read words from
+   * @param charset the charset used to decode text from the stream
+   * @param filter that determines which entries should be read, or null if all entries should be read; directory
+   *        entries are never read
+   * @return stream of words
+   */
+  public static Stream<String> streamZippedWords(
+    final InputStream in, final Charset charset, final Predicate<ZipEntry> filter)
+  {
+    final ZipInputStream zin = new ZipInputStream(in);
+    return stream(new ZipEntryLineIterator(zin, charset, filter), zin);
+  }
+
+
+  /**
+   * Creates a sequential ordered stream from an iterator that closes the supplied resource when it is closed.
+   *
+   * @param iterator of words
+   * @param resource closed when the stream is closed
+   * @return stream of words
+   */
+  private static Stream<String> stream(final Iterator<String> iterator, final Closeable resource)
+  {
+    return StreamSupport.stream(
+      Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+      .onClose(() -> {
+        try {
+          resource.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+  }
+
+
+  /** Iterates over the non-empty lines of a reader. */
+  private static class LineIterator implements Iterator<String>
+  {
+
+    /** Reader to read lines from, null if there are no more lines. */
+    private BufferedReader reader;
+
+    /** Next word, null if it has not been read. */
+    private String next;
+
+
+    /**
+     * Creates a new line iterator.
+     *
+     * @param r reader to read lines from
+     */
+    LineIterator(final BufferedReader r)
+    {
+      reader = r;
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+      try {
+        while (next == null) {
+          final BufferedReader r = getReader();
+          if (r == null) {
+            break;
+          }
+          next = r.readLine();
+          if (next == null) {
+            endOfReader();
+          } else if (next.isEmpty()) {
+            next = null;
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return next != null;
+    }
+
+
+    @Override
+    public String next()
+    {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final String word = next;
+      next = null;
+      return word;
+    }
+
+
+    /**
+     * Returns the reader to read the next line from.
+     *
+     * @return reader or null if there are no more lines
+     * @throws IOException if an error occurs
+     */
+    protected BufferedReader getReader() throws IOException
+    {
+      return reader;
+    }
+
+
+    /** Invoked when the current reader has no more lines. */
+    protected void endOfReader()
+    {
+      reader = null;
+    }
+  }
+
+
+  /** Iterates over the non-empty lines of the matching entries of a zip input stream. */
+  private static final class ZipEntryLineIterator extends LineIterator
+  {
+
+    /** Zip input stream. */
+    private final ZipInputStream zin;
+
+    /** Charset used to decode entries. */
+    private final Charset charset;
+
+    /** Determines which entries are read, null to read all entries. */
+    private final Predicate<ZipEntry> filter;
+
+    /** Reader of the current entry, null if the next entry must be read. */
+    private BufferedReader entryReader;
+
+    /** Whether the last entry has been read. */
+    private boolean done;
+
+
+    /**
+     * Creates a new zip entry line iterator.
+     *
+     * @param z zip input stream
+     * @param c charset used to decode entries
+     * @param f determines which entries are read, null to read all entries
+     */
+    ZipEntryLineIterator(final ZipInputStream z, final Charset c, final Predicate<ZipEntry> f)
+    {
+      super(null);
+      zin = z;
+      charset = c;
+      filter = f;
+    }
+
+
+    @Override
+    protected BufferedReader getReader() throws IOException
+    {
+      while (entryReader == null && !done) {
+        final ZipEntry entry = zin.getNextEntry();
+        if (entry == null) {
+          done = true;
+        } else if (!entry.isDirectory() && (filter == null || filter.test(entry))) {
+          // don't close the reader, since that will close the entire zip input stream
+          entryReader = new BufferedReader(new InputStreamReader(zin, charset));
+        }
+      }
+      return entryReader;
+    }
+
+
+    @Override
+    protected void endOfReader()
+    {
+      entryReader = null;
+    }
+  }
 }
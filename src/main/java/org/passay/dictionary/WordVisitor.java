@@ -0,0 +1,25 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+/**
+ * Receives the words found by a search or traversal, one at a time, without requiring the words to be collected or
+ * converted to strings. See {@link TernaryTree#visitWords(WordVisitor)}.
+ *
+ * @author  Middleware Services
+ */
+@FunctionalInterface
+public interface WordVisitor
+{
+
+
+  /**
+   * Receives a word. The characters are held in a buffer that is reused for subsequent words, so a visitor that keeps
+   * the word must copy it, e.g. with {@code new String(word, 0, length)}.
+   *
+   * @param  word  buffer whose first length characters are the word
+   * @param  length  of the word
+   *
+   * @return  true to continue, false to stop the search or traversal
+   */
+  boolean visit(char[] word, int length);
+}
@@ -0,0 +1,243 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.passay.data.sequence.SequenceData;
+
+/**
+ * Compiled index of the character sequences in one or more {@link SequenceData}. The index maps every character that
+ * occurs in any form of any sequence to its position in each sequence, so the position of a password character is
+ * found with a single lookup rather than a scan of every form of every sequence. All sequences are then tracked
+ * together in a single pass over the password by {@link #find(String, int, boolean, MatchHandler)}.
+ *
+ * <p>Instances are immutable and may be shared by multiple threads.</p>
+ *
+ * @author  Middleware Services
+ */
+public final class CharacterSequenceIndex
+{
+
+  /** Sequence data that was indexed. */
+  private final SequenceData[] sequenceData;
+
+  /** Index into {@link #sequenceData} of the data that owns each sequence. */
+  private final int[] owners;
+
+  /** Length of each sequence. */
+  private final int[] lengths;
+
+  /** Characters that occur in any sequence, in ascending order. */
+  private final char[] keys;
+
+  /**
+   * Position of each key in each sequence, indexed by key * sequence count + sequence, or -1 if the key does not occur
+   * in the sequence.
+   */
+  private final int[] positions;
+
+
+  /**
+   * Creates a new index of the sequences in the supplied sequence data.
+   *
+   * @param  data  sequence data to index
+   */
+  public CharacterSequenceIndex(final SequenceData... data)
+  {
+    if (data.length < 1) {
+      throw new IllegalArgumentException("At least one sequence data must be defined");
+    }
+    sequenceData = data.clone();
+    final List<CharacterSequence> sequences = new ArrayList<>();
+    final List<Integer> owner = new ArrayList<>();
+    final StringBuilder chars = new StringBuilder();
+    for (int i = 0; i < sequenceData.length; i++) {
+      for (CharacterSequence cs : sequenceData[i].getSequences()) {
+        sequences.add(cs);
+        owner.add(i);
+        for (String form : cs.getForms()) {
+          chars.append(form);
+        }
+      }
+    }
+    final int count = sequences.size();
+    owners = owner.stream().mapToInt(Integer::intValue).toArray();
+    lengths = sequences.stream().mapToInt(CharacterSequence::length).toArray();
+    keys = chars.chars().sorted().distinct().collect(
+      StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString().toCharArray();
+    positions = new int[keys.length * count];
+    Arrays.fill(positions, -1);
+    for (int s = 0; s < count; s++) {
+      final CharacterSequence cs = sequences.get(s);
+      // the first matching position of a character wins, as in a linear search of the sequence
+      for (int p = cs.length() - 1; p >= 0; p--) {
+        for (String form : cs.getForms()) {
+          positions[Arrays.binarySearch(keys, form.charAt(p)) * count + s] = p;
+        }
+      }
+    }
+  }
+
+
+  /**
+   * Returns the sequence data that was indexed.
+   *
+   * @return  sequence data
+   */
+  public SequenceData[] getSequenceData()
+  {
+    return sequenceData.clone();
+  }
+
+
+  /**
+   * Returns the number of character sequences in this index.
+   *
+   * @return  number of sequences
+   */
+  public int getSequenceCount()
+  {
+    return lengths.length;
+  }
+
+
+  /**
+   * Returns the sequence data that contains the supplied sequence.
+   *
+   * @param  sequence  index of the sequence
+   *
+   * @return  sequence data
+   */
+  public SequenceData getSequenceData(final int sequence)
+  {
+    return sequenceData[owners[sequence]];
+  }
+
+
+  /**
+   * Returns the position in {@link #getSequenceData()} of the sequence data that contains the supplied sequence.
+   *
+   * @param  sequence  index of the sequence
+   *
+   * @return  index of the sequence data
+   */
+  public int getSequenceDataIndex(final int sequence)
+  {
+    return owners[sequence];
+  }
+
+
+  /**
+   * Returns the position of the supplied character in the supplied sequence.
+   *
+   * @param  sequence  index of the sequence
+   * @param  c  character to find
+   *
+   * @return  first position of the character in any form of the sequence, or -1 if it does not occur
+   */
+  public int getPosition(final int sequence, final char c)
+  {
+    final int key = Arrays.binarySearch(keys, c);
+    return key < 0 ? -1 : positions[key * lengths.length + sequence];
+  }
+
+
+  /**
+   * Finds every run of consecutive characters in the password that ascends or descends in any indexed sequence. All
+   * sequences are tracked in a single pass over the password. Matches are reported grouped by sequence in the order
+   * the sequences were indexed and in password order within each sequence, which is the order a search of each
+   * sequence in turn would produce.
+   *
+   * @param  password  to search
+   * @param  minimumLength  minimum length of a run to report
+   * @param  wrap  whether runs may wrap from the end of a sequence to its beginning
+   * @param  handler  to receive each match
+   */
+  public void find(final String password, final int minimumLength, final boolean wrap, final MatchHandler handler)
+  {
+    final int count = lengths.length;
+    final int[] direction = new int[count];
+    final int[] previous = new int[count];
+    final int[] start = new int[count];
+    Arrays.fill(previous, -1);
+    int[] matches = null;
+    int matchCount = 0;
+    final int length = password.length();
+    // iterate one past the end so that runs ending with the password are terminated
+    for (int i = 0; i <= length; i++) {
+      final int key = i < length ? Arrays.binarySearch(keys, password.charAt(i)) : -1;
+      for (int s = 0; s < count; s++) {
+        final int position = key < 0 ? -1 : positions[key * count + s];
+        // set diff to +1 for increase in sequence, -1 for decrease, anything else for neither
+        int diff = (position | previous[s]) < 0 ? 0 : position - previous[s];
+        if (wrap && (diff == lengths[s] - 1 || diff == 1 - lengths[s])) {
+          diff -= Integer.signum(diff) * lengths[s];
+        }
+        // if we have a sequence and reached its end, record it
+        if (diff != direction[s] && i - start[s] >= minimumLength) {
+          if (matches == null) {
+            matches = new int[count * 3];
+          } else if (matchCount * 3 == matches.length) {
+            matches = Arrays.copyOf(matches, matches.length * 2);
+          }
+          matches[matchCount * 3] = s;
+          matches[matchCount * 3 + 1] = start[s];
+          matches[matchCount * 3 + 2] = i;
+          matchCount++;
+        }
+        // update the current potential sequence
+        if (diff == 1 || diff == -1) {
+          if (diff != direction[s]) {
+            start[s] = i - 1;
+            direction[s] = diff;
+          }
+        } else {
+          start[s] = i;
+          direction[s] = 0;
+        }
+        previous[s] = position;
+      }
+    }
+    if (matches != null) {
+      for (int s = 0; s < count; s++) {
+        for (int m = 0; m < matchCount; m++) {
+          if (matches[m * 3] == s) {
+            handler.match(s, matches[m * 3 + 1], matches[m * 3 + 2]);
+          }
+        }
+      }
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return
+      String.format(
+        "%s@%h::sequenceData=%s,sequences=%s,characters=%s",
+        getClass().getName(),
+        hashCode(),
+        Arrays.toString(sequenceData),
+        lengths.length,
+        keys.length);
+  }
+
+
+  /** Receives the runs found by {@link #find(String, int, boolean, MatchHandler)}. */
+  @FunctionalInterface
+  public interface MatchHandler
+  {
+
+
+    /**
+     * Invoked for each run of sequence characters found in a password.
+     *
+     * @param  sequence  index of the matching sequence, see {@link CharacterSequenceIndex#getSequenceData(int)}
+     * @param  start  index of the first character of the run in the password
+     * @param  end  index after the last character of the run in the password
+     */
+    void match(int sequence, int start, int end);
+  }
+}
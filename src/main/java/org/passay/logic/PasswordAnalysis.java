@@ -0,0 +1,314 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.passay.data.character.CharacterSet;
+
+/**
+ * Immutable summary of the characters in a password that is computed once per password. Rules that classify or count
+ * characters consult the analysis attached to {@link PasswordData#getAnalysis()} rather than rescanning the password,
+ * so each password is scanned once no matter how many such rules are evaluated. The analysis contains a histogram of
+ * the distinct characters in the password, the runs of repeated characters and the number of code points.
+ *
+ * @author  Middleware Services
+ */
+public final class PasswordAnalysis
+{
+
+  /** Password that was analyzed. */
+  private final String password;
+
+  /** Number of code points in the password. */
+  private final int codePointCount;
+
+  /** Distinct characters in the order of their first occurrence in the password. */
+  private final char[] distinct;
+
+  /** Distinct characters in ascending order. */
+  private final char[] sorted;
+
+  /** Number of occurrences of each character in {@link #sorted}. */
+  private final int[] occurrences;
+
+  /** Start index and length of each run of repeated characters, packed in pairs. */
+  private final int[] runs;
+
+
+  /**
+   * Creates a new password analysis.
+   *
+   * @param  pass  password to analyze
+   */
+  public PasswordAnalysis(final String pass)
+  {
+    password = pass;
+    final int length = password.length();
+    final char[] chars = new char[length];
+    final int[] packedRuns = new int[length * 2];
+    int runCount = 0;
+    int surrogatePairs = 0;
+    int runStart = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = password.charAt(i);
+      chars[i] = c;
+      if (i > 0 && c != chars[i - 1]) {
+        if (Character.isSurrogatePair(chars[i - 1], c)) {
+          surrogatePairs++;
+        }
+        packedRuns[runCount * 2] = runStart;
+        packedRuns[runCount * 2 + 1] = i - runStart;
+        runCount++;
+        runStart = i;
+      }
+    }
+    if (length > 0) {
+      packedRuns[runCount * 2] = runStart;
+      packedRuns[runCount * 2 + 1] = length - runStart;
+      runCount++;
+    }
+    codePointCount = length - surrogatePairs;
+    runs = Arrays.copyOf(packedRuns, runCount * 2);
+
+    Arrays.sort(chars);
+    int n = -1;
+    for (int i = 0; i < length; i++) {
+      if (i == 0 || chars[i] != chars[i - 1]) {
+        chars[++n] = chars[i];
+      }
+    }
+    sorted = Arrays.copyOf(chars, n + 1);
+    occurrences = new int[sorted.length];
+    distinct = new char[sorted.length];
+    int distinctCount = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = password.charAt(i);
+      final int index = Arrays.binarySearch(sorted, c);
+      if (occurrences[index]++ == 0) {
+        distinct[distinctCount++] = c;
+      }
+    }
+  }
+
+
+  /**
+   * Returns the password that was analyzed.
+   *
+   * @return  password
+   */
+  public String getPassword()
+  {
+    return password;
+  }
+
+
+  /**
+   * Returns the number of code points in the password.
+   *
+   * @return  number of code points
+   */
+  public int getCodePointCount()
+  {
+    return codePointCount;
+  }
+
+
+  /**
+   * Returns a copy of the distinct characters in the password in the order of their first occurrence. Rules evaluated
+   * for every password should use {@link #getDistinctCharacter(int)}, which reads the shared analysis without copying.
+   *
+   * @return  distinct characters
+   */
+  public char[] getDistinctCharacters()
+  {
+    return distinct.clone();
+  }
+
+
+  /**
+   * Returns a copy of the distinct characters in the password in ascending order. Rules evaluated for every password
+   * should use {@link #getSortedCharacter(int)}, which reads the shared analysis without copying.
+   *
+   * @return  sorted distinct characters
+   */
+  public char[] getSortedCharacters()
+  {
+    return sorted.clone();
+  }
+
+
+  /**
+   * Returns the number of distinct characters in the password.
+   *
+   * @return  number of distinct characters
+   */
+  public int getDistinctCount()
+  {
+    return distinct.length;
+  }
+
+
+  /**
+   * Returns the distinct character at the supplied index in the order of first occurrence in the password.
+   *
+   * @param  index  between 0 and {@link #getDistinctCount()} - 1
+   *
+   * @return  distinct character
+   */
+  public char getDistinctCharacter(final int index)
+  {
+    return distinct[index];
+  }
+
+
+  /**
+   * Returns the distinct character at the supplied index in ascending order.
+   *
+   * @param  index  between 0 and {@link #getDistinctCount()} - 1
+   *
+   * @return  distinct character
+   */
+  public char getSortedCharacter(final int index)
+  {
+    return sorted[index];
+  }
+
+
+  /**
+   * Returns the number of times the distinct character at the supplied index in ascending order occurs in the
+   * password, which is {@code getOccurrences(getSortedCharacter(index))} without the search.
+   *
+   * @param  index  between 0 and {@link #getDistinctCount()} - 1
+   *
+   * @return  number of occurrences
+   */
+  public int getSortedOccurrences(final int index)
+  {
+    return occurrences[index];
+  }
+
+
+  /**
+   * Returns the number of times the supplied character occurs in the password.
+   *
+   * @param  c  character to count
+   *
+   * @return  number of occurrences
+   */
+  public int getOccurrences(final char c)
+  {
+    final int i = Arrays.binarySearch(sorted, c);
+    return i < 0 ? 0 : occurrences[i];
+  }
+
+
+  /**
+   * Returns whether the password contains the supplied character.
+   *
+   * @param  c  character to find
+   *
+   * @return  whether the character occurs in the password
+   */
+  public boolean contains(final char c)
+  {
+    return Arrays.binarySearch(sorted, c) >= 0;
+  }
+
+
+  /**
+   * Returns whether the password matches the supplied character for the supplied match behavior. This is equivalent
+   * to {@link MatchBehavior#match(String, char)}.
+   *
+   * @param  behavior  how to match the character
+   * @param  c  character to match
+   *
+   * @return  whether the password matches the character
+   */
+  public boolean matches(final MatchBehavior behavior, final char c)
+  {
+    final int length = password.length();
+    final boolean match;
+    if (MatchBehavior.StartsWith.equals(behavior)) {
+      match = length > 0 && password.charAt(0) == c;
+    } else if (MatchBehavior.EndsWith.equals(behavior)) {
+      match = length > 0 && password.charAt(length - 1) == c;
+    } else {
+      match = contains(c);
+    }
+    return match;
+  }
+
+
+  /**
+   * Returns the number of characters in the password that are in the supplied character set. The count is computed
+   * from the histogram of distinct characters, so its cost does not depend on the length of the password.
+   *
+   * @param  characterSet  to count characters of
+   *
+   * @return  number of matching characters, including duplicates
+   */
+  public int count(final CharacterSet characterSet)
+  {
+    int count = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (characterSet.contains(sorted[i])) {
+        count += occurrences[i];
+      }
+    }
+    return count;
+  }
+
+
+  /**
+   * Returns the runs of a repeated character in the password whose length is at least the supplied length, in the
+   * order they occur in the password.
+   *
+   * @param  minimumLength  minimum length of a run
+   *
+   * @return  unmodifiable list of runs
+   */
+  public List<String> getRuns(final int minimumLength)
+  {
+    List<String> matches = null;
+    for (int i = 0; i < runs.length; i += 2) {
+      if (runs[i + 1] >= minimumLength) {
+        if (matches == null) {
+          matches = new ArrayList<>();
+        }
+        matches.add(password.substring(runs[i], runs[i] + runs[i + 1]));
+      }
+    }
+    return matches == null ? Collections.emptyList() : Collections.unmodifiableList(matches);
+  }
+
+
+  /**
+   * Returns the length of the longest run of a repeated character in the password.
+   *
+   * @return  length of the longest run or 0 if the password is empty
+   */
+  public int getLongestRun()
+  {
+    int longest = 0;
+    for (int i = 1; i < runs.length; i += 2) {
+      longest = Math.max(longest, runs[i]);
+    }
+    return longest;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return
+      String.format(
+        "%s@%h::codePointCount=%s,distinctCharacters=%s,runs=%s",
+        getClass().getName(),
+        hashCode(),
+        codePointCount,
+        sorted.length,
+        runs.length / 2);
+  }
+}
@@ -1,11 +1,11 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.logic;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.RandomAccess;
 
 /**
  * Contains password related information used by rules to perform password validation.
@@ -32,11 +32,20 @@ public class PasswordData
   private String username;
 
   /** Password references. */
-  private List<Reference> passwordReferences = new ArrayList<>();
+  private ReferenceList passwordReferences = new ReferenceList(null);
 
   /** Origin of this password. */
   private Origin origin = Origin.User;
 
+  /** Analysis of the password, computed on first use. */
+  private PasswordAnalysis analysis;
+
+  /** Index of the password references, computed on first use. */
+  private ReferenceIndex referenceIndex;
+
+  /** Modification count of {@link #passwordReferences} when {@link #referenceIndex} was created. */
+  private int indexedModifications;
+
 
   /** Default constructor. */
   public PasswordData() {}
@@ -120,6 +129,24 @@ public class PasswordData
       throw new NullPointerException("Password cannot be null");
     }
     password = p;
+    analysis = null;
+  }
+
+
+  /**
+   * Returns the analysis of the password. The analysis is computed when first requested and cached until the password
+   * is changed, so rules that share it scan the password only once.
+   *
+   * @return  password analysis
+   */
+  public PasswordAnalysis getAnalysis()
+  {
+    PasswordAnalysis a = analysis;
+    if (a == null || a.getPassword() != password) {
+      a = new PasswordAnalysis(password);
+      analysis = a;
+    }
+    return a;
   }
 
 
@@ -185,7 +212,7 @@ public class PasswordData
 
 
   /**
-   * Returns the password references.
+   * Returns the password references. The returned list may be modified, which updates the references used by rules.
    *
    * @return  password references
    */
@@ -203,20 +230,34 @@ public class PasswordData
    *
    * @return  unmodifiable list of password references
    */
-  @SuppressWarnings("unchecked")
   public <T extends Reference> List<T> getPasswordReferences(final Class<T> type)
   {
-    final List<T> l = new ArrayList<>();
-    if (passwordReferences != null) {
-      l.addAll(passwordReferences.stream().filter(
-        type::isInstance).map(r -> (T) r).collect(Collectors.toList()));
+    return getReferenceIndex().getReferences(type);
+  }
+
+
+  /**
+   * Returns the index of the password references. The index is created when first requested and cached until the
+   * references are replaced or the list returned by {@link #getPasswordReferences()} is modified.
+   *
+   * @return  reference index
+   */
+  public ReferenceIndex getReferenceIndex()
+  {
+    ReferenceIndex index = referenceIndex;
+    final int modifications = passwordReferences.getModificationCount();
+    if (index == null || indexedModifications != modifications) {
+      index = new ReferenceIndex(passwordReferences);
+      referenceIndex = index;
+      indexedModifications = modifications;
     }
-    return Collections.unmodifiableList(l);
+    return index;
   }
 
 
   /**
-   * Sets the password references.
+   * Sets the password references. The references are copied, so later changes to the supplied array are not seen by
+   * rules, use {@link #getPasswordReferences()} to modify the references.
    *
    * @param  r  password references
    */
@@ -227,13 +268,19 @@ public class PasswordData
 
 
   /**
-   * Sets the password references.
+   * Sets the password references. The references are copied, so later changes to the supplied list are not seen by
+   * rules, use {@link #getPasswordReferences()} to modify the references. A null list clears the references.
+   *
+   * <p><strong>NOTE</strong> Earlier versions stored the supplied list itself, and a null list was returned by {@link
+   * #getPasswordReferences()}. The copy lets the cached {@link ReferenceIndex} be invalidated whenever the references
+   * are modified.</p>
    *
-   * @param  l  password references
+   * @param  l  password references, may be null
    */
   public void setPasswordReferences(final List<Reference> l)
   {
-    passwordReferences = l;
+    passwordReferences = new ReferenceList(l);
+    referenceIndex = null;
   }
 
 
@@ -249,7 +296,11 @@ public class PasswordData
     final PasswordData pd = new PasswordData();
     pd.setUsername(data.getUsername());
     pd.setPassword(data.getPassword());
+    pd.analysis = data.analysis;
     pd.setPasswordReferences(data.getPasswordReferences());
+    if (data.referenceIndex != null && data.indexedModifications == data.passwordReferences.getModificationCount()) {
+      pd.referenceIndex = data.referenceIndex;
+    }
     pd.setOrigin(data.getOrigin());
     return pd;
   }
@@ -521,4 +572,78 @@ public class PasswordData
       return String.format("%s@%h::label=%s,password=%s", getClass().getName(), hashCode(), label, password);
     }
   }
+
+
+  /**
+   * List of password references that counts every modification in {@link #modCount}, including replacement of an
+   * element, so that a cached {@link ReferenceIndex} can be detected as stale. All modifications, including those
+   * through iterators and sub lists, are made by {@link #set(int, Reference)}, {@link #add(int, Reference)} or {@link
+   * #remove(int)}, and iterators fail fast on concurrent modification.
+   */
+  private static final class ReferenceList extends AbstractList<Reference> implements RandomAccess
+  {
+
+    /** References. */
+    private final List<Reference> references;
+
+
+    /**
+     * Creates a new reference list.
+     *
+     * @param  refs  references to copy, may be null
+     */
+    ReferenceList(final List<Reference> refs)
+    {
+      references = refs == null ? new ArrayList<>() : new ArrayList<>(refs);
+    }
+
+
+    /**
+     * Returns the number of modifications made to this list.
+     *
+     * @return  modification count
+     */
+    int getModificationCount()
+    {
+      return modCount;
+    }
+
+
+    @Override
+    public Reference get(final int index)
+    {
+      return references.get(index);
+    }
+
+
+    @Override
+    public int size()
+    {
+      return references.size();
+    }
+
+
+    @Override
+    public Reference set(final int index, final Reference element)
+    {
+      modCount++;
+      return references.set(index, element);
+    }
+
+
+    @Override
+    public void add(final int index, final Reference element)
+    {
+      modCount++;
+      references.add(index, element);
+    }
+
+
+    @Override
+    public Reference remove(final int index)
+    {
+      modCount++;
+      return references.remove(index);
+    }
+  }
 }
@@ -0,0 +1,145 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the password references of a {@link PasswordData}. References are grouped into buckets by reference type and
+ * each bucket is indexed by reference password, so rules can retrieve the references of a type, or the references of
+ * a type whose password equals a cleartext password, without copying or scanning the reference list on every
+ * validation. Buckets are built the first time a type is requested and cached for the life of the index.
+ *
+ * <p>The index reflects the reference list it was created from at that time. {@link PasswordData} creates a new index
+ * whenever its references are replaced or modified.</p>
+ *
+ * @author  Middleware Services
+ */
+public final class ReferenceIndex
+{
+
+  /** References in this index. */
+  private final List<PasswordData.Reference> references;
+
+  /** Buckets of references by type. */
+  private final Map<Class<?>, Bucket<?>> buckets = new ConcurrentHashMap<>();
+
+
+  /**
+   * Creates a new reference index.
+   *
+   * @param  refs  references to index, may be null
+   */
+  public ReferenceIndex(final List<? extends PasswordData.Reference> refs)
+  {
+    references = refs == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(refs));
+  }
+
+
+  /**
+   * Returns the number of references in this index.
+   *
+   * @return  number of references
+   */
+  public int size()
+  {
+    return references.size();
+  }
+
+
+  /**
+   * Returns the references that are instances of the supplied type, in the order they were supplied.
+   *
+   * @param  <T>  type of password reference
+   * @param  type  of reference to match
+   *
+   * @return  unmodifiable list of password references
+   */
+  public <T extends PasswordData.Reference> List<T> getReferences(final Class<T> type)
+  {
+    return getBucket(type).all;
+  }
+
+
+  /**
+   * Returns the references that are instances of the supplied type and whose password equals the supplied password, in
+   * the order they were supplied.
+   *
+   * @param  <T>  type of password reference
+   * @param  type  of reference to match
+   * @param  password  to match
+   *
+   * @return  unmodifiable list of password references
+   */
+  public <T extends PasswordData.Reference> List<T> getReferences(final Class<T> type, final String password)
+  {
+    return getBucket(type).byPassword.getOrDefault(password, Collections.emptyList());
+  }
+
+
+  /**
+   * Returns the bucket for the supplied type, creating it if necessary.
+   *
+   * @param  <T>  type of password reference
+   * @param  type  of reference to match
+   *
+   * @return  bucket of references
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends PasswordData.Reference> Bucket<T> getBucket(final Class<T> type)
+  {
+    return (Bucket<T>) buckets.computeIfAbsent(type, t -> new Bucket<>(type, references));
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format("%s@%h::size=%s", getClass().getName(), hashCode(), references.size());
+  }
+
+
+  /**
+   * References of a single type.
+   *
+   * @param  <T>  type of password reference
+   */
+  private static final class Bucket<T extends PasswordData.Reference>
+  {
+
+    /** All references of the type. */
+    private final List<T> all;
+
+    /** References of the type by password. */
+    private final Map<String, List<T>> byPassword;
+
+
+    /**
+     * Creates a new bucket.
+     *
+     * @param  type  of reference
+     * @param  refs  all references
+     */
+    Bucket(final Class<T> type, final List<PasswordData.Reference> refs)
+    {
+      final List<T> matches = new ArrayList<>();
+      final Map<String, List<T>> index = new HashMap<>();
+      for (PasswordData.Reference r : refs) {
+        if (type.isInstance(r)) {
+          final T ref = type.cast(r);
+          matches.add(ref);
+          if (ref.getPassword() != null) {
+            index.computeIfAbsent(ref.getPassword(), p -> new ArrayList<>(1)).add(ref);
+          }
+        }
+      }
+      index.replaceAll((p, l) -> Collections.unmodifiableList(l));
+      all = Collections.unmodifiableList(matches);
+      byPassword = index;
+    }
+  }
+}
@@ -17,7 +17,7 @@ public abstract class AbstractDictionaryRule implements Rule
 {
 
   /** Dictionary of words. */
-  private Dictionary dictionary;
+  private volatile Dictionary dictionary;
 
   /** Whether to search for dictionary words backwards. */
   private boolean matchBackwards;
@@ -71,6 +71,13 @@ public abstract class AbstractDictionaryRule implements Rule
   }
 
 
+  @Override
+  public int getCost()
+  {
+    return DICTIONARY_COST;
+  }
+
+
   @Override
   public RuleResult validate(final PasswordData passwordData)
   {
@@ -3,15 +3,14 @@ package org.passay.rule;
 
 import org.passay.logic.MatchBehavior;
 import org.passay.logic.PasswordData;
-import org.passay.util.PasswordUtils;
+import org.passay.data.character.CharacterSet;
+import org.passay.logic.PasswordAnalysis;
 import org.passay.rule.result.RuleResult;
 import org.passay.rule.result.RuleResultMetadata;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Rule for determining if a password contains allowed characters. Validation will fail unless the password contains
@@ -34,6 +33,9 @@ public class AllowedCharacterRule implements Rule
   /** Where to match whitespace. */
   private final MatchBehavior matchBehavior;
 
+  /** Lookup table of the allowed characters. */
+  private final CharacterSet allowedSet;
+
 
   /**
    * Create a new allowed character rule.
@@ -85,6 +87,7 @@ public class AllowedCharacterRule implements Rule
       throw new IllegalArgumentException("allowed characters length must be greater than zero");
     }
     Arrays.sort(allowedCharacters);
+    allowedSet = CharacterSet.of(String.valueOf(allowedCharacters));
     matchBehavior = behavior;
     reportAllFailures = reportAll;
   }
@@ -116,17 +119,14 @@ public class AllowedCharacterRule implements Rule
   public RuleResult validate(final PasswordData passwordData)
   {
     final RuleResult result = new RuleResult();
-    final Set<Character> matches = new HashSet<>();
-    final String text = passwordData.getPassword();
-    for (char c : text.toCharArray()) {
-      if (Arrays.binarySearch(allowedCharacters, c) < 0 && !matches.contains(c)) {
-        if (MatchBehavior.Contains.equals(matchBehavior) || matchBehavior.match(text, c)) {
-          final String[] codes = {ERROR_CODE + "." + (int) c, ERROR_CODE};
-          result.addError(codes, createRuleResultDetailParameters(c));
-          if (!reportAllFailures) {
-            break;
-          }
-          matches.add(c);
+    final PasswordAnalysis analysis = passwordData.getAnalysis();
+    for (int i = 0; i < analysis.getDistinctCount(); i++) {
+      final char c = analysis.getDistinctCharacter(i);
+      if (!allowedSet.contains(c) && analysis.matches(matchBehavior, c)) {
+        final String[] codes = {ERROR_CODE + "." + (int) c, ERROR_CODE};
+        result.addError(codes, createRuleResultDetailParameters(c));
+        if (!reportAllFailures) {
+          break;
         }
       }
     }
@@ -162,7 +162,7 @@ public class AllowedCharacterRule implements Rule
   {
     return new RuleResultMetadata(
       RuleResultMetadata.CountCategory.Allowed,
-      PasswordUtils.countMatchingCharacters(String.valueOf(allowedCharacters), password.getPassword()));
+      password.getAnalysis().count(allowedSet));
   }
 
 
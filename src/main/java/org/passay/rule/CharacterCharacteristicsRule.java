@@ -34,6 +34,9 @@ public class CharacterCharacteristicsRule implements Rule
   /** Whether to report the details of each character rule failure. */
   private boolean reportRuleFailures = true;
 
+  /** Listener notified of each character rule evaluated, may be null. */
+  private RuleListener ruleListener;
+
 
   /**
    * Default constructor.
@@ -196,6 +199,28 @@ public class CharacterCharacteristicsRule implements Rule
   }
 
 
+  /**
+   * Returns the listener notified of each character rule evaluated by this rule.
+   *
+   * @return  rule listener or null
+   */
+  public RuleListener getRuleListener()
+  {
+    return ruleListener;
+  }
+
+
+  /**
+   * Sets the listener notified of each character rule evaluated by this rule. See {@link RuleStatistics}.
+   *
+   * @param  listener  rule listener or null for none
+   */
+  public void setRuleListener(final RuleListener listener)
+  {
+    ruleListener = listener;
+  }
+
+
   @Override
   public RuleResult validate(final PasswordData passwordData)
   {
@@ -206,7 +231,7 @@ public class CharacterCharacteristicsRule implements Rule
     int successCount = 0;
     final RuleResult result = new RuleResult();
     for (CharacterRule rule : rules) {
-      final RuleResult rr = rule.validate(passwordData);
+      final RuleResult rr = RuleListener.validate(rule, passwordData, ruleListener);
       if (!rr.isValid()) {
         if (reportRuleFailures) {
           result.getDetails().addAll(rr.getDetails());
@@ -1,10 +1,10 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.rule;
 
+import org.passay.logic.PasswordAnalysis;
 import org.passay.logic.PasswordData;
 import org.passay.rule.result.RuleResult;
 
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -36,18 +36,11 @@ public class CharacterOccurrencesRule implements Rule
   public RuleResult validate(final PasswordData passwordData)
   {
     final RuleResult result = new RuleResult();
-    final String password = passwordData.getPassword() + '\uffff';
-    final char[] chars = password.toCharArray();
-    Arrays.sort(chars);
-    int repeat = 1;
-    for (int i = 1; i < chars.length; i++) {
-      if (chars[i] == chars[i - 1]) {
-        repeat++;
-      } else {
-        if (repeat > maxOccurrences) {
-          result.addError(ERROR_CODE, createRuleResultDetailParameters(chars[i - 1], repeat));
-        }
-        repeat = 1;
+    final PasswordAnalysis analysis = passwordData.getAnalysis();
+    for (int i = 0; i < analysis.getDistinctCount(); i++) {
+      final int occurrences = analysis.getSortedOccurrences(i);
+      if (occurrences > maxOccurrences) {
+        result.addError(ERROR_CODE, createRuleResultDetailParameters(analysis.getSortedCharacter(i), occurrences));
       }
     }
     return result;
@@ -2,8 +2,8 @@
 package org.passay.rule;
 
 import org.passay.data.character.CharacterData;
+import org.passay.data.character.CharacterSet;
 import org.passay.logic.PasswordData;
-import org.passay.util.PasswordUtils;
 import org.passay.rule.result.RuleResult;
 import org.passay.rule.result.RuleResultDetail;
 import org.passay.rule.result.RuleResultMetadata;
@@ -25,6 +25,12 @@ public class CharacterRule implements Rule
   /** Number of characters to require. Default value is 1. */
   protected int numCharacters = 1;
 
+  /** Set of the characters of the character data. */
+  private final CharacterSet characterSet;
+
+  /** Metadata category of the character data, null if it has none. */
+  private final RuleResultMetadata.CountCategory countCategory;
+
 
   /**
    * Creates a new character rule.
@@ -47,6 +53,14 @@ public class CharacterRule implements Rule
   {
     setNumberOfCharacters(num);
     characterData = data;
+    characterSet = data.getCharacterSet();
+    RuleResultMetadata.CountCategory category;
+    try {
+      category = RuleResultMetadata.CountCategory.valueOf(data.toString());
+    } catch (IllegalArgumentException iae) {
+      category = null;
+    }
+    countCategory = category;
   }
 
 
@@ -101,17 +115,17 @@ public class CharacterRule implements Rule
   @Override
   public RuleResult validate(final PasswordData passwordData)
   {
-    final String matchingChars = PasswordUtils.getMatchingCharacters(
-      String.valueOf(characterData.getCharacters()),
-      passwordData.getPassword(),
-      numCharacters);
-    if (matchingChars.length() < numCharacters) {
+    final String password = passwordData.getPassword();
+    final int count = passwordData.getAnalysis().count(characterSet);
+    if (count < numCharacters) {
       return new RuleResult(
         false,
-        new RuleResultDetail(characterData.getErrorCode(), createRuleResultDetailParameters(matchingChars)),
-        createRuleResultMetadata(passwordData));
+        new RuleResultDetail(
+          characterData.getErrorCode(),
+          createRuleResultDetailParameters(characterSet.getMatchingCharacters(password, numCharacters))),
+        createRuleResultMetadata(count));
     }
-    return new RuleResult(true, createRuleResultMetadata(passwordData));
+    return new RuleResult(true, createRuleResultMetadata(count));
   }
 
 
@@ -142,13 +156,23 @@ public class CharacterRule implements Rule
    */
   protected RuleResultMetadata createRuleResultMetadata(final PasswordData password)
   {
-    try {
-      return new RuleResultMetadata(
-        RuleResultMetadata.CountCategory.valueOf(characterData.toString()),
-        PasswordUtils.countMatchingCharacters(characterData.getCharacters(), password.getPassword()));
-    } catch (IllegalArgumentException iae) {
+    return createRuleResultMetadata(password.getAnalysis().count(characterSet));
+  }
+
+
+  /**
+   * Creates the rule result metadata.
+   *
+   * @param  count  number of characters in the password that match the character data
+   *
+   * @return  rule result metadata
+   */
+  protected RuleResultMetadata createRuleResultMetadata(final int count)
+  {
+    if (countCategory == null) {
       return new RuleResultMetadata();
     }
+    return new RuleResultMetadata(countCategory, count);
   }
 
 
@@ -0,0 +1,198 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.rule;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.passay.data.sequence.SequenceData;
+import org.passay.logic.CharacterSequenceIndex;
+import org.passay.logic.PasswordData;
+import org.passay.rule.result.RuleResult;
+
+/**
+ * Password validation rule that prevents illegal sequences of characters from any number of {@link SequenceData} and,
+ * optionally, runs of a repeated character. The rule is equivalent to one {@link IllegalSequenceRule} per sequence data
+ * followed by a {@link RepeatCharacterRegexRule}, and reports the same error codes and parameters in the same order,
+ * but all sequence data are searched together in a single pass over the password using a {@link
+ * CharacterSequenceIndex}, and repeated characters are found from the runs in {@link PasswordData#getAnalysis()}
+ * rather than with a regular expression. Enabling additional keyboard layouts or alphabets therefore adds little to
+ * the cost of validation.
+ *
+ * @author  Middleware Services
+ */
+public class CompositeSequenceRule implements Rule
+{
+
+  /** Regular expression reported as the pattern of repeated character matches, value is {@value}. */
+  private static final String REPEAT_CHAR_REGEX = "([^\\x00-\\x1F])\\1{%d}";
+
+  /** Largest character that is not matched by repeat detection. */
+  private static final char MAXIMUM_CONTROL_CHARACTER = '\u001F';
+
+  /** Compiled index of the sequence data for this rule. */
+  protected final CharacterSequenceIndex sequenceIndex;
+
+  /** Number of characters in sequence to match. */
+  protected final int sequenceLength;
+
+  /** Whether or not to wrap a sequence when searching for matches. */
+  protected final boolean wrapSequence;
+
+  /** Number of repeated characters to match, or zero if repeats are not detected. */
+  protected final int repeatLength;
+
+  /** Whether to report all sequence matches or just the first of each kind. */
+  protected final boolean reportAllFailures;
+
+  /** Number of sequence data in {@link #sequenceIndex}. */
+  private final int sequenceDataCount;
+
+  /** Pattern equivalent to the repeat detection of this rule, reported with repeat matches. */
+  private final Pattern repeatPattern;
+
+
+  /**
+   * Creates a new composite sequence rule that detects sequences of the default length in the supplied sequence data
+   * and repeated characters of the default length.
+   *
+   * @param  data  sequence data for this rule
+   */
+  public CompositeSequenceRule(final SequenceData... data)
+  {
+    this(
+      IllegalSequenceRule.DEFAULT_SEQUENCE_LENGTH,
+      false,
+      RepeatCharacterRegexRule.DEFAULT_SEQUENCE_LENGTH,
+      true,
+      data);
+  }
+
+
+  /**
+   * Creates a new composite sequence rule.
+   *
+   * @param  sl  sequence length
+   * @param  wrap  whether to wrap sequences
+   * @param  rl  repeated character length, or zero to disable repeat detection
+   * @param  reportAll  whether to report all matches or just the first of each sequence data and of repeats
+   * @param  data  sequence data for this rule
+   */
+  public CompositeSequenceRule(
+    final int sl, final boolean wrap, final int rl, final boolean reportAll, final SequenceData... data)
+  {
+    if (sl < IllegalSequenceRule.MINIMUM_SEQUENCE_LENGTH) {
+      throw new IllegalArgumentException(
+        String.format("sequence length must be >= %s", IllegalSequenceRule.MINIMUM_SEQUENCE_LENGTH));
+    }
+    if (rl != 0 && rl < RepeatCharacterRegexRule.MINIMUM_SEQUENCE_LENGTH) {
+      throw new IllegalArgumentException(
+        String.format("repeat length must be 0 or >= %s", RepeatCharacterRegexRule.MINIMUM_SEQUENCE_LENGTH));
+    }
+    sequenceIndex = new CharacterSequenceIndex(data);
+    sequenceDataCount = data.length;
+    sequenceLength = sl;
+    wrapSequence = wrap;
+    repeatLength = rl;
+    reportAllFailures = reportAll;
+    repeatPattern = rl > 0 ? Pattern.compile(String.format(REPEAT_CHAR_REGEX, rl - 1)) : null;
+  }
+
+
+  /**
+   * Returns the sequence data for this rule.
+   *
+   * @return  sequence data
+   */
+  public SequenceData[] getSequenceData()
+  {
+    return sequenceIndex.getSequenceData();
+  }
+
+
+  /**
+   * Returns the sequence length for this rule.
+   *
+   * @return  sequence length
+   */
+  public int getSequenceLength()
+  {
+    return sequenceLength;
+  }
+
+
+  /**
+   * Returns the repeated character length for this rule.
+   *
+   * @return  repeat length, or zero if repeats are not detected
+   */
+  public int getRepeatLength()
+  {
+    return repeatLength;
+  }
+
+
+  @Override
+  public RuleResult validate(final PasswordData passwordData)
+  {
+    final RuleResult result = new RuleResult();
+    final String password = passwordData.getPassword();
+    final boolean[] reported = new boolean[sequenceDataCount];
+    sequenceIndex.find(password, sequenceLength, wrapSequence, (sequence, start, end) -> {
+      final int i = sequenceIndex.getSequenceDataIndex(sequence);
+      if (reportAllFailures || !reported[i]) {
+        final Map<String, Object> m = new LinkedHashMap<>();
+        m.put("sequence", password.substring(start, end));
+        result.addError(sequenceIndex.getSequenceData(sequence).getErrorCode(), m);
+        reported[i] = true;
+      }
+    });
+    if (repeatLength > 0) {
+      final List<String> matches = new ArrayList<>();
+      for (String run : passwordData.getAnalysis().getRuns(repeatLength)) {
+        final String match = run.substring(0, repeatLength);
+        if (run.charAt(0) > MAXIMUM_CONTROL_CHARACTER && !matches.contains(match)) {
+          result.addError(IllegalRegexRule.ERROR_CODE, createRuleResultDetailParameters(match));
+          if (!reportAllFailures) {
+            break;
+          }
+          matches.add(match);
+        }
+      }
+    }
+    return result;
+  }
+
+
+  /**
+   * Creates the parameter data for a repeated character rule result detail.
+   *
+   * @param  match  repeated characters
+   *
+   * @return  map of parameter name to value
+   */
+  protected Map<String, Object> createRuleResultDetailParameters(final String match)
+  {
+    final Map<String, Object> m = new LinkedHashMap<>();
+    m.put("match", match);
+    m.put("pattern", repeatPattern);
+    return m;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return
+      String.format(
+        "%s@%h::sequenceIndex=%s,length=%d,wrap=%s,repeatLength=%d,reportAllFailures=%s",
+        getClass().getName(),
+        hashCode(),
+        sequenceIndex,
+        sequenceLength,
+        wrapSequence,
+        repeatLength,
+        reportAllFailures);
+  }
+}
@@ -1,6 +1,7 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.rule;
 
+import org.passay.dictionary.AhoCorasickDictionary;
 import org.passay.dictionary.Dictionary;
 
 /**
@@ -36,9 +37,22 @@ public class DictionarySubstringRule extends AbstractDictionaryRule
   }
 
 
+  /**
+   * Searches the dictionary for the shortest word contained in the supplied text. If the dictionary is an {@link
+   * AhoCorasickDictionary} the text is scanned once, otherwise every substring of the text is searched in order of
+   * increasing length.
+   *
+   * @param  text  to search dictionary with
+   *
+   * @return  shortest matching word
+   */
+  // CheckStyle:ReturnCount OFF
   @Override
   protected String doWordSearch(final String text)
   {
+    if (getDictionary() instanceof AhoCorasickDictionary) {
+      return ((AhoCorasickDictionary) getDictionary()).findShortestWord(text);
+    }
     for (int i = 1; i <= text.length(); i++) {
       for (int j = 0; j + i <= text.length(); j++) {
         final String s = text.substring(j, j + i);
@@ -49,6 +63,7 @@ public class DictionarySubstringRule extends AbstractDictionaryRule
     }
     return null;
   }
+  // CheckStyle:ReturnCount ON
 
 
   @Override
@@ -0,0 +1,311 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.rule;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of password digests keyed by the undigested password bytes. Repeated validation of the same candidate
+ * password, e.g. while a user is typing, then costs one hash rather than one per validation. See {@link
+ * DigestDictionaryRule#setDigestCache(DigestCache)}.
+ *
+ * <p>Since keys and digests are derived from secrets, the cache never holds more than its maximum number of entries
+ * and never returns an entry older than its time to live. Entries are evicted oldest first. Expired entries are removed
+ * whenever the cache is read and by {@link #purge()}; a cache that may sit idle should be purged periodically, e.g. by
+ * {@link #schedulePurge(ScheduledExecutorService)}. The cache keeps its own copy of each key, which is overwritten with
+ * zeros when the entry is evicted, expires or is cleared; the digest strings are immutable and can only be released for
+ * garbage collection. A cache must only be shared by rules that use equivalent hash beans and character sets.</p>
+ *
+ * <p>Instances are safe for use by multiple threads.</p>
+ *
+ * @author  Middleware Services
+ */
+public class DigestCache
+{
+
+  /** Default maximum number of entries, value is {@value}. */
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  /** Default time to live of entries. */
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+  /** Maximum number of entries. */
+  private final int maximumSize;
+
+  /** Time to live of entries in nanoseconds. */
+  private final long timeToLive;
+
+  /** Cached digests in insertion order. */
+  private final Map<Key, Entry> entries;
+
+
+  /** Creates a new digest cache with {@link #DEFAULT_MAXIMUM_SIZE} and {@link #DEFAULT_TIME_TO_LIVE}. */
+  public DigestCache()
+  {
+    this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+  }
+
+
+  /**
+   * Creates a new digest cache.
+   *
+   * @param  size  maximum number of entries
+   * @param  ttl  time to live of entries
+   */
+  public DigestCache(final int size, final Duration ttl)
+  {
+    if (size < 1) {
+      throw new IllegalArgumentException("Maximum size must be greater than 0");
+    }
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("Time to live must be greater than 0");
+    }
+    maximumSize = size;
+    timeToLive = ttl.toNanos();
+    entries = new LinkedHashMap<Key, Entry>(Math.min(size, DEFAULT_MAXIMUM_SIZE))
+    {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest)
+      {
+        if (size() > maximumSize) {
+          eldest.getKey().wipe();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+
+  /**
+   * Returns the maximum number of entries.
+   *
+   * @return  maximum size
+   */
+  public int getMaximumSize()
+  {
+    return maximumSize;
+  }
+
+
+  /**
+   * Returns the time to live of entries.
+   *
+   * @return  time to live
+   */
+  public Duration getTimeToLive()
+  {
+    return Duration.ofNanos(timeToLive);
+  }
+
+
+  /**
+   * Returns the digest of the supplied data, computing and caching it with the supplied function if it is not cached.
+   * The supplied data is copied and may be wiped by the caller once this method returns.
+   *
+   * @param  data  undigested password bytes
+   * @param  digest  function that computes the digest of data
+   *
+   * @return  digest of data
+   */
+  public String get(final byte[] data, final Function<byte[], String> digest)
+  {
+    final long now = nanoTime();
+    final Key key = new Key(data);
+    synchronized (entries) {
+      expire(now);
+      final Entry entry = entries.get(key);
+      if (entry != null) {
+        return entry.digest;
+      }
+    }
+    // compute outside the lock, hashing may be slow
+    final String value = digest.apply(data);
+    final Key copy = new Key(data.clone());
+    synchronized (entries) {
+      if (entries.putIfAbsent(copy, new Entry(value, now + timeToLive)) != null) {
+        copy.wipe();
+      }
+    }
+    return value;
+  }
+
+
+  /**
+   * Returns the number of entries in this cache, after removing expired entries.
+   *
+   * @return  number of entries
+   */
+  public int size()
+  {
+    synchronized (entries) {
+      expire(nanoTime());
+      return entries.size();
+    }
+  }
+
+
+  /**
+   * Removes and wipes the entries that have expired. Expired entries are otherwise only removed when the cache is read,
+   * so a cache that may not be read for longer than its time to live should be purged periodically.
+   *
+   * @return  number of entries removed
+   */
+  public int purge()
+  {
+    synchronized (entries) {
+      return expire(nanoTime());
+    }
+  }
+
+
+  /**
+   * Schedules {@link #purge()} to run on the supplied executor once every time to live, so that no entry is held for
+   * more than twice its time to live whether or not the cache is read. The scheduled task references this cache; cancel
+   * the returned future when the cache is no longer used.
+   *
+   * @param  executor  to run purges on, typically a single daemon thread shared by all caches
+   *
+   * @return  future of the scheduled purges
+   */
+  public ScheduledFuture<?> schedulePurge(final ScheduledExecutorService executor)
+  {
+    return executor.scheduleAtFixedRate(this::purge, timeToLive, timeToLive, TimeUnit.NANOSECONDS);
+  }
+
+
+  /**
+   * Returns the current value of the time source used to expire entries. The default implementation returns {@link
+   * System#nanoTime()}.
+   *
+   * @return  current time in nanoseconds
+   */
+  protected long nanoTime()
+  {
+    return System.nanoTime();
+  }
+
+
+  /** Removes and wipes all entries. */
+  public void clear()
+  {
+    synchronized (entries) {
+      entries.keySet().forEach(Key::wipe);
+      entries.clear();
+    }
+  }
+
+
+  /**
+   * Removes and wipes the entries that have expired. Entries are held in insertion order, so only the eldest entries
+   * need to be examined.
+   *
+   * @param  now  current time in nanoseconds
+   *
+   * @return  number of entries removed
+   */
+  private int expire(final long now)
+  {
+    int removed = 0;
+    final Iterator<Map.Entry<Key, Entry>> i = entries.entrySet().iterator();
+    while (i.hasNext()) {
+      final Map.Entry<Key, Entry> e = i.next();
+      if (now - e.getValue().expires < 0) {
+        break;
+      }
+      e.getKey().wipe();
+      i.remove();
+      removed++;
+    }
+    return removed;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return String.format(
+      "%s@%h::maximumSize=%s,timeToLive=%s",
+      getClass().getName(),
+      hashCode(),
+      maximumSize,
+      getTimeToLive());
+  }
+
+
+  /** Cache key that compares byte arrays by content. */
+  private static final class Key
+  {
+
+    /** Undigested bytes. */
+    private final byte[] bytes;
+
+    /** Hash code of bytes. */
+    private final int hash;
+
+
+    /**
+     * Creates a new key.
+     *
+     * @param  b  undigested bytes
+     */
+    Key(final byte[] b)
+    {
+      bytes = b;
+      hash = Arrays.hashCode(b);
+    }
+
+
+    /** Overwrites the bytes of this key with zeros. */
+    void wipe()
+    {
+      Arrays.fill(bytes, (byte) 0);
+    }
+
+
+    @Override
+    public boolean equals(final Object o)
+    {
+      return o instanceof Key && hash == ((Key) o).hash && Arrays.equals(bytes, ((Key) o).bytes);
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+      return hash;
+    }
+  }
+
+
+  /** Cached digest and its expiration time. */
+  private static final class Entry
+  {
+
+    /** Digest. */
+    private final String digest;
+
+    /** Expiration time in nanoseconds. */
+    private final long expires;
+
+
+    /**
+     * Creates a new entry.
+     *
+     * @param  d  digest
+     * @param  exp  expiration time in nanoseconds
+     */
+    Entry(final String d, final long exp)
+    {
+      digest = d;
+      expires = exp;
+    }
+  }
+}
@@ -3,6 +3,10 @@ package org.passay.rule;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import org.cryptacular.bean.HashBean;
 import org.passay.dictionary.Dictionary;
 
@@ -26,6 +30,9 @@ public class DigestDictionaryRule extends AbstractDictionaryRule
   /** Character set to use for undigested passwords. */
   private Charset charset = StandardCharsets.UTF_8;
 
+  /** Cache of password digests, null to digest every password. */
+  private DigestCache digestCache;
+
 
   /**
    * Creates new digest history rule which operates on password references that were digested with the supplied hash.
@@ -66,10 +73,84 @@ public class DigestDictionaryRule extends AbstractDictionaryRule
   }
 
 
+  /**
+   * Returns the cache of password digests.
+   *
+   * @return  digest cache or null if passwords are digested on every search
+   */
+  public DigestCache getDigestCache()
+  {
+    return digestCache;
+  }
+
+
+  /**
+   * Sets the cache of password digests. A cache avoids hashing the same password repeatedly when it is validated many
+   * times in quick succession. The default of null digests the password on every search.
+   *
+   * @param  cache  digest cache or null
+   */
+  public void setDigestCache(final DigestCache cache)
+  {
+    digestCache = cache;
+  }
+
+
+  /**
+   * Returns the digests of the supplied passwords for use in bulk audits, in the order of the passwords. Digests are
+   * computed with the hash bean and character set of this rule but bypass the digest cache, so that the passwords of
+   * an audit are not retained.
+   *
+   * @param  passwords  to digest
+   *
+   * @return  password digests
+   */
+  public List<String> digestAll(final Collection<String> passwords)
+  {
+    final List<String> digests = new ArrayList<>(passwords.size());
+    for (String password : passwords) {
+      final byte[] bytes = password.getBytes(charset);
+      digests.add(hashBean.hash(bytes));
+      Arrays.fill(bytes, (byte) 0);
+    }
+    return digests;
+  }
+
+
+  /**
+   * Returns whether each of the supplied passwords is in the dictionary, in the order of the passwords. This is
+   * equivalent to a forward search of each password by {@link #validate(org.passay.logic.PasswordData)} but bypasses
+   * the digest cache; see {@link #digestAll(Collection)}.
+   *
+   * @param  passwords  to search for
+   *
+   * @return  whether each password digest is in the dictionary
+   */
+  public boolean[] searchAll(final Collection<String> passwords)
+  {
+    final boolean[] results = new boolean[passwords.size()];
+    int i = 0;
+    for (String digest : digestAll(passwords)) {
+      results[i++] = getDictionary().search(digest);
+    }
+    return results;
+  }
+
+
+  @Override
+  public int getCost()
+  {
+    return DIGEST_COST;
+  }
+
+
   @Override
   protected String doWordSearch(final String text)
   {
-    return getDictionary().search(hashBean.hash(text.getBytes(charset))) ? text : null;
+    final byte[] bytes = text.getBytes(charset);
+    final String digest = digestCache != null ? digestCache.get(bytes, b -> hashBean.hash(b)) : hashBean.hash(bytes);
+    Arrays.fill(bytes, (byte) 0);
+    return getDictionary().search(digest) ? text : null;
   }
 
 
@@ -3,6 +3,15 @@ package org.passay.rule;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.cryptacular.bean.HashBean;
 import org.passay.logic.PasswordData;
 
@@ -11,6 +20,12 @@ import org.passay.logic.PasswordData;
  * reference has been set that matches the label on the rule, then passwords will meet this rule. See {@link
  * PasswordData#setPasswordReferences}.
  *
+ * <p>Comparing a password against a slow digest such as bcrypt or PBKDF2 costs one hash per reference. References are
+ * grouped by salted password so that the password is salted and encoded once per distinct salt, and if the hash bean is
+ * {@link #setDeterministic(boolean) deterministic} it is also hashed once per distinct salt. Comparisons may be run in
+ * parallel by supplying an {@link #setExecutor(Executor) executor}; if this rule does not report all failures,
+ * comparisons that have not started are skipped as soon as one reference matches.</p>
+ *
  * @author  Middleware Services
  */
 public class DigestHistoryRule extends HistoryRule
@@ -22,6 +37,12 @@ public class DigestHistoryRule extends HistoryRule
   /** Character set to use for undigested passwords. */
   private Charset charset = StandardCharsets.UTF_8;
 
+  /** Executor used to compare references in parallel, null to compare on the calling thread. */
+  private Executor executor;
+
+  /** Whether the hash bean always produces the same hash for the same input. */
+  private boolean deterministic;
+
 
   /**
    * Creates new digest history rule which operates on password references that were digested with the supplied hash.
@@ -30,6 +51,19 @@ public class DigestHistoryRule extends HistoryRule
    */
   public DigestHistoryRule(final HashBean<String> bean)
   {
+    this(bean, true);
+  }
+
+
+  /**
+   * Creates new digest history rule which operates on password references that were digested with the supplied hash.
+   *
+   * @param  bean  encoding hash bean
+   * @param  reportAll  whether to report all matches or just the first
+   */
+  public DigestHistoryRule(final HashBean<String> bean, final boolean reportAll)
+  {
+    super(reportAll);
     hashBean = bean;
   }
 
@@ -48,6 +82,63 @@ public class DigestHistoryRule extends HistoryRule
   }
 
 
+  /**
+   * Returns the executor used to compare references in parallel.
+   *
+   * @return  executor or null if references are compared on the calling thread
+   */
+  public Executor getExecutor()
+  {
+    return executor;
+  }
+
+
+  /**
+   * Sets the executor used to compare references in parallel. A bounded thread pool, or an executor that starts a
+   * virtual thread per task, keeps slow comparisons off the calling thread. The default of null compares references
+   * sequentially on the calling thread.
+   *
+   * @param  e  executor or null to compare on the calling thread
+   */
+  public void setExecutor(final Executor e)
+  {
+    executor = e;
+  }
+
+
+  /**
+   * Returns whether the hash bean always produces the same hash for the same input.
+   *
+   * @return  whether the hash bean is deterministic
+   */
+  public boolean isDeterministic()
+  {
+    return deterministic;
+  }
+
+
+  /**
+   * Sets whether the hash bean always produces the same hash for the same input, as an unsalted encoding hash bean
+   * does. When set, the password is hashed once per distinct salt and references are compared to the resulting hash
+   * string rather than each being passed to {@link HashBean#compare(Object, Object...)}. The comparison is made in
+   * constant time with {@link MessageDigest#isEqual(byte[], byte[])}. References must then be encoded exactly as the
+   * hash bean encodes, including case. Hash beans that read a salt from each reference are not deterministic.
+   *
+   * @param  b  whether the hash bean is deterministic
+   */
+  public void setDeterministic(final boolean b)
+  {
+    deterministic = b;
+  }
+
+
+  @Override
+  public int getCost()
+  {
+    return DIGEST_COST;
+  }
+
+
   /**
    * Determines whether a digested password matches a reference value.
    *
@@ -63,4 +154,106 @@ public class DigestHistoryRule extends HistoryRule
     final String undigested = salt == null ? password : salt.applyTo(password);
     return hashBean.compare(reference.getPassword(), undigested.getBytes(charset));
   }
+
+
+  /**
+   * Reference passwords are digests, so matches cannot be found by cleartext lookup.
+   *
+   * @return  false
+   */
+  @Override
+  protected boolean isCleartextComparison()
+  {
+    return false;
+  }
+
+
+  @Override
+  protected List<PasswordData.HistoricalReference> findMatches(
+    final String password, final List<PasswordData.HistoricalReference> references)
+  {
+    // group references by salted password so each salted password is encoded, and possibly hashed, once
+    final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < references.size(); i++) {
+      final PasswordData.Salt salt = references.get(i).getSalt();
+      groups.computeIfAbsent(salt == null ? password : salt.applyTo(password), k -> new ArrayList<>()).add(i);
+    }
+
+    final boolean[] matched = new boolean[references.size()];
+    final AtomicBoolean found = new AtomicBoolean();
+    final List<Runnable> tasks = new ArrayList<>();
+    for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+      final byte[] undigested = group.getKey().getBytes(charset);
+      if (deterministic) {
+        tasks.add(() -> {
+          if (reportAllFailures || !found.get()) {
+            final byte[] hash = hashBean.hash(undigested).getBytes(StandardCharsets.UTF_8);
+            for (int i : group.getValue()) {
+              if (MessageDigest.isEqual(hash, references.get(i).getPassword().getBytes(StandardCharsets.UTF_8))) {
+                matched[i] = true;
+                found.set(true);
+              }
+            }
+          }
+        });
+      } else {
+        for (int i : group.getValue()) {
+          tasks.add(() -> {
+            if ((reportAllFailures || !found.get()) && hashBean.compare(references.get(i).getPassword(), undigested)) {
+              matched[i] = true;
+              found.set(true);
+            }
+          });
+        }
+      }
+    }
+    runAll(tasks);
+
+    final List<PasswordData.HistoricalReference> matches = new ArrayList<>();
+    for (int i = 0; i < matched.length && (reportAllFailures || matches.isEmpty()); i++) {
+      if (matched[i]) {
+        matches.add(references.get(i));
+      }
+    }
+    return matches;
+  }
+
+
+  /**
+   * Runs the supplied tasks on the executor of this rule, or on the calling thread if there is no executor, and waits
+   * for them to complete. If a task fails, tasks that have not started are cancelled and the failure is thrown.
+   *
+   * @param  tasks  to run
+   */
+  private void runAll(final List<Runnable> tasks)
+  {
+    if (executor == null || tasks.size() < 2) {
+      tasks.forEach(Runnable::run);
+      return;
+    }
+    final CompletableFuture<Void> failure = new CompletableFuture<>();
+    final CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.size()];
+    for (int i = 0; i < futures.length; i++) {
+      futures[i] = CompletableFuture.runAsync(tasks.get(i), executor);
+      futures[i].whenComplete(
+        (result, ex) -> {
+          if (ex != null) {
+            failure.completeExceptionally(ex);
+          }
+        });
+    }
+    try {
+      CompletableFuture.anyOf(CompletableFuture.allOf(futures), failure).join();
+    } catch (CompletionException e) {
+      for (CompletableFuture<?> future : futures) {
+        future.cancel(false);
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
 }
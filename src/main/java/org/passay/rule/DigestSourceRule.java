@@ -48,6 +48,13 @@ public class DigestSourceRule extends SourceRule
   }
 
 
+  @Override
+  public int getCost()
+  {
+    return DIGEST_COST;
+  }
+
+
   /**
    * Determines whether a digested password matches a reference value.
    *
@@ -63,4 +70,16 @@ public class DigestSourceRule extends SourceRule
     final String undigested = salt == null ? password : salt.applyTo(password);
     return hashBean.compare(reference.getPassword(), undigested.getBytes(charset));
   }
+
+
+  /**
+   * Reference passwords are digests, so matches cannot be found by cleartext lookup.
+   *
+   * @return  false
+   */
+  @Override
+  protected boolean isCleartextComparison()
+  {
+    return false;
+  }
 }
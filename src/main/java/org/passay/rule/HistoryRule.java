@@ -7,6 +7,7 @@ import org.passay.rule.result.RuleResult;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Rule for determining if a password matches one of any previous password a user has chosen. If no historical password
@@ -56,17 +57,35 @@ public class HistoryRule implements Rule
     }
 
     final String cleartext = passwordData.getPassword();
-    if (reportAllFailures) {
-      references.stream().filter(reference -> matches(cleartext, reference)).forEach(
-        reference -> result.addError(ERROR_CODE, createRuleResultDetailParameters(size)));
-    } else {
-      references.stream().filter(reference -> matches(cleartext, reference)).findFirst().ifPresent(
-        reference -> result.addError(ERROR_CODE, createRuleResultDetailParameters(size)));
+    // cleartext references are found by hash lookup, other references must each be compared
+    final List<PasswordData.HistoricalReference> candidates = isCleartextComparison() ?
+      passwordData.getReferenceIndex().getReferences(PasswordData.HistoricalReference.class, cleartext) : references;
+    for (int i = findMatches(cleartext, candidates).size(); i > 0; i--) {
+      result.addError(ERROR_CODE, createRuleResultDetailParameters(size));
     }
     return result;
   }
 
 
+  /**
+   * Returns the references that match the supplied password according to {@link #matches(String,
+   * PasswordData.Reference)}. If this rule does not report all failures, at most one reference is returned.
+   *
+   * @param  password  candidate password
+   * @param  references  historical references to compare
+   *
+   * @return  matching references
+   */
+  protected List<PasswordData.HistoricalReference> findMatches(
+    final String password, final List<PasswordData.HistoricalReference> references)
+  {
+    return references.stream()
+      .filter(reference -> matches(password, reference))
+      .limit(reportAllFailures ? Long.MAX_VALUE : 1)
+      .collect(Collectors.toList());
+  }
+
+
   /**
    * Determines whether a password matches an historical password.
    *
@@ -81,6 +100,21 @@ public class HistoryRule implements Rule
   }
 
 
+  /**
+   * Returns whether {@link #matches(String, PasswordData.Reference)} is equality of the cleartext password and the
+   * reference password. If so, matching references are found by a hash lookup in the {@link
+   * org.passay.logic.ReferenceIndex} rather than by comparing every reference. The lookup is opt in: this method
+   * returns false for subclasses, which are compared against every reference unless they override this method to
+   * return true.
+   *
+   * @return  true for this rule, false for subclasses
+   */
+  protected boolean isCleartextComparison()
+  {
+    return getClass() == HistoryRule.class;
+  }
+
+
   /**
    * Creates the parameter data for the rule result detail.
    *
@@ -3,7 +3,8 @@ package org.passay.rule;
 
 import org.passay.logic.MatchBehavior;
 import org.passay.logic.PasswordData;
-import org.passay.util.PasswordUtils;
+import org.passay.data.character.CharacterSet;
+import org.passay.logic.PasswordAnalysis;
 import org.passay.rule.result.RuleResult;
 import org.passay.rule.result.RuleResultMetadata;
 
@@ -34,6 +35,9 @@ public class IllegalCharacterRule implements Rule
   /** Where to match whitespace. */
   private final MatchBehavior matchBehavior;
 
+  /** Lookup table of the illegal characters. */
+  private final CharacterSet illegalSet;
+
 
   /**
    * Create a new illegal character rule.
@@ -84,6 +88,7 @@ public class IllegalCharacterRule implements Rule
     } else {
       throw new IllegalArgumentException("illegal characters length must be greater than zero");
     }
+    illegalSet = CharacterSet.of(String.valueOf(illegalCharacters));
     matchBehavior = behavior;
     reportAllFailures = reportAll;
   }
@@ -116,9 +121,9 @@ public class IllegalCharacterRule implements Rule
   {
     final RuleResult result = new RuleResult();
     final Set<Character> matches = new HashSet<>();
-    final String text = passwordData.getPassword();
+    final PasswordAnalysis analysis = passwordData.getAnalysis();
     for (char c : illegalCharacters) {
-      if (matchBehavior.match(text, c) && !matches.contains(c)) {
+      if (analysis.matches(matchBehavior, c) && !matches.contains(c)) {
         final String[] codes = {ERROR_CODE + "." + (int) c, ERROR_CODE};
         result.addError(codes, createRuleResultDetailParameters(c));
         if (!reportAllFailures) {
@@ -159,7 +164,7 @@ public class IllegalCharacterRule implements Rule
   {
     return new RuleResultMetadata(
       RuleResultMetadata.CountCategory.Illegal,
-      PasswordUtils.countMatchingCharacters(String.valueOf(illegalCharacters), password.getPassword()));
+      password.getAnalysis().count(illegalSet));
   }
 
 
@@ -1,7 +1,7 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.rule;
 
-import org.passay.logic.CharacterSequence;
+import org.passay.logic.CharacterSequenceIndex;
 import org.passay.logic.PasswordData;
 import org.passay.rule.result.RuleResult;
 import org.passay.data.sequence.SequenceData;
@@ -35,6 +35,9 @@ public class IllegalSequenceRule implements Rule
   /** Whether to report all sequence matches or just the first. */
   protected boolean reportAllFailures;
 
+  /** Compiled index of the sequences in {@link #sequenceData}. */
+  private final CharacterSequenceIndex sequenceIndex;
+
 
   /**
    * Creates a new sequence rule with the supplied list of characters.
@@ -74,6 +77,7 @@ public class IllegalSequenceRule implements Rule
       throw new IllegalArgumentException(String.format("sequence length must be >= %s", MINIMUM_SEQUENCE_LENGTH));
     }
     sequenceData = data;
+    sequenceIndex = new CharacterSequenceIndex(data);
     sequenceLength = sl;
     wrapSequence = wrap;
     reportAllFailures = reportAll;
@@ -106,38 +110,12 @@ public class IllegalSequenceRule implements Rule
   public RuleResult validate(final PasswordData passwordData)
   {
     final RuleResult result = new RuleResult();
-    final String password = passwordData.getPassword() + '\uffff';
-    final StringBuilder match = new StringBuilder(password.length());
-    for (CharacterSequence cs : sequenceData.getSequences()) {
-      final int csLength = cs.length();
-      int direction = 0;
-      int prevPosition = -1;
-      for (int i = 0; i < password.length(); i++) {
-        final char c = password.charAt(i);
-        final int position = indexOf(cs, c);
-        // set diff to +1 for increase in sequence, -1 for decrease, anything else for neither
-        int diff = (position | prevPosition) < 0 ? 0 : position - prevPosition;
-        if (wrapSequence && (diff == csLength - 1 || diff == 1 - csLength)) {
-          diff -= Integer.signum(diff) * csLength;
-        }
-        // if we have a sequence and reached its end, add it to result
-        if (diff != direction && match.length() >= sequenceLength) {
-          addError(result, match.toString());
-        }
-        // update the current potential sequence
-        if (diff == 1 || diff == -1) {
-          if (diff != direction) {
-            match.delete(0, match.length() - 1);
-            direction = diff;
-          }
-        } else {
-          match.setLength(0);
-          direction = 0;
-        }
-        match.append(c);
-        prevPosition = position;
-      }
-    }
+    final String password = passwordData.getPassword();
+    sequenceIndex.find(
+      password,
+      sequenceLength,
+      wrapSequence,
+      (sequence, start, end) -> addError(result, password.substring(start, end)));
     return result;
   }
 
@@ -156,26 +134,6 @@ public class IllegalSequenceRule implements Rule
   }
 
 
-  /**
-   * Returns the index of the given character within the given sequence,
-   * or -1 if it is not found.
-   *
-   * @param  sequence  a sequence of characters
-   * @param  c  the character to find in the character sequence
-   *
-   * @return  the index of the character within the sequence, or -1
-   */
-  private int indexOf(final CharacterSequence sequence, final char c)
-  {
-    for (int i = 0; i < sequence.length(); i++) {
-      if (sequence.matches(i, c)) {
-        return i;
-      }
-    }
-    return -1;
-  }
-
-
   /**
    * Adds a validation error to a result.
    *
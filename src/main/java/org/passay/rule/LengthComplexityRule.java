@@ -38,6 +38,9 @@ public class LengthComplexityRule implements Rule
   /** Whether to report the details of each complexity rule failure. */
   private boolean reportRuleFailures = true;
 
+  /** Listener notified of each complexity rule evaluated, may be null. */
+  private RuleListener ruleListener;
+
 
   /**
    * Adds the rules to invoke for the supplied interval.
@@ -130,6 +133,28 @@ public class LengthComplexityRule implements Rule
   }
 
 
+  /**
+   * Returns the listener notified of each complexity rule evaluated by this rule.
+   *
+   * @return  rule listener or null
+   */
+  public RuleListener getRuleListener()
+  {
+    return ruleListener;
+  }
+
+
+  /**
+   * Sets the listener notified of each complexity rule evaluated by this rule. See {@link RuleStatistics}.
+   *
+   * @param  listener  rule listener or null for none
+   */
+  public void setRuleListener(final RuleListener listener)
+  {
+    ruleListener = listener;
+  }
+
+
   @Override
   public RuleResult validate(final PasswordData passwordData)
   {
@@ -143,7 +168,7 @@ public class LengthComplexityRule implements Rule
     int successCount = 0;
     final RuleResult result = new RuleResult();
     for (Rule rule : rulesByLength) {
-      final RuleResult rr = rule.validate(passwordData);
+      final RuleResult rr = RuleListener.validate(rule, passwordData, ruleListener);
       if (!rr.isValid()) {
         if (reportRuleFailures) {
           result.getDetails().addAll(rr.getDetails());
@@ -106,6 +106,13 @@ public class LengthRule implements Rule
   }
 
 
+  @Override
+  public int getCost()
+  {
+    return CONSTANT_COST;
+  }
+
+
   @Override
   public RuleResult validate(final PasswordData passwordData)
   {
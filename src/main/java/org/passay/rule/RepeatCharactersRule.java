@@ -4,7 +4,6 @@ package org.passay.rule;
 import org.passay.logic.PasswordData;
 import org.passay.rule.result.RuleResult;
 
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -75,27 +74,8 @@ public class RepeatCharactersRule implements Rule
   public RuleResult validate(final PasswordData passwordData)
   {
     final RuleResult result = new RuleResult();
-    final List<String> matches = new ArrayList<>();
-    final String password = passwordData.getPassword() + '\uffff';
-    final int max = password.length() - 1;
-    int count = 0;
-    int repeat = 1;
-    int prev = -1;
-    for (int i = 0; i <= max; i++) {
-      final int c = password.charAt(i);
-      if (c == prev) {
-        repeat++;
-      } else {
-        if (repeat >= sequenceLength) {
-          final String match = password.substring(i - repeat, i);
-          matches.add(match);
-          count++;
-        }
-        repeat = 1;
-      }
-      prev = c;
-    }
-    if (count >= sequenceCount) {
+    final List<String> matches = passwordData.getAnalysis().getRuns(sequenceLength);
+    if (matches.size() >= sequenceCount) {
       result.addError(ERROR_CODE, createRuleResultDetailParameters(matches));
     }
     return result;
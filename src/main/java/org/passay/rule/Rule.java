@@ -12,6 +12,18 @@ import org.passay.rule.result.RuleResult;
 public interface Rule
 {
 
+  /** Cost of rules that examine a constant number of properties of the password, such as its length. */
+  int CONSTANT_COST = 1;
+
+  /** Cost of rules that examine each character of the password a bounded number of times. */
+  int LINEAR_COST = 10;
+
+  /** Cost of rules that search a dictionary. */
+  int DICTIONARY_COST = 100;
+
+  /** Cost of rules that compute cryptographic digests of the password. */
+  int DIGEST_COST = 1000;
+
 
   /**
    * Validates the supplied password data per the requirements of this rule.
@@ -23,4 +35,16 @@ public interface Rule
    * @throws  NullPointerException  if the rule data is null.
    */
   RuleResult validate(PasswordData passwordData);
+
+
+  /**
+   * Returns the relative cost of validating a password with this rule, used to evaluate cheap rules before expensive
+   * ones. See {@link #CONSTANT_COST}, {@link #LINEAR_COST}, {@link #DICTIONARY_COST} and {@link #DIGEST_COST}.
+   *
+   * @return  relative cost of this rule, {@link #LINEAR_COST} by default
+   */
+  default int getCost()
+  {
+    return LINEAR_COST;
+  }
 }
@@ -0,0 +1,50 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.rule;
+
+import org.passay.logic.PasswordData;
+import org.passay.rule.result.RuleResult;
+
+/**
+ * Receives notification of each rule evaluated by a composite rule such as {@link
+ * org.passay.rule.validator.PasswordValidator}, {@link CharacterCharacteristicsRule} or {@link LengthComplexityRule}.
+ * Listeners are invoked on the thread performing validation and must be safe for use by multiple threads. See {@link
+ * RuleStatistics}.
+ *
+ * @author  Middleware Services
+ */
+public interface RuleListener
+{
+
+
+  /**
+   * Invoked after a rule has validated a password.
+   *
+   * @param  rule  that was evaluated
+   * @param  result  of the rule
+   * @param  nanos  time taken by the rule in nanoseconds
+   */
+  void ruleValidated(Rule rule, RuleResult result, long nanos);
+
+
+  /**
+   * Validates the supplied password data with the supplied rule, notifying the supplied listener of the result and the
+   * time taken. The rule is invoked directly if the listener is null, so composite rules incur no timing cost unless a
+   * listener has been configured.
+   *
+   * @param  rule  to evaluate
+   * @param  passwordData  to validate
+   * @param  listener  to notify or null
+   *
+   * @return  result of the rule
+   */
+  static RuleResult validate(final Rule rule, final PasswordData passwordData, final RuleListener listener)
+  {
+    if (listener == null) {
+      return rule.validate(passwordData);
+    }
+    final long start = System.nanoTime();
+    final RuleResult result = rule.validate(passwordData);
+    listener.ruleValidated(rule, result, System.nanoTime() - start);
+    return result;
+  }
+}
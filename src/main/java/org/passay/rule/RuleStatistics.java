@@ -0,0 +1,262 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.rule;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.passay.rule.result.RuleResult;
+
+/**
+ * Rule listener that records invocation counts, failure rates and latency histograms for each rule it is notified of.
+ * Statistics are kept in striped counters, so recording adds little contention when many threads validate passwords
+ * concurrently. Rules are keyed by their {@link Object#equals(Object)} and {@link Object#hashCode()} methods, which
+ * for the rules provided by this library is identity.
+ *
+ * <p>The statistics may also be used to order the rules of a {@link org.passay.rule.validator.PasswordValidator} with
+ * {@link #getRuleOrder()}, which evaluates the cheapest and most selective rules first. Use {@link
+ * org.passay.rule.validator.PasswordValidator#setAdaptiveRuleOrder(java.util.function.Supplier, int)} to have the order
+ * refreshed as statistics are recorded.</p>
+ *
+ * @author  Middleware Services
+ */
+public class RuleStatistics implements RuleListener
+{
+
+  /** Default number of invocations recorded before a rule's statistics are used for ordering. */
+  public static final int DEFAULT_MINIMUM_SAMPLES = 100;
+
+  /** Number of buckets in a latency histogram. */
+  public static final int HISTOGRAM_BUCKETS = Long.SIZE;
+
+  /** Lower bound of failure rates used for ordering, prevents rules that never fail from having infinite cost. */
+  private static final double MINIMUM_FAILURE_RATE = 0.001;
+
+  /** Statistics for each rule. */
+  private final Map<Rule, Statistics> statistics = new ConcurrentHashMap<>();
+
+  /** Number of invocations recorded before a rule's statistics are used for ordering. */
+  private final int minimumSamples;
+
+
+  /** Creates new rule statistics with {@link #DEFAULT_MINIMUM_SAMPLES}. */
+  public RuleStatistics()
+  {
+    this(DEFAULT_MINIMUM_SAMPLES);
+  }
+
+
+  /**
+   * Creates new rule statistics.
+   *
+   * @param  samples  number of invocations recorded before a rule's statistics are used for ordering
+   */
+  public RuleStatistics(final int samples)
+  {
+    if (samples < 1) {
+      throw new IllegalArgumentException("Minimum samples must be greater than 0");
+    }
+    minimumSamples = samples;
+  }
+
+
+  @Override
+  public void ruleValidated(final Rule rule, final RuleResult result, final long nanos)
+  {
+    statistics.computeIfAbsent(rule, k -> new Statistics()).record(result.isValid(), nanos);
+  }
+
+
+  /**
+   * Returns the statistics recorded for the supplied rule.
+   *
+   * @param  rule  to get statistics for
+   *
+   * @return  statistics or null if the rule has not been recorded
+   */
+  public Statistics getStatistics(final Rule rule)
+  {
+    return statistics.get(rule);
+  }
+
+
+  /**
+   * Returns the statistics recorded for all rules.
+   *
+   * @return  unmodifiable map of rule to statistics
+   */
+  public Map<Rule, Statistics> getStatistics()
+  {
+    return Collections.unmodifiableMap(statistics);
+  }
+
+
+  /** Discards all recorded statistics. */
+  public void reset()
+  {
+    statistics.clear();
+  }
+
+
+  /**
+   * Returns a rule order based on the statistics recorded at the time this method is called. Rules are ordered by their
+   * mean latency divided by their failure rate, which is the expected time spent per rejected password, so cheap rules
+   * that reject many passwords are evaluated first. Rules that have fewer than the minimum number of samples are
+   * evaluated before all others so that their statistics are gathered, ties are broken by {@link Rule#getCost()}.
+   *
+   * <p>The score of each rule is computed once by this method, so the returned order is consistent and comparisons do
+   * not read any counters. Call this method again to obtain an order that reflects newer statistics.</p>
+   *
+   * @return  rule order for the current statistics
+   */
+  public Comparator<Rule> getRuleOrder()
+  {
+    final Map<Rule, Double> scores = new HashMap<>();
+    statistics.forEach((rule, s) -> scores.put(rule, getScore(s)));
+    return Comparator.<Rule>comparingDouble(rule -> scores.getOrDefault(rule, 0d)).thenComparingInt(Rule::getCost);
+  }
+
+
+  /**
+   * Returns the expected time spent per rejected password for a rule.
+   *
+   * @param  s  statistics of the rule
+   *
+   * @return  mean latency divided by failure rate or 0 if there are too few samples
+   */
+  private double getScore(final Statistics s)
+  {
+    if (s.getInvocations() < minimumSamples) {
+      return 0;
+    }
+    return s.getMeanNanos() / Math.max(s.getFailureRate(), MINIMUM_FAILURE_RATE);
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return
+      String.format(
+        "%s@%h::minimumSamples=%s,statistics=%s",
+        getClass().getName(),
+        hashCode(),
+        minimumSamples,
+        statistics);
+  }
+
+
+  /** Statistics for a single rule. */
+  public static class Statistics
+  {
+
+    /** Number of invocations. */
+    private final LongAdder invocations = new LongAdder();
+
+    /** Number of invocations that failed. */
+    private final LongAdder failures = new LongAdder();
+
+    /** Total latency in nanoseconds. */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /** Latency histogram indexed by the number of significant bits in the latency. */
+    private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+
+    /**
+     * Records an invocation.
+     *
+     * @param  valid  whether the rule passed
+     * @param  nanos  latency of the invocation
+     */
+    void record(final boolean valid, final long nanos)
+    {
+      invocations.increment();
+      if (!valid) {
+        failures.increment();
+      }
+      final long latency = Math.max(nanos, 0);
+      totalNanos.add(latency);
+      histogram.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(latency));
+    }
+
+
+    /**
+     * Returns the number of invocations.
+     *
+     * @return  number of invocations
+     */
+    public long getInvocations()
+    {
+      return invocations.sum();
+    }
+
+
+    /**
+     * Returns the number of invocations that failed.
+     *
+     * @return  number of failures
+     */
+    public long getFailures()
+    {
+      return failures.sum();
+    }
+
+
+    /**
+     * Returns the fraction of invocations that failed.
+     *
+     * @return  failure rate between 0 and 1
+     */
+    public double getFailureRate()
+    {
+      final long count = getInvocations();
+      return count > 0 ? (double) getFailures() / count : 0;
+    }
+
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return  mean latency in nanoseconds
+     */
+    public double getMeanNanos()
+    {
+      final long count = getInvocations();
+      return count > 0 ? (double) totalNanos.sum() / count : 0;
+    }
+
+
+    /**
+     * Returns a copy of the latency histogram. Bucket 0 counts latencies of 0 nanoseconds and bucket i &gt; 0 counts
+     * latencies of at least 2^(i-1) and less than 2^i nanoseconds.
+     *
+     * @return  latency histogram of {@link #HISTOGRAM_BUCKETS} buckets
+     */
+    public long[] getHistogram()
+    {
+      final long[] copy = new long[histogram.length()];
+      for (int i = 0; i < copy.length; i++) {
+        copy[i] = histogram.get(i);
+      }
+      return copy;
+    }
+
+
+    @Override
+    public String toString()
+    {
+      return
+        String.format(
+          "%s@%h::invocations=%s,failures=%s,meanNanos=%s",
+          getClass().getSimpleName(),
+          hashCode(),
+          getInvocations(),
+          getFailures(),
+          getMeanNanos());
+    }
+  }
+}
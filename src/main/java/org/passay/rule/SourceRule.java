@@ -56,11 +56,14 @@ public class SourceRule implements Rule
     }
 
     final String cleartext = passwordData.getPassword();
+    // cleartext references are found by hash lookup, other references must each be compared
+    final List<PasswordData.SourceReference> candidates = isCleartextComparison() ?
+      passwordData.getReferenceIndex().getReferences(PasswordData.SourceReference.class, cleartext) : references;
     if (reportAllFailures) {
-      references.stream().filter(reference -> matches(cleartext, reference)).forEach(
+      candidates.stream().filter(reference -> matches(cleartext, reference)).forEach(
         reference -> result.addError(ERROR_CODE, createRuleResultDetailParameters(reference.getLabel())));
     } else {
-      references.stream().filter(reference -> matches(cleartext, reference)).findFirst().ifPresent(
+      candidates.stream().filter(reference -> matches(cleartext, reference)).findFirst().ifPresent(
         reference -> result.addError(ERROR_CODE, createRuleResultDetailParameters(reference.getLabel())));
     }
     return result;
@@ -81,6 +84,21 @@ public class SourceRule implements Rule
   }
 
 
+  /**
+   * Returns whether {@link #matches(String, PasswordData.Reference)} is equality of the cleartext password and the
+   * reference password. If so, matching references are found by a hash lookup in the {@link
+   * org.passay.logic.ReferenceIndex} rather than by comparing every reference. The lookup is opt in: this method
+   * returns false for subclasses, which are compared against every reference unless they override this method to
+   * return true.
+   *
+   * @return  true for this rule, false for subclasses
+   */
+  protected boolean isCleartextComparison()
+  {
+    return getClass() == SourceRule.class;
+  }
+
+
   /**
    * Creates the parameter data for the rule result detail.
    *
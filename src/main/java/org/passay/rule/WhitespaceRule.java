@@ -3,7 +3,8 @@ package org.passay.rule;
 
 import org.passay.logic.MatchBehavior;
 import org.passay.logic.PasswordData;
-import org.passay.util.PasswordUtils;
+import org.passay.data.character.CharacterSet;
+import org.passay.logic.PasswordAnalysis;
 import org.passay.rule.result.RuleResult;
 import org.passay.rule.result.RuleResultMetadata;
 
@@ -35,6 +36,9 @@ public class WhitespaceRule implements Rule
   /** Where to match whitespace. */
   private final MatchBehavior matchBehavior;
 
+  /** Lookup table of the whitespace characters. */
+  private final CharacterSet whitespaceSet;
+
 
   /**
    * Creates a new whitespace rule.
@@ -118,6 +122,7 @@ public class WhitespaceRule implements Rule
       }
     }
     whitespaceCharacters = chars;
+    whitespaceSet = CharacterSet.of(String.valueOf(chars));
     matchBehavior = behavior;
     reportAllFailures = reportAll;
   }
@@ -149,9 +154,9 @@ public class WhitespaceRule implements Rule
   public RuleResult validate(final PasswordData passwordData)
   {
     final RuleResult result = new RuleResult();
-    final String text = passwordData.getPassword();
+    final PasswordAnalysis analysis = passwordData.getAnalysis();
     for (char c : whitespaceCharacters) {
-      if (matchBehavior.match(text, c)) {
+      if (analysis.matches(matchBehavior, c)) {
         result.addError(ERROR_CODE, createRuleResultDetailParameters(c));
         if (!reportAllFailures) {
           break;
@@ -190,7 +195,7 @@ public class WhitespaceRule implements Rule
   {
     return new RuleResultMetadata(
       RuleResultMetadata.CountCategory.Whitespace,
-      PasswordUtils.countMatchingCharacters(String.valueOf(whitespaceCharacters), password.getPassword()));
+      password.getAnalysis().count(whitespaceSet));
   }
 
 
@@ -1,10 +1,25 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.rule.validator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.passay.logic.PasswordData;
 import org.passay.rule.result.RuleResult;
@@ -17,6 +32,8 @@ import org.passay.rule.AllowedRegexRule;
 import org.passay.rule.CharacterRule;
 import org.passay.rule.IllegalRegexRule;
 import org.passay.rule.Rule;
+import org.passay.rule.RuleListener;
+import org.passay.rule.RuleStatistics;
 
 /**
  * The central component for evaluating multiple password rules against a candidate password.
@@ -27,12 +44,39 @@ import org.passay.rule.Rule;
 public class PasswordValidator implements Rule
 {
 
+  /** Default number of passwords read from a stream and validated together by {@link #validateAll(Stream)}. */
+  public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+  /** Orders rules by their declared {@link Rule#getCost() cost}, cheapest first. */
+  public static final Comparator<Rule> COST_ORDER = Comparator.comparingInt(Rule::getCost);
+
+  /** Number of passwords validated by a single task submitted to an executor. */
+  private static final int TASK_SIZE = 64;
+
   /** Password rules. */
   private final List<? extends Rule> passwordRules;
 
   /** Message resolver. */
   private final MessageResolver messageResolver;
 
+  /** Whether validation stops at the first rule that fails. */
+  private boolean failFast;
+
+  /** Order in which rules are evaluated, null for the order they were supplied in. */
+  private Comparator<? super Rule> ruleOrder;
+
+  /** Supplies the rule order each time rules are sorted again, null if the order is fixed. */
+  private Supplier<? extends Comparator<? super Rule>> adaptiveOrder;
+
+  /** Mean number of validations between sorts of an adaptive order. */
+  private int reorderInterval;
+
+  /** Rules sorted by {@link #ruleOrder}, null to evaluate rules in the order they were supplied in. */
+  private volatile List<Rule> evaluationOrder;
+
+  /** Listener notified of each rule evaluated, may be null. */
+  private RuleListener ruleListener;
+
 
   /**
    * See {@link #PasswordValidator(List)}.
@@ -103,6 +147,118 @@ public class PasswordValidator implements Rule
   }
 
 
+  /**
+   * Returns whether validation stops at the first rule that fails.
+   *
+   * @return  whether this validator is fail fast
+   */
+  public boolean isFailFast()
+  {
+    return failFast;
+  }
+
+
+  /**
+   * Sets whether validation stops at the first rule that fails. A fail fast validator returns only the details and
+   * metadata of the rules evaluated up to and including the first failure, which is sufficient to decide whether a
+   * password is acceptable and avoids evaluating expensive rules for passwords that have already been rejected. Combine
+   * with {@link #setRuleOrder(Comparator)} to evaluate cheap rules first.
+   *
+   * @param  b  whether this validator is fail fast
+   */
+  public void setFailFast(final boolean b)
+  {
+    failFast = b;
+  }
+
+
+  /**
+   * Returns the order in which rules are evaluated.
+   *
+   * @return  rule order or null if rules are evaluated in the order they were supplied in
+   */
+  public Comparator<? super Rule> getRuleOrder()
+  {
+    return ruleOrder;
+  }
+
+
+  /**
+   * Sets the order in which rules are evaluated, for example {@link #COST_ORDER}. See {@link
+   * #setAdaptiveRuleOrder(Supplier, int)} for orders that change over time. Rules that compare equal are evaluated in
+   * the order they were supplied in. The order of the details in a rule result follows the evaluation order. Rules are
+   * sorted once by this method, so later changes to the list of rules supplied to the constructor are not reflected in
+   * the evaluation order.
+   *
+   * @param  order  rule order or null to evaluate rules in the order they were supplied in
+   */
+  public void setRuleOrder(final Comparator<? super Rule> order)
+  {
+    adaptiveOrder = null;
+    ruleOrder = order;
+    evaluationOrder = order == null ? null : sortRules(order);
+  }
+
+
+  /**
+   * Sets an order in which rules are evaluated that changes over time, for example {@code stats::getRuleOrder} for
+   * {@link RuleStatistics}. Rules are sorted by an order obtained from the supplier when this method is called, and
+   * sorted again by a new order on average once every interval validations. Validations in between use the published
+   * order, so they pay neither for sorting nor for computing the order. Whether a validation sorts again is decided
+   * with a thread local random number, which avoids a counter shared by all validating threads.
+   *
+   * @param  order  supplies the current rule order
+   * @param  interval  mean number of validations between sorts, must be greater than 0
+   */
+  public void setAdaptiveRuleOrder(final Supplier<? extends Comparator<? super Rule>> order, final int interval)
+  {
+    if (interval < 1) {
+      throw new IllegalArgumentException("Interval must be greater than 0");
+    }
+    reorderInterval = interval;
+    adaptiveOrder = order;
+    reorder(order);
+  }
+
+
+  /**
+   * Returns the listener notified of each rule evaluated by this validator.
+   *
+   * @return  rule listener or null
+   */
+  public RuleListener getRuleListener()
+  {
+    return ruleListener;
+  }
+
+
+  /**
+   * Sets the listener notified of each rule evaluated by this validator. See {@link RuleStatistics}.
+   *
+   * @param  listener  rule listener or null for none
+   */
+  public void setRuleListener(final RuleListener listener)
+  {
+    ruleListener = listener;
+  }
+
+
+  /**
+   * Returns the sum of the costs of the rules in this validator.
+   *
+   * @return  cost of this validator
+   */
+  @Override
+  public int getCost()
+  {
+    long cost = 0;
+    for (Rule rule : passwordRules) {
+      cost += rule.getCost();
+    }
+    return (int) Math.min(cost, Integer.MAX_VALUE);
+  }
+
+
   /**
    * Validates the supplied password data against the rules in this validator.
    *
@@ -114,18 +270,205 @@ public class PasswordValidator implements Rule
   public RuleResult validate(final PasswordData passwordData)
   {
     final RuleResult result = new RuleResult();
-    for (Rule rule : passwordRules) {
-      final RuleResult rr = rule.validate(passwordData);
+    for (Rule rule : getEvaluationOrder()) {
+      final RuleResult rr = RuleListener.validate(rule, passwordData, ruleListener);
+      result.getMetadata().merge(rr.getMetadata());
       if (!rr.isValid()) {
         result.setValid(false);
         result.getDetails().addAll(rr.getDetails());
+        if (failFast) {
+          break;
+        }
       }
-      result.getMetadata().merge(rr.getMetadata());
     }
     return result;
   }
 
 
+  /**
+   * Returns the rules of this validator in the order they should be evaluated.
+   *
+   * @return  rules sorted by {@link #ruleOrder}
+   */
+  protected List<? extends Rule> getEvaluationOrder()
+  {
+    final Supplier<? extends Comparator<? super Rule>> order = adaptiveOrder;
+    if (order != null && ThreadLocalRandom.current().nextInt(reorderInterval) == 0) {
+      reorder(order);
+    }
+    final List<Rule> rules = evaluationOrder;
+    return rules != null ? rules : passwordRules;
+  }
+
+
+  /**
+   * Sorts the rules by an order obtained from the supplied supplier and publishes them as the evaluation order.
+   *
+   * @param  order  supplies the rule order
+   */
+  private void reorder(final Supplier<? extends Comparator<? super Rule>> order)
+  {
+    final Comparator<? super Rule> c = order.get();
+    ruleOrder = c;
+    evaluationOrder = sortRules(c);
+  }
+
+
+  /**
+   * Returns a copy of the rules of this validator sorted by the supplied order. The sort is stable.
+   *
+   * @param  order  rule order
+   *
+   * @return  unmodifiable list of sorted rules
+   */
+  private List<Rule> sortRules(final Comparator<? super Rule> order)
+  {
+    final List<Rule> rules = new ArrayList<>(passwordRules);
+    rules.sort(order);
+    return Collections.unmodifiableList(rules);
+  }
+
+
+  /**
+   * Validates the supplied passwords in parallel using the {@link ForkJoinPool#commonPool() common fork join pool}. See
+   * {@link #validateAll(Collection, Executor)}.
+   *
+   * @param  passwords  to validate
+   *
+   * @return  rule results in the same order as the supplied passwords
+   */
+  public List<RuleResult> validateAll(final Collection<? extends PasswordData> passwords)
+  {
+    return validateAll(passwords, ForkJoinPool.commonPool());
+  }
+
+
+  /**
+   * Validates the supplied passwords in parallel. Passwords are divided into small batches which are validated by tasks
+   * submitted to the supplied executor, the calling thread blocks until all batches have completed. The rules of this
+   * validator must be safe for use by multiple threads, which is the case for all rules provided by this library.
+   *
+   * @param  passwords  to validate
+   * @param  executor  to run validation tasks on
+   *
+   * @return  rule results in the same order as the supplied passwords
+   *
+   * @throws  RuntimeException  if any rule throws an exception, the first exception is rethrown
+   */
+  public List<RuleResult> validateAll(final Collection<? extends PasswordData> passwords, final Executor executor)
+  {
+    return validateChunk(new ArrayList<>(passwords), executor);
+  }
+
+
+  /**
+   * Validates the supplied stream of passwords in parallel using the {@link ForkJoinPool#commonPool() common fork join
+   * pool} and chunks of {@link #DEFAULT_CHUNK_SIZE}. See {@link #validateAll(Stream, Executor, int)}.
+   *
+   * @param  passwords  to validate
+   *
+   * @return  stream of rule results in the same order as the supplied passwords
+   */
+  public Stream<RuleResult> validateAll(final Stream<? extends PasswordData> passwords)
+  {
+    return validateAll(passwords, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+
+  /**
+   * Lazily validates the supplied stream of passwords in parallel. Passwords are consumed in chunks as results are
+   * requested from the returned stream, each chunk is validated as in {@link #validateAll(Collection, Executor)}. At
+   * most one chunk of passwords and results is held in memory at a time, so inputs that do not fit in memory may be
+   * processed. Closing the returned stream closes the supplied stream.
+   *
+   * @param  passwords  to validate
+   * @param  executor  to run validation tasks on
+   * @param  chunkSize  number of passwords to validate together
+   *
+   * @return  stream of rule results in the same order as the supplied passwords
+   *
+   * @throws  IllegalArgumentException  if chunkSize is not positive
+   */
+  public Stream<RuleResult> validateAll(
+    final Stream<? extends PasswordData> passwords, final Executor executor, final int chunkSize)
+  {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be greater than 0");
+    }
+    final Iterator<? extends PasswordData> input = passwords.iterator();
+    final Iterator<RuleResult> results = new Iterator<RuleResult>()
+    {
+      /** Results of the current chunk. */
+      private Iterator<RuleResult> chunk = Collections.emptyIterator();
+
+
+      @Override
+      public boolean hasNext()
+      {
+        while (!chunk.hasNext() && input.hasNext()) {
+          final List<PasswordData> data = new ArrayList<>(chunkSize);
+          while (data.size() < chunkSize && input.hasNext()) {
+            data.add(input.next());
+          }
+          chunk = validateChunk(data, executor).iterator();
+        }
+        return chunk.hasNext();
+      }
+
+
+      @Override
+      public RuleResult next()
+      {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return chunk.next();
+      }
+    };
+    return StreamSupport.stream(
+      Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL),
+      false).onClose(passwords::close);
+  }
+
+
+  /**
+   * Validates the supplied passwords by submitting tasks of {@link #TASK_SIZE} passwords to the supplied executor.
+   *
+   * @param  passwords  to validate
+   * @param  executor  to run validation tasks on
+   *
+   * @return  rule results in the same order as the supplied passwords
+   */
+  private List<RuleResult> validateChunk(final List<? extends PasswordData> passwords, final Executor executor)
+  {
+    final RuleResult[] results = new RuleResult[passwords.size()];
+    final List<CompletableFuture<Void>> tasks = new ArrayList<>(results.length / TASK_SIZE + 1);
+    for (int start = 0; start < results.length; start += TASK_SIZE) {
+      final int from = start;
+      final int to = Math.min(start + TASK_SIZE, results.length);
+      tasks.add(
+        CompletableFuture.runAsync(
+          () -> {
+            for (int i = from; i < to; i++) {
+              results[i] = validate(passwords.get(i));
+            }
+          },
+          executor));
+    }
+    try {
+      CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()])).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+    return Arrays.asList(results);
+  }
+
+
   /**
    * Calculates the entropy of the given {@link PasswordData} based on the specified password rules specified. <em>It's
    * important to note that this method does NOT take into account {@link IllegalRegexRule} or {@link AllowedRegexRule}
@@ -172,10 +515,13 @@ public class PasswordValidator implements Rule
   {
     return
       String.format(
-        "%s@%h::passwordRules=%s,messageResolver=%s",
+        "%s@%h::passwordRules=%s,messageResolver=%s,failFast=%s,ruleOrder=%s,ruleListener=%s",
         getClass().getName(),
         hashCode(),
         passwordRules,
-        messageResolver);
+        messageResolver,
+        failFast,
+        ruleOrder,
+        ruleListener);
   }
 }
@@ -66,7 +66,13 @@ public final class PasswordUtils
    */
   public static int countMatchingCharacters(final String characters, final String input)
   {
-    return (int) input.chars().filter(x -> characters.indexOf(x) != -1).count();
+    int count = 0;
+    for (int i = 0; i < input.length(); i++) {
+      if (characters.indexOf(input.charAt(i)) != -1) {
+        count++;
+      }
+    }
+    return count;
   }
 
 
@@ -0,0 +1,89 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.passay.data.sequence.CyrillicSequenceData;
+import org.passay.data.sequence.CzechSequenceData;
+import org.passay.data.sequence.EnglishSequenceData;
+import org.passay.data.sequence.GermanSequenceData;
+import org.passay.data.sequence.PolishSequenceData;
+import org.passay.data.sequence.SequenceData;
+import org.passay.logic.CharacterSequence;
+import org.passay.logic.CharacterSequenceIndex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CharacterSequenceIndex}.
+ *
+ * @author  Middleware Services
+ */
+public class CharacterSequenceIndexTest
+{
+
+  /** All sequence data. */
+  private static final SequenceData[] ALL_DATA = Stream.of(
+    EnglishSequenceData.values(),
+    CyrillicSequenceData.values(),
+    CzechSequenceData.values(),
+    GermanSequenceData.values(),
+    PolishSequenceData.values()).flatMap(Arrays::stream).toArray(SequenceData[]::new);
+
+
+  /** Tests that indexed positions match a linear search of each sequence. */
+  @Test(groups = "passtest")
+  public void positions()
+  {
+    final CharacterSequenceIndex index = new CharacterSequenceIndex(ALL_DATA);
+    int s = 0;
+    for (SequenceData data : ALL_DATA) {
+      for (CharacterSequence cs : data.getSequences()) {
+        Assert.assertSame(index.getSequenceData(s), data);
+        for (String form : cs.getForms()) {
+          for (char c : (form + '\uffff').toCharArray()) {
+            int expected = -1;
+            for (int i = cs.length() - 1; i >= 0; i--) {
+              if (cs.matches(i, c)) {
+                expected = i;
+              }
+            }
+            Assert.assertEquals(index.getPosition(s, c), expected, data + " " + c);
+          }
+        }
+        s++;
+      }
+    }
+    Assert.assertEquals(index.getSequenceCount(), s);
+  }
+
+
+  /** Tests that searching several sequence data at once finds the matches of each searched separately. */
+  @Test(groups = "passtest")
+  public void find()
+  {
+    final CharacterSequenceIndex index = new CharacterSequenceIndex(ALL_DATA);
+    for (String password : new String[] {"abcdef", "1234qwerty", "zyxwvu0987", "yzabc", "xyz", "абвгд321", ""}) {
+      final List<String> all = new ArrayList<>();
+      index.find(password, 3, true, (sequence, start, end) -> all.add(password.substring(start, end)));
+      final List<String> each = new ArrayList<>();
+      for (SequenceData data : ALL_DATA) {
+        new CharacterSequenceIndex(data).find(
+          password, 3, true, (sequence, start, end) -> each.add(password.substring(start, end)));
+      }
+      Assert.assertEquals(all, each, password);
+    }
+
+    final List<String> matches = new ArrayList<>();
+    final String password = "pass9876xyzab";
+    new CharacterSequenceIndex(EnglishSequenceData.Alphabetical, EnglishSequenceData.Numerical).find(
+      password, 3, true, (sequence, start, end) -> matches.add(password.substring(start, end)));
+    Assert.assertEquals(matches, Arrays.asList("xyzab", "9876"));
+    matches.clear();
+    new CharacterSequenceIndex(EnglishSequenceData.Alphabetical, EnglishSequenceData.Numerical).find(
+      password, 3, false, (sequence, start, end) -> matches.add(password.substring(start, end)));
+    Assert.assertEquals(matches, Arrays.asList("xyz", "9876"));
+  }
+}
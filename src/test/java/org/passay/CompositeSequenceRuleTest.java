@@ -0,0 +1,149 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.passay.data.sequence.CyrillicSequenceData;
+import org.passay.data.sequence.EnglishSequenceData;
+import org.passay.data.sequence.GermanSequenceData;
+import org.passay.data.sequence.SequenceData;
+import org.passay.logic.PasswordData;
+import org.passay.rule.CompositeSequenceRule;
+import org.passay.rule.IllegalRegexRule;
+import org.passay.rule.IllegalSequenceRule;
+import org.passay.rule.RepeatCharacterRegexRule;
+import org.passay.rule.Rule;
+import org.passay.rule.validator.PasswordValidator;
+import org.testng.AssertJUnit;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CompositeSequenceRule}.
+ *
+ * @author  Middleware Services
+ */
+public class CompositeSequenceRuleTest extends AbstractRuleTest
+{
+
+  /** Sequence data used for equivalence tests. */
+  private static final SequenceData[] SEQUENCE_DATA = {
+    EnglishSequenceData.USQwerty,
+    EnglishSequenceData.Alphabetical,
+    EnglishSequenceData.Numerical,
+    GermanSequenceData.Alphabetical,
+    CyrillicSequenceData.Alphabetical,
+  };
+
+  /** Passwords used for equivalence tests. */
+  private static final String[] PASSWORDS = {
+    "p4zRcv8#n65",
+    "p4&&&&&#n65FFFFFQr1&&&&&",
+    "1234567qwertyuiopABCDEF",
+    "zyxwvu9876543abcdeFGHIJ",
+    "asdfgHJKL;'ъыьэюя",
+    "aaaaaaaaaa98765zxcvbnm",
+    "",
+  };
+
+
+  /**
+   * @return  Test data.
+   */
+  @DataProvider(name = "passwords")
+  public Object[][] passwords()
+  {
+    return
+      new Object[][] {
+        {
+          new CompositeSequenceRule(EnglishSequenceData.values()),
+          new PasswordData("p4zRcv8#n65"),
+          null,
+        },
+        {
+          new CompositeSequenceRule(EnglishSequenceData.values()),
+          new PasswordData("p4&&&&&#n65"),
+          codes(IllegalRegexRule.ERROR_CODE),
+        },
+        {
+          new CompositeSequenceRule(EnglishSequenceData.values()),
+          new PasswordData("pqwertyzabcdeF12345"),
+          codes(
+            EnglishSequenceData.Alphabetical.getErrorCode(),
+            EnglishSequenceData.Numerical.getErrorCode(),
+            EnglishSequenceData.USQwerty.getErrorCode(),
+            EnglishSequenceData.USQwerty.getErrorCode()),
+        },
+        {
+          new CompositeSequenceRule(5, false, 0, true, EnglishSequenceData.values()),
+          new PasswordData("p4&&&&&#n65"),
+          null,
+        },
+        {
+          new CompositeSequenceRule(5, false, 5, false, EnglishSequenceData.Alphabetical),
+          new PasswordData("abcdefxyzvutsrqBBBBBCCCCC"),
+          codes(EnglishSequenceData.Alphabetical.getErrorCode(), IllegalRegexRule.ERROR_CODE),
+        },
+      };
+  }
+
+
+  /**
+   * @return  Test data.
+   */
+  @DataProvider(name = "messages")
+  public Object[][] messages()
+  {
+    return
+      new Object[][] {
+        {
+          new CompositeSequenceRule(EnglishSequenceData.values()),
+          new PasswordData("p4&&&&&#n65abcde"),
+          new String[] {
+            String.format("Password contains the illegal alphabetical sequence '%s'.", "abcde"),
+            String.format("Password matches the illegal pattern '%s'.", "&&&&&"), },
+        },
+      };
+  }
+
+
+  /** Tests that the rule reports the same details as the equivalent individual rules. */
+  @Test(groups = "passtest")
+  public void equivalence()
+  {
+    for (boolean reportAll : new boolean[] {true, false}) {
+      for (boolean wrap : new boolean[] {true, false}) {
+        final List<Rule> rules = new ArrayList<>();
+        for (SequenceData data : SEQUENCE_DATA) {
+          rules.add(new IllegalSequenceRule(data, 5, wrap, reportAll));
+        }
+        rules.add(new RepeatCharacterRegexRule(5, reportAll));
+        final PasswordValidator individual = new PasswordValidator(rules);
+        final PasswordValidator composite = new PasswordValidator(
+          new CompositeSequenceRule(5, wrap, 5, reportAll, SEQUENCE_DATA));
+        for (String password : PASSWORDS) {
+          AssertJUnit.assertEquals(
+            password,
+            individual.getMessages(individual.validate(new PasswordData(password))),
+            composite.getMessages(composite.validate(new PasswordData(password))));
+        }
+      }
+    }
+  }
+
+
+  /** Tests constructor argument validation. */
+  @Test(groups = "passtest")
+  public void construct()
+  {
+    for (int[] lengths : Arrays.asList(new int[] {2, 5}, new int[] {5, 2})) {
+      try {
+        new CompositeSequenceRule(lengths[0], false, lengths[1], true, EnglishSequenceData.values());
+        AssertJUnit.fail("Should have thrown IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        AssertJUnit.assertEquals(e.getClass(), IllegalArgumentException.class);
+      }
+    }
+  }
+}
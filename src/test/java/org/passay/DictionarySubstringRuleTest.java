@@ -4,6 +4,7 @@ package org.passay;
 import java.io.FileReader;
 
 import org.passay.logic.PasswordData;
+import org.passay.dictionary.AhoCorasickDictionary;
 import org.passay.dictionary.ArrayWordList;
 import org.passay.dictionary.WordListDictionary;
 import org.passay.dictionary.WordLists;
@@ -33,6 +34,12 @@ public class DictionarySubstringRuleTest extends AbstractRuleTest
   /** For testing. */
   private final DictionarySubstringRule allRule = new DictionarySubstringRule();
 
+  /** For testing. */
+  private final DictionarySubstringRule automatonRule = new DictionarySubstringRule();
+
+  /** For testing. */
+  private final DictionarySubstringRule automatonAllRule = new DictionarySubstringRule();
+
 
   /**
    * Initialize rules for this test.
@@ -66,6 +73,11 @@ public class DictionarySubstringRuleTest extends AbstractRuleTest
 
     allRule.setDictionary(caseInsensitiveDict);
     allRule.setMatchBackwards(true);
+
+    automatonRule.setDictionary(new AhoCorasickDictionary(caseSensitiveWordList));
+
+    automatonAllRule.setDictionary(new AhoCorasickDictionary(caseInsensitiveWordList));
+    automatonAllRule.setMatchBackwards(true);
   }
 
 
@@ -156,6 +168,34 @@ public class DictionarySubstringRuleTest extends AbstractRuleTest
           new PasswordData("p4tyLeCnAl5gew"),
           codes(DictionarySubstringRule.ERROR_CODE_REVERSED),
         },
+
+        // valid password
+        {automatonRule, new PasswordData("p4t3t#7wd5gew"), null, },
+        // dictionary word
+        {
+          automatonRule,
+          new PasswordData("p4tlancely5gew"),
+          codes(DictionarySubstringRule.ERROR_CODE),
+        },
+        // backwards dictionary word
+        {automatonRule, new PasswordData("p4tylecnal5gew"), null, },
+        // mixed case dictionary word
+        {automatonRule, new PasswordData("p4tlAnCeLy5gew"), null, },
+
+        // valid password
+        {automatonAllRule, new PasswordData("p4t3t#7wd5gew"), null, },
+        // mixed case dictionary word
+        {
+          automatonAllRule,
+          new PasswordData("p4tlAnCeLy5gew"),
+          codes(DictionarySubstringRule.ERROR_CODE),
+        },
+        // backwards mixed case dictionary word
+        {
+          automatonAllRule,
+          new PasswordData("p4tyLeCnAl5gew"),
+          codes(DictionarySubstringRule.ERROR_CODE_REVERSED),
+        },
       };
   }
 
@@ -178,6 +218,16 @@ public class DictionarySubstringRuleTest extends AbstractRuleTest
           new PasswordData("p4tylecnal5gew"),
           new String[] {String.format("Password contains the reversed dictionary word '%s'.", "lance"), },
         },
+        {
+          automatonRule,
+          new PasswordData("p4tlancely5gew"),
+          new String[] {String.format("Password contains the dictionary word '%s'.", "lance"), },
+        },
+        {
+          automatonAllRule,
+          new PasswordData("p4tyLeCnAl5gew"),
+          new String[] {String.format("Password contains the reversed dictionary word '%s'.", "lAnCe"), },
+        },
       };
   }
 }
@@ -0,0 +1,205 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cryptacular.bean.EncodingHashBean;
+import org.cryptacular.spec.CodecSpec;
+import org.cryptacular.spec.DigestSpec;
+import org.passay.dictionary.ArrayWordList;
+import org.passay.dictionary.WordListDictionary;
+import org.passay.logic.PasswordData;
+import org.passay.rule.DigestCache;
+import org.passay.rule.DigestDictionaryRule;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link DigestCache}.
+ *
+ * @author  Middleware Services
+ */
+public class DigestCacheTest
+{
+
+
+  /** Tests that digests are computed once and the cache is bounded. */
+  @Test(groups = "passtest")
+  public void get()
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final DigestCache cache = new DigestCache(2, Duration.ofMinutes(1));
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(cache.get(bytes("a"), b -> digest(b, count)), "1");
+      Assert.assertEquals(cache.get(bytes("bb"), b -> digest(b, count)), "2");
+    }
+    Assert.assertEquals(count.get(), 2);
+    Assert.assertEquals(cache.size(), 2);
+
+    cache.get(bytes("ccc"), b -> digest(b, count));
+    Assert.assertEquals(count.get(), 3);
+    Assert.assertEquals(cache.size(), 2);
+    cache.get(bytes("a"), b -> digest(b, count));
+    Assert.assertEquals(count.get(), 4);
+
+    cache.clear();
+    Assert.assertEquals(cache.size(), 0);
+  }
+
+
+  /** Tests that entries expire. */
+  @Test(groups = "passtest")
+  public void expire()
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final AtomicLong time = new AtomicLong();
+    final DigestCache cache = new TestDigestCache(Duration.ofMillis(20), time);
+    cache.get(bytes("a"), b -> digest(b, count));
+    Assert.assertEquals(cache.size(), 1);
+    time.addAndGet(Duration.ofMillis(19).toNanos());
+    Assert.assertEquals(cache.size(), 1);
+    time.addAndGet(Duration.ofMillis(1).toNanos());
+    Assert.assertEquals(cache.size(), 0);
+    cache.get(bytes("a"), b -> digest(b, count));
+    Assert.assertEquals(count.get(), 2);
+  }
+
+
+  /** Tests that expired entries are removed without the cache being read. */
+  @Test(groups = "passtest")
+  public void purge()
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final AtomicLong time = new AtomicLong();
+    final DigestCache cache = new TestDigestCache(Duration.ofMillis(20), time);
+    cache.get(bytes("a"), b -> digest(b, count));
+    cache.get(bytes("bb"), b -> digest(b, count));
+    Assert.assertEquals(cache.purge(), 0);
+    time.addAndGet(Duration.ofMillis(20).toNanos());
+    Assert.assertEquals(cache.purge(), 2);
+    Assert.assertEquals(cache.purge(), 0);
+  }
+
+
+  /** Tests that purges are scheduled once every time to live. */
+  @Test(groups = "passtest")
+  public void schedulePurge()
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final AtomicLong time = new AtomicLong();
+    final DigestCache cache = new TestDigestCache(Duration.ofMillis(20), time);
+    final List<Runnable> commands = new ArrayList<>();
+    final List<Long> schedule = new ArrayList<>();
+    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1)
+    {
+      @Override
+      public ScheduledFuture<?> scheduleAtFixedRate(
+        final Runnable command, final long initialDelay, final long period, final TimeUnit unit)
+      {
+        commands.add(command);
+        schedule.add(unit.toNanos(initialDelay));
+        schedule.add(unit.toNanos(period));
+        return null;
+      }
+    };
+    try {
+      cache.schedulePurge(executor);
+    } finally {
+      executor.shutdown();
+    }
+    Assert.assertEquals(commands.size(), 1);
+    Assert.assertEquals(
+      schedule, Arrays.asList(Duration.ofMillis(20).toNanos(), Duration.ofMillis(20).toNanos()));
+
+    cache.get(bytes("a"), b -> digest(b, count));
+    time.addAndGet(Duration.ofMillis(20).toNanos());
+    commands.get(0).run();
+    Assert.assertEquals(cache.purge(), 0);
+    Assert.assertEquals(cache.size(), 0);
+  }
+
+
+  /** Tests the digest dictionary rule with a cache and in bulk. */
+  @Test(groups = "passtest")
+  public void digestDictionaryRule()
+  {
+    final EncodingHashBean bean = new EncodingHashBean(new CodecSpec("hex"), new DigestSpec("SHA1"), 1, false);
+    final String[] digests = {bean.hash(bytes("password")), bean.hash(bytes("drowssap1"))};
+    Arrays.sort(digests);
+    final DigestDictionaryRule rule = new DigestDictionaryRule(
+      bean, new WordListDictionary(new ArrayWordList(digests, true)));
+    rule.setDigestCache(new DigestCache());
+    Assert.assertFalse(rule.validate(new PasswordData("password")).isValid());
+    Assert.assertFalse(rule.validate(new PasswordData("password")).isValid());
+    Assert.assertTrue(rule.validate(new PasswordData("p4ssw0rd")).isValid());
+    Assert.assertEquals(rule.getDigestCache().size(), 2);
+    Assert.assertEquals(
+      rule.searchAll(Arrays.asList("password", "p4ssw0rd", "drowssap1")), new boolean[] {true, false, true});
+    Assert.assertEquals(rule.getDigestCache().size(), 2);
+  }
+
+
+  /**
+   * Returns the UTF-8 bytes of a string.
+   *
+   * @param  s  string
+   *
+   * @return  bytes
+   */
+  private static byte[] bytes(final String s)
+  {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+
+  /**
+   * Test digest that returns the length of the data and counts invocations.
+   *
+   * @param  data  to digest
+   * @param  count  of invocations
+   *
+   * @return  length of data
+   */
+  private static String digest(final byte[] data, final AtomicInteger count)
+  {
+    count.incrementAndGet();
+    return String.valueOf(data.length);
+  }
+
+
+  /** Digest cache with a controllable time source. */
+  private static class TestDigestCache extends DigestCache
+  {
+
+    /** Current time in nanoseconds. */
+    private final AtomicLong time;
+
+
+    /**
+     * Creates a new test digest cache.
+     *
+     * @param  ttl  time to live of entries
+     * @param  t  current time in nanoseconds
+     */
+    TestDigestCache(final Duration ttl, final AtomicLong t)
+    {
+      super(2, ttl);
+      time = t;
+    }
+
+
+    @Override
+    protected long nanoTime()
+    {
+      return time.get();
+    }
+  }
+}
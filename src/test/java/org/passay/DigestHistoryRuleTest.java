@@ -3,8 +3,14 @@ package org.passay;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.cryptacular.bean.BCryptHashBean;
 import org.cryptacular.bean.EncodingHashBean;
+import org.cryptacular.bean.HashBean;
 import org.cryptacular.spec.CodecSpec;
 import org.cryptacular.spec.DigestSpec;
 import org.passay.logic.PasswordData;
@@ -12,8 +18,10 @@ import org.passay.logic.PasswordData.HistoricalReference;
 import org.passay.logic.PasswordData.Reference;
 import org.passay.rule.DigestHistoryRule;
 import org.passay.rule.HistoryRule;
+import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
 
 /**
  * Unit test for {@link DigestHistoryRule}.
@@ -38,6 +46,9 @@ public class DigestHistoryRuleTest extends AbstractRuleTest
   /** For testing. */
   private final List<Reference> bcryptDigestRefs = new ArrayList<>();
 
+  /** For testing. */
+  private final List<Reference> repeatedBcryptDigestRefs = new ArrayList<>();
+
   /** For testing. */
   private final DigestHistoryRule digestRule = new DigestHistoryRule(
     new EncodingHashBean(new CodecSpec("Base64"), new DigestSpec("SHA1"), 1, false));
@@ -53,6 +64,13 @@ public class DigestHistoryRuleTest extends AbstractRuleTest
   /** For testing. */
   private final DigestHistoryRule bcryptDigestRule = new DigestHistoryRule(new BCryptHashBean());
 
+  /** For testing. */
+  private final DigestHistoryRule parallelDigestRule = new DigestHistoryRule(
+    new EncodingHashBean(new CodecSpec("Base64"), new DigestSpec("SHA1"), 1, false));
+
+  /** For testing. */
+  private final DigestHistoryRule parallelBcryptDigestRule = new DigestHistoryRule(new BCryptHashBean());
+
 
   /** Initialize rules for this test. */
   @BeforeClass(groups = "passtest")
@@ -80,6 +98,12 @@ public class DigestHistoryRuleTest extends AbstractRuleTest
       new HistoricalReference(
         "bcrypt-history",
         "$2a$5$bvIG6Nmid91Mu9RcmmWZfO5HJIMCT8riNW0hEp8f6/FuA2/mHZFpe"));
+    repeatedBcryptDigestRefs.addAll(bcryptDigestRefs);
+    repeatedBcryptDigestRefs.addAll(bcryptDigestRefs);
+
+    parallelDigestRule.setExecutor(ForkJoinPool.commonPool());
+    parallelDigestRule.setDeterministic(true);
+    parallelBcryptDigestRule.setExecutor(ForkJoinPool.commonPool());
   }
 
 
@@ -187,6 +211,37 @@ public class DigestHistoryRuleTest extends AbstractRuleTest
           new PasswordData("testuser", "password", bcryptDigestRefs),
           codes(HistoryRule.ERROR_CODE),
         },
+
+        {
+          parallelDigestRule,
+          new PasswordData("testuser", "t3stUs3r00", digestRefs),
+          null,
+        },
+        {
+          parallelDigestRule,
+          new PasswordData("testuser", "t3stUs3r01", digestRefs),
+          codes(HistoryRule.ERROR_CODE),
+        },
+        {
+          parallelDigestRule,
+          new PasswordData("testuser", "t3stUs3r02", prefixSaltedDigestRefs),
+          codes(HistoryRule.ERROR_CODE),
+        },
+        {
+          parallelDigestRule,
+          new PasswordData("testuser", "t3stUs3r03", suffixSaltedDigestRefs),
+          codes(HistoryRule.ERROR_CODE),
+        },
+        {
+          parallelBcryptDigestRule,
+          new PasswordData("testuser", "password", repeatedBcryptDigestRefs),
+          codes(HistoryRule.ERROR_CODE, HistoryRule.ERROR_CODE),
+        },
+        {
+          new DigestHistoryRule(new BCryptHashBean(), false),
+          new PasswordData("testuser", "password", repeatedBcryptDigestRefs),
+          codes(HistoryRule.ERROR_CODE),
+        },
       };
   }
 
@@ -206,4 +261,56 @@ public class DigestHistoryRuleTest extends AbstractRuleTest
         },
       };
   }
+
+
+  /**
+   * Test that a failed parallel comparison is thrown and comparisons that have not started are skipped.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "passtest")
+  public void parallelException()
+    throws Exception
+  {
+    final AtomicInteger comparisons = new AtomicInteger();
+    final DigestHistoryRule rule = new DigestHistoryRule(
+      new HashBean<String>()
+      {
+        @Override
+        public String hash(final Object... data)
+        {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean compare(final String hash, final Object... data)
+        {
+          if (comparisons.getAndIncrement() == 0) {
+            throw new IllegalStateException("failed");
+          }
+          try {
+            Thread.sleep(10);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return false;
+        }
+      });
+    final List<Reference> refs = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      refs.add(new HistoricalReference("history", "hash" + i));
+    }
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      rule.setExecutor(executor);
+      rule.validate(new PasswordData("testuser", "password", refs));
+      AssertJUnit.fail("Should have thrown IllegalStateException");
+    } catch (Exception e) {
+      AssertJUnit.assertEquals(IllegalStateException.class, e.getClass());
+    } finally {
+      executor.shutdown();
+    }
+    AssertJUnit.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    AssertJUnit.assertTrue(comparisons.get() < refs.size());
+  }
 }
@@ -0,0 +1,93 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.passay.data.character.CharacterSet;
+import org.passay.logic.MatchBehavior;
+import org.passay.logic.PasswordAnalysis;
+import org.passay.logic.PasswordData;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link PasswordAnalysis}.
+ *
+ * @author  Middleware Services
+ */
+public class PasswordAnalysisTest
+{
+
+
+  /** Tests the character histogram. */
+  @Test(groups = "passtest")
+  public void histogram()
+  {
+    final PasswordAnalysis analysis = new PasswordAnalysis("baNaNa1");
+    Assert.assertEquals(analysis.getDistinctCharacters(), new char[] {'b', 'a', 'N', '1'});
+    Assert.assertEquals(analysis.getSortedCharacters(), new char[] {'1', 'N', 'a', 'b'});
+    Assert.assertEquals(analysis.getOccurrences('a'), 3);
+    Assert.assertEquals(analysis.getOccurrences('N'), 2);
+    Assert.assertEquals(analysis.getOccurrences('z'), 0);
+    Assert.assertEquals(analysis.getDistinctCount(), 4);
+    Assert.assertEquals(analysis.getDistinctCharacter(2), 'N');
+    Assert.assertEquals(analysis.getSortedCharacter(2), 'a');
+    Assert.assertEquals(analysis.getSortedOccurrences(2), 3);
+    Assert.assertTrue(analysis.contains('1'));
+    Assert.assertFalse(analysis.contains('n'));
+    Assert.assertEquals(analysis.count(CharacterSet.of("aN")), 5);
+    Assert.assertEquals(analysis.count(CharacterSet.of("xyz")), 0);
+  }
+
+
+  /** Tests character matching for each match behavior. */
+  @Test(groups = "passtest")
+  public void matches()
+  {
+    final String password = "a b c";
+    final PasswordAnalysis analysis = new PasswordAnalysis(password);
+    for (MatchBehavior behavior : MatchBehavior.values()) {
+      for (char c : "abc xyz".toCharArray()) {
+        Assert.assertEquals(analysis.matches(behavior, c), behavior.match(password, c), behavior + " " + c);
+      }
+    }
+    Assert.assertFalse(new PasswordAnalysis("").matches(MatchBehavior.StartsWith, 'a'));
+  }
+
+
+  /** Tests runs of repeated characters. */
+  @Test(groups = "passtest")
+  public void runs()
+  {
+    final PasswordAnalysis analysis = new PasswordAnalysis("aaabccddddc");
+    Assert.assertEquals(analysis.getRuns(3), Arrays.asList("aaa", "dddd"));
+    Assert.assertEquals(analysis.getRuns(2), Arrays.asList("aaa", "cc", "dddd"));
+    Assert.assertEquals(analysis.getRuns(5), Collections.emptyList());
+    Assert.assertEquals(analysis.getLongestRun(), 4);
+    Assert.assertEquals(new PasswordAnalysis("").getLongestRun(), 0);
+    Assert.assertEquals(new PasswordAnalysis("").getRuns(1), Collections.emptyList());
+  }
+
+
+  /** Tests code point counting. */
+  @Test(groups = "passtest")
+  public void codePoints()
+  {
+    final String password = "a😀b😀";
+    Assert.assertEquals(new PasswordAnalysis(password).getCodePointCount(), password.codePointCount(0, 6));
+  }
+
+
+  /** Tests that the analysis is cached on password data until the password changes. */
+  @Test(groups = "passtest")
+  public void cached()
+  {
+    final PasswordData data = new PasswordData("user", "password");
+    final PasswordAnalysis analysis = data.getAnalysis();
+    Assert.assertSame(data.getAnalysis(), analysis);
+    Assert.assertSame(PasswordData.newPasswordData(data).getAnalysis(), analysis);
+    data.setPassword("other");
+    Assert.assertNotSame(data.getAnalysis(), analysis);
+    Assert.assertEquals(data.getAnalysis().getPassword(), "other");
+  }
+}
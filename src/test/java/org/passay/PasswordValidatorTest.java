@@ -3,7 +3,12 @@ package org.passay;
 
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.cryptacular.bean.EncodingHashBean;
 import org.cryptacular.spec.CodecSpec;
 import org.cryptacular.spec.DigestSpec;
@@ -27,13 +32,16 @@ import org.passay.rule.DigestHistoryRule;
 import org.passay.rule.DigestSourceRule;
 import org.passay.rule.HistoryRule;
 import org.passay.rule.IllegalSequenceRule;
+import org.passay.rule.LengthComplexityRule;
 import org.passay.rule.LengthRule;
 import org.passay.rule.RepeatCharacterRegexRule;
 import org.passay.rule.Rule;
+import org.passay.rule.RuleStatistics;
 import org.passay.rule.SourceRule;
 import org.passay.rule.UsernameRule;
 import org.passay.rule.WhitespaceRule;
 import org.passay.rule.result.RuleResult;
+import org.passay.rule.result.RuleResultDetail;
 import org.passay.rule.validator.PasswordValidator;
 import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeClass;
@@ -305,6 +313,190 @@ public class PasswordValidatorTest extends AbstractRuleTest
   }
 
 
+  /**
+   * Test fail fast validation and rule ordering.
+   */
+  @Test(groups = "passtest")
+  public void validateFailFast()
+  {
+    final AtomicInteger invocations = new AtomicInteger();
+    final Rule expensiveRule = new Rule()
+    {
+      @Override
+      public RuleResult validate(final PasswordData passwordData)
+      {
+        invocations.incrementAndGet();
+        return new RuleResult(false, new RuleResultDetail("EXPENSIVE", null));
+      }
+
+      @Override
+      public int getCost()
+      {
+        return DIGEST_COST;
+      }
+    };
+    final PasswordValidator pv = new PasswordValidator(
+      expensiveRule,
+      new IllegalSequenceRule(EnglishSequenceData.Alphabetical),
+      new LengthRule(8, 16));
+    AssertJUnit.assertFalse(pv.isFailFast());
+    AssertJUnit.assertEquals(Rule.DIGEST_COST + Rule.LINEAR_COST + Rule.CONSTANT_COST, pv.getCost());
+
+    RuleResult result = pv.validate(new PasswordData("abcdefg"));
+    AssertJUnit.assertEquals(1, invocations.get());
+    AssertJUnit.assertEquals(3, result.getDetails().size());
+    AssertJUnit.assertEquals("EXPENSIVE", result.getDetails().get(0).getErrorCode());
+
+    pv.setFailFast(true);
+    result = pv.validate(new PasswordData("abcdefg"));
+    AssertJUnit.assertEquals(2, invocations.get());
+    AssertJUnit.assertFalse(result.isValid());
+    AssertJUnit.assertEquals(1, result.getDetails().size());
+    AssertJUnit.assertEquals("EXPENSIVE", result.getDetails().get(0).getErrorCode());
+
+    pv.setRuleOrder(PasswordValidator.COST_ORDER);
+    result = pv.validate(new PasswordData("abcdefg"));
+    AssertJUnit.assertEquals(2, invocations.get());
+    AssertJUnit.assertFalse(result.isValid());
+    AssertJUnit.assertEquals(1, result.getDetails().size());
+    AssertJUnit.assertEquals(LengthRule.ERROR_CODE_MIN, result.getDetails().get(0).getErrorCode());
+
+    pv.setFailFast(false);
+    result = pv.validate(new PasswordData("abcdefg"));
+    AssertJUnit.assertEquals(3, invocations.get());
+    AssertJUnit.assertEquals(3, result.getDetails().size());
+    AssertJUnit.assertEquals(LengthRule.ERROR_CODE_MIN, result.getDetails().get(0).getErrorCode());
+    AssertJUnit.assertEquals("EXPENSIVE", result.getDetails().get(2).getErrorCode());
+
+    final AtomicInteger comparisons = new AtomicInteger();
+    pv.setRuleOrder((a, b) -> {
+      comparisons.incrementAndGet();
+      return PasswordValidator.COST_ORDER.compare(a, b);
+    });
+    final int sorted = comparisons.get();
+    AssertJUnit.assertTrue(sorted > 0);
+    pv.validate(new PasswordData("abcdefg"));
+    pv.validate(new PasswordData("abcdefg"));
+    AssertJUnit.assertEquals(sorted, comparisons.get());
+  }
+
+
+  /**
+   * Test rule statistics and adaptive rule ordering.
+   */
+  @Test(groups = "passtest")
+  public void validateWithStatistics()
+  {
+    final RuleStatistics stats = new RuleStatistics(10);
+    final IllegalSequenceRule seqRule = new IllegalSequenceRule(EnglishSequenceData.Alphabetical);
+    final CharacterRule digitRule = new CharacterRule(EnglishCharacterData.Digit, 1);
+    final CharacterCharacteristicsRule charRule = new CharacterCharacteristicsRule(1, digitRule);
+    charRule.setRuleListener(stats);
+    final LengthRule lengthRule = new LengthRule(12, 16);
+    final LengthComplexityRule complexityRule = new LengthComplexityRule();
+    complexityRule.addRules("[0,64]", seqRule);
+    complexityRule.setRuleListener(stats);
+    final PasswordValidator pv = new PasswordValidator(complexityRule, charRule, lengthRule);
+    pv.setRuleListener(stats);
+    AssertJUnit.assertSame(stats, pv.getRuleListener());
+
+    for (int i = 0; i < 20; i++) {
+      pv.validate(new PasswordData(i % 2 == 0 ? VALID_PASS : INVALID_PASS));
+    }
+    AssertJUnit.assertEquals(20, stats.getStatistics(lengthRule).getInvocations());
+    AssertJUnit.assertEquals(20, stats.getStatistics(lengthRule).getFailures());
+    AssertJUnit.assertEquals(1.0, stats.getStatistics(lengthRule).getFailureRate());
+    AssertJUnit.assertEquals(20, stats.getStatistics(digitRule).getInvocations());
+    AssertJUnit.assertEquals(10, stats.getStatistics(digitRule).getFailures());
+    AssertJUnit.assertEquals(0.5, stats.getStatistics(charRule).getFailureRate());
+    AssertJUnit.assertEquals(20, stats.getStatistics(seqRule).getInvocations());
+    AssertJUnit.assertEquals(10, stats.getStatistics(seqRule).getFailures());
+    AssertJUnit.assertEquals(
+      20, Arrays.stream(stats.getStatistics(seqRule).getHistogram()).sum());
+    AssertJUnit.assertEquals(5, stats.getStatistics().size());
+
+    pv.setRuleOrder(stats.getRuleOrder());
+    pv.setFailFast(true);
+    final RuleResult result = pv.validate(new PasswordData(VALID_PASS));
+    AssertJUnit.assertEquals(1, result.getDetails().size());
+    AssertJUnit.assertEquals(LengthRule.ERROR_CODE_MIN, result.getDetails().get(0).getErrorCode());
+    AssertJUnit.assertEquals(21, stats.getStatistics(lengthRule).getInvocations());
+    AssertJUnit.assertEquals(20, stats.getStatistics(charRule).getInvocations());
+
+    final AtomicInteger orders = new AtomicInteger();
+    pv.setAdaptiveRuleOrder(
+      () -> {
+        orders.incrementAndGet();
+        return stats.getRuleOrder();
+      },
+      1);
+    AssertJUnit.assertEquals(1, orders.get());
+    pv.validate(new PasswordData(VALID_PASS));
+    AssertJUnit.assertEquals(2, orders.get());
+    pv.setAdaptiveRuleOrder(
+      () -> {
+        orders.incrementAndGet();
+        return stats.getRuleOrder();
+      },
+      Integer.MAX_VALUE);
+    AssertJUnit.assertEquals(3, orders.get());
+    for (int i = 0; i < 10; i++) {
+      AssertJUnit.assertEquals(
+        LengthRule.ERROR_CODE_MIN, pv.validate(new PasswordData(VALID_PASS)).getDetails().get(0).getErrorCode());
+    }
+    AssertJUnit.assertEquals(3, orders.get());
+
+    stats.reset();
+    AssertJUnit.assertNull(stats.getStatistics(lengthRule));
+  }
+
+
+  /**
+   * Test batch validation.
+   */
+  @Test(groups = "passtest")
+  public void validateAll()
+  {
+    final List<PasswordData> passwords = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      passwords.add(new PasswordData(USER, i % 3 == 0 ? INVALID_PASS + i : VALID_PASS + i, references));
+    }
+    final List<RuleResult> expected = new ArrayList<>();
+    for (PasswordData pd : passwords) {
+      expected.add(validator.validate(pd));
+    }
+
+    assertResultsEqual(expected, validator.validateAll(passwords));
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      assertResultsEqual(expected, validator.validateAll(passwords, executor));
+      assertResultsEqual(
+        expected,
+        validator.validateAll(passwords.stream(), executor, 7).collect(Collectors.toList()));
+    } finally {
+      executor.shutdown();
+    }
+    assertResultsEqual(expected, validator.validateAll(passwords.stream()).collect(Collectors.toList()));
+    AssertJUnit.assertTrue(validator.validateAll(new ArrayList<>()).isEmpty());
+  }
+
+
+  /**
+   * Asserts that two lists of rule results have the same validity and messages.
+   *
+   * @param  expected  rule results
+   * @param  actual  rule results
+   */
+  private void assertResultsEqual(final List<RuleResult> expected, final List<RuleResult> actual)
+  {
+    AssertJUnit.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      AssertJUnit.assertEquals(expected.get(i).isValid(), actual.get(i).isValid());
+      AssertJUnit.assertEquals(validator.getMessages(expected.get(i)), validator.getMessages(actual.get(i)));
+    }
+  }
+
+
   /**
    * @return  Test data.
    */
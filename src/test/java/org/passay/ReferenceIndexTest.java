@@ -0,0 +1,149 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import org.passay.logic.PasswordData;
+import org.passay.logic.ReferenceIndex;
+import org.passay.rule.HistoryRule;
+import org.passay.rule.SourceRule;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ReferenceIndex}.
+ *
+ * @author  Middleware Services
+ */
+public class ReferenceIndexTest
+{
+
+  /** Historical reference. */
+  private static final PasswordData.HistoricalReference HISTORY1 = new PasswordData.HistoricalReference("t3stUs3r01");
+
+  /** Historical reference. */
+  private static final PasswordData.HistoricalReference HISTORY2 = new PasswordData.HistoricalReference("t3stUs3r02");
+
+  /** Historical reference. */
+  private static final PasswordData.HistoricalReference HISTORY3 = new PasswordData.HistoricalReference("t3stUs3r01");
+
+  /** Source reference. */
+  private static final PasswordData.SourceReference SOURCE = new PasswordData.SourceReference("System B", "t3stUs3r01");
+
+
+  /** Tests references by type and by password. */
+  @Test(groups = "passtest")
+  public void references()
+  {
+    final ReferenceIndex index = new ReferenceIndex(Arrays.asList(HISTORY1, SOURCE, HISTORY2, HISTORY3));
+    Assert.assertEquals(index.size(), 4);
+    Assert.assertEquals(
+      index.getReferences(PasswordData.HistoricalReference.class), Arrays.asList(HISTORY1, HISTORY2, HISTORY3));
+    Assert.assertEquals(index.getReferences(PasswordData.SourceReference.class), Collections.singletonList(SOURCE));
+    Assert.assertEquals(index.getReferences(PasswordData.Reference.class).size(), 4);
+    Assert.assertEquals(
+      index.getReferences(PasswordData.HistoricalReference.class, "t3stUs3r01"), Arrays.asList(HISTORY1, HISTORY3));
+    Assert.assertEquals(
+      index.getReferences(PasswordData.SourceReference.class, "t3stUs3r02"), Collections.emptyList());
+    Assert.assertEquals(new ReferenceIndex(null).getReferences(PasswordData.Reference.class), Collections.emptyList());
+  }
+
+
+  /** Tests that password data rebuilds its index when references change. */
+  @Test(groups = "passtest")
+  public void passwordData()
+  {
+    final PasswordData data = new PasswordData("user", "t3stUs3r01");
+    final List<PasswordData.Reference> references = new ArrayList<>(Arrays.asList(HISTORY1, SOURCE));
+    data.setPasswordReferences(references);
+    Assert.assertSame(data.getReferenceIndex(), data.getReferenceIndex());
+    Assert.assertEquals(data.getPasswordReferences(PasswordData.HistoricalReference.class).size(), 1);
+    references.add(HISTORY3);
+    Assert.assertEquals(data.getPasswordReferences(PasswordData.HistoricalReference.class).size(), 1);
+    data.getPasswordReferences().add(HISTORY3);
+    Assert.assertEquals(data.getPasswordReferences(PasswordData.HistoricalReference.class).size(), 2);
+    Assert.assertEquals(new HistoryRule().validate(data).getDetails().size(), 2);
+    Assert.assertEquals(new HistoryRule(false).validate(data).getDetails().size(), 1);
+    Assert.assertEquals(new SourceRule().validate(data).getDetails().size(), 1);
+    data.setPasswordReferences(HISTORY2);
+    Assert.assertTrue(new HistoryRule().validate(data).isValid());
+    Assert.assertTrue(new SourceRule().validate(data).isValid());
+  }
+
+
+  /** Tests that modifying the references in place without changing their number updates the index. */
+  @Test(groups = "passtest")
+  public void modifyInPlace()
+  {
+    final PasswordData data = new PasswordData("user", "t3stUs3r01");
+    data.setPasswordReferences(HISTORY2, SOURCE);
+    Assert.assertTrue(new HistoryRule().validate(data).isValid());
+
+    data.getPasswordReferences().set(0, HISTORY1);
+    Assert.assertFalse(new HistoryRule().validate(data).isValid());
+
+    data.getPasswordReferences().clear();
+    data.getPasswordReferences().addAll(Arrays.asList(HISTORY2, HISTORY3));
+    Assert.assertEquals(new HistoryRule().validate(data).getDetails().size(), 1);
+    Assert.assertTrue(new SourceRule().validate(data).isValid());
+
+    data.getPasswordReferences().replaceAll(r -> SOURCE);
+    Assert.assertTrue(new HistoryRule().validate(data).isValid());
+    Assert.assertFalse(new SourceRule().validate(data).isValid());
+  }
+
+
+  /** Tests that iterators over the references fail fast and that null references clear the list. */
+  @Test(groups = "passtest")
+  public void failFast()
+  {
+    final PasswordData data = new PasswordData("user", "t3stUs3r01");
+    data.setPasswordReferences(HISTORY1, HISTORY2);
+    final Iterator<PasswordData.Reference> i = data.getPasswordReferences().iterator();
+    i.next();
+    data.getPasswordReferences().add(SOURCE);
+    try {
+      i.next();
+      Assert.fail("Should have thrown ConcurrentModificationException");
+    } catch (ConcurrentModificationException e) {
+      Assert.assertEquals(data.getPasswordReferences().size(), 3);
+    }
+
+    data.setPasswordReferences((List<PasswordData.Reference>) null);
+    Assert.assertTrue(data.getPasswordReferences().isEmpty());
+    Assert.assertTrue(new HistoryRule().validate(data).isValid());
+  }
+
+
+  /** Tests that subclasses that override only matching are compared against every reference. */
+  @Test(groups = "passtest")
+  public void overriddenMatches()
+  {
+    final PasswordData data = new PasswordData("user", "T3STUS3R02");
+    data.setPasswordReferences(HISTORY1, HISTORY2, new PasswordData.SourceReference("System B", "t3stUs3r02"));
+    final HistoryRule historyRule = new HistoryRule()
+    {
+      @Override
+      protected boolean matches(final String password, final PasswordData.Reference reference)
+      {
+        return password.equalsIgnoreCase(reference.getPassword());
+      }
+    };
+    final SourceRule sourceRule = new SourceRule()
+    {
+      @Override
+      protected boolean matches(final String password, final PasswordData.Reference reference)
+      {
+        return password.equalsIgnoreCase(reference.getPassword());
+      }
+    };
+    Assert.assertEquals(historyRule.validate(data).getDetails().size(), 1);
+    Assert.assertEquals(sourceRule.validate(data).getDetails().size(), 1);
+    Assert.assertTrue(new HistoryRule().validate(data).isValid());
+    Assert.assertTrue(new SourceRule().validate(data).isValid());
+  }
+}
@@ -0,0 +1,59 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.data.character;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CharacterSet}.
+ *
+ * @author  Middleware Services
+ */
+public class CharacterSetTest
+{
+
+
+  /**
+   * Test membership for all character data.
+   */
+  @Test(groups = "passtest")
+  public void contains()
+  {
+    final CharacterData[][] data = {
+      EnglishCharacterData.values(),
+      CyrillicCharacterData.values(),
+      ArchaicCyrillicCharacterData.values(),
+      CzechCharacterData.values(),
+      GermanCharacterData.values(),
+      PolishCharacterData.values(),
+    };
+    for (CharacterData[] values : data) {
+      for (CharacterData cd : values) {
+        final CharacterSet set = cd.getCharacterSet();
+        AssertJUnit.assertSame(set, cd.getCharacterSet());
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+          AssertJUnit.assertEquals(cd.getCharacters().indexOf(c) != -1, set.contains(c));
+        }
+        AssertJUnit.assertEquals(cd.getCharacters().chars().distinct().count(), set.size());
+      }
+    }
+  }
+
+
+  /**
+   * Test counting and matching characters.
+   */
+  @Test(groups = "passtest")
+  public void match()
+  {
+    final CharacterSet set = CharacterSet.of("a1€");
+    AssertJUnit.assertEquals(0, set.count(""));
+    AssertJUnit.assertEquals(5, set.count("aXa11€z"));
+    AssertJUnit.assertEquals("aa11€", set.getMatchingCharacters("aXa11€z", Integer.MAX_VALUE));
+    AssertJUnit.assertEquals("aa", set.getMatchingCharacters("aXa11€z", 2));
+    AssertJUnit.assertFalse(set.contains('₭'));
+    AssertJUnit.assertFalse(set.contains('￿'));
+    AssertJUnit.assertEquals(0, CharacterSet.of("").size());
+    AssertJUnit.assertFalse(CharacterSet.of("").contains('a'));
+  }
+}
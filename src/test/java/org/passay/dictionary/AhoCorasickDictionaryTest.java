@@ -0,0 +1,150 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.FileReader;
+import org.passay.dictionary.sort.ArraysSort;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link AhoCorasickDictionary}.
+ *
+ * @author  Middleware Services
+ */
+public class AhoCorasickDictionaryTest extends AbstractDictionaryTest
+{
+
+  /** Test dictionary. */
+  private AhoCorasickDictionary caseSensitive;
+
+  /** Test dictionary. */
+  private AhoCorasickDictionary caseInsensitive;
+
+
+  /** @throws  Exception  On test failure. */
+  @BeforeClass(groups = "acdicttest")
+  public void createDictionary() throws Exception
+  {
+    final ArrayWordList awl1 = WordLists.createFromReader(
+      new FileReader[] {new FileReader(fbsdFile)},
+      true,
+      new ArraysSort());
+    caseSensitive = new AhoCorasickDictionary(awl1);
+
+    final ArrayWordList awl2 = WordLists.createFromReader(
+      new FileReader[] {new FileReader(fbsdFile)},
+      false,
+      new ArraysSort());
+    caseInsensitive = new AhoCorasickDictionary(awl2);
+  }
+
+
+  /**
+   * Close test resources.
+   */
+  @AfterClass(groups = "acdicttest")
+  public void closeDictionary()
+  {
+    caseSensitive = null;
+    caseInsensitive = null;
+  }
+
+
+  /**
+   * Test search.
+   */
+  @Test(groups = "acdicttest")
+  public void search()
+  {
+    AssertJUnit.assertTrue(caseSensitive.search("TrustedBSD"));
+    AssertJUnit.assertFalse(caseSensitive.search("trustedbsd"));
+    AssertJUnit.assertFalse(caseSensitive.search("Trusted"));
+    AssertJUnit.assertFalse(caseSensitive.search(FALSE_SEARCH));
+    AssertJUnit.assertFalse(caseSensitive.search(""));
+    AssertJUnit.assertTrue(caseInsensitive.search("TrustedBSD"));
+    AssertJUnit.assertTrue(caseInsensitive.search("trustedbsd"));
+    AssertJUnit.assertFalse(caseInsensitive.search(FALSE_SEARCH));
+  }
+
+
+  /**
+   * @param  word  to search for.
+   */
+  @Test(groups = "acdicttest", dataProvider = "all-fbsd-words")
+  public void searchAll(final String word)
+  {
+    AssertJUnit.assertTrue(caseSensitive.search(word));
+    AssertJUnit.assertTrue(caseInsensitive.search(word));
+    AssertJUnit.assertTrue(caseInsensitive.search(word.toLowerCase()));
+    AssertJUnit.assertTrue(caseInsensitive.search(word.toUpperCase()));
+  }
+
+
+  /**
+   * Test size.
+   */
+  @Test(groups = "acdicttest")
+  public void size()
+  {
+    final AhoCorasickDictionary dict = new AhoCorasickDictionary(
+      new ArrayWordList(new String[] {"a", "ab", "ab", "abc", "b"}));
+    AssertJUnit.assertEquals(4, dict.size());
+  }
+
+
+  /**
+   * Test find shortest word.
+   */
+  @Test(groups = "acdicttest")
+  public void findShortestWord()
+  {
+    final AhoCorasickDictionary dict = new AhoCorasickDictionary(
+      new ArrayWordList(new String[] {"abcd", "bc", "bcde", "cdef", "de", "he", "hers", "his", "she"}));
+    AssertJUnit.assertNull(dict.findShortestWord(""));
+    AssertJUnit.assertNull(dict.findShortestWord("xyz"));
+    AssertJUnit.assertEquals("bc", dict.findShortestWord("abcdef"));
+    AssertJUnit.assertEquals("he", dict.findShortestWord("ushers"));
+    AssertJUnit.assertEquals("de", dict.findShortestWord("xcdefx"));
+    AssertJUnit.assertEquals("he", dict.findShortestWord("hishe"));
+    AssertJUnit.assertEquals("his", dict.findShortestWord("hxhis"));
+  }
+
+
+  /**
+   * @param  word  to search for.
+   */
+  @Test(groups = "acdicttest", dataProvider = "all-fbsd-words")
+  public void findShortestWordAll(final String word)
+  {
+    final String text = "#" + word + "#";
+    AssertJUnit.assertEquals(findShortestSubstring(caseSensitive, text), caseSensitive.findShortestWord(text));
+    AssertJUnit.assertEquals(
+      findShortestSubstring(caseInsensitive, text.toUpperCase()),
+      caseInsensitive.findShortestWord(text.toUpperCase()));
+  }
+
+
+  /**
+   * Finds the shortest substring of the supplied text that is in the supplied dictionary by searching every
+   * substring.
+   *
+   * @param  dict  to search
+   * @param  text  to search for dictionary words
+   *
+   * @return  shortest matching word or null
+   */
+  private static String findShortestSubstring(final Dictionary dict, final String text)
+  {
+    for (int i = 1; i <= text.length(); i++) {
+      for (int j = 0; j + i <= text.length(); j++) {
+        final String s = text.substring(j, j + i);
+        if (dict.search(s)) {
+          return s;
+        }
+      }
+    }
+    return null;
+  }
+}
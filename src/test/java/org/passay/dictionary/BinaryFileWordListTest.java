@@ -0,0 +1,84 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link BinaryFileWordList}.
+ *
+ * @author  Middleware Services
+ */
+public class BinaryFileWordListTest extends AbstractWordListTest<BinaryFileWordList>
+{
+
+
+  @Override
+  protected BinaryFileWordList createWordList(final String filePath, final boolean caseSensitive)
+    throws IOException
+  {
+    final File file = File.createTempFile("passay", ".bin");
+    file.deleteOnExit();
+    final Reader reader = new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8);
+    BinaryFileWordList.write(WordLists.createFromReader(new Reader[] {reader}, caseSensitive), file);
+    return new BinaryFileWordList(new RandomAccessFile(file, "r"));
+  }
+
+
+  /**
+   * @param  file1  dictionary to load.
+   * @param  file2  dictionary to load.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Parameters({ "fbsdFileSorted", "fbsdFileLowerCaseSorted" })
+  @Test(groups = "wltest")
+  public void construct(final String file1, final String file2) throws Exception
+  {
+    try {
+      new BinaryFileWordList(new RandomAccessFile(file1, "r"));
+      AssertJUnit.fail("Should have thrown IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      AssertJUnit.assertEquals(e.getClass(), IllegalArgumentException.class);
+    } catch (Exception e) {
+      AssertJUnit.fail("Should have thrown IllegalArgumentException, threw " + e.getMessage());
+    }
+
+    BinaryFileWordList bwl = createWordList(file1, true);
+    AssertJUnit.assertEquals(WordLists.CASE_SENSITIVE_COMPARATOR, bwl.getComparator());
+    bwl.close();
+
+    bwl = createWordList(file2, false);
+    AssertJUnit.assertEquals(WordLists.CASE_INSENSITIVE_COMPARATOR, bwl.getComparator());
+    bwl.close();
+  }
+
+
+  /**
+   * @param  file  dictionary to load.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Parameters("fbsdFileSorted")
+  @Test(groups = "wltest")
+  public void search(final String file) throws Exception
+  {
+    final ArrayWordList awl = WordLists.createFromReader(new FileReader[] {new FileReader(file)}, true);
+    final BinaryFileWordList bwl = createWordList(file, true);
+    final WordListDictionary dict = new WordListDictionary(bwl);
+    for (int i = 0; i < awl.size(); i++) {
+      AssertJUnit.assertTrue(dict.search(awl.get(i)));
+    }
+    AssertJUnit.assertFalse(dict.search(AbstractDictionaryTest.FALSE_SEARCH));
+    bwl.close();
+  }
+}
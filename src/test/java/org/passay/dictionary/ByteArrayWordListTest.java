@@ -0,0 +1,101 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ByteArrayWordList}.
+ *
+ * @author  Middleware Services
+ */
+public class ByteArrayWordListTest extends AbstractWordListTest<ByteArrayWordList>
+{
+
+
+  @Override
+  protected ByteArrayWordList createWordList(final String filePath, final boolean caseSensitive)
+    throws IOException
+  {
+    final Reader reader = new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8);
+    return new ByteArrayWordList(WordLists.createFromReader(new Reader[] {reader}, caseSensitive));
+  }
+
+
+  /**
+   * @param  file1  dictionary to load.
+   * @param  file2  dictionary to load.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Parameters({ "fbsdFileSorted", "fbsdFileLowerCaseSorted" })
+  @Test(groups = "wltest")
+  public void search(final String file1, final String file2) throws Exception
+  {
+    for (String file : new String[] {file1, file2}) {
+      for (boolean caseSensitive : new boolean[] {true, false}) {
+        if (!caseSensitive && file.equals(file1)) {
+          // case insensitive order requires a case insensitive sort
+          continue;
+        }
+        final ArrayWordList awl = WordLists.createFromReader(
+          new Reader[] {new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)}, caseSensitive);
+        final ByteArrayWordList bwl;
+        try (Stream<String> words = WordLists.streamWords(new FileInputStream(file), StandardCharsets.UTF_8)) {
+          bwl = new ByteArrayWordList(words.iterator(), caseSensitive);
+        }
+        AssertJUnit.assertEquals(awl.size(), bwl.size());
+        for (int i = 0; i < awl.size(); i++) {
+          final String word = awl.get(i);
+          AssertJUnit.assertEquals(word, bwl.get(i));
+          AssertJUnit.assertEquals(WordLists.binarySearch(awl, word), bwl.binarySearch(word));
+          AssertJUnit.assertEquals(
+            WordLists.binarySearch(awl, word.toUpperCase()), WordLists.binarySearch(bwl, word.toUpperCase()));
+        }
+        AssertJUnit.assertFalse(new WordListDictionary(bwl).search(AbstractDictionaryTest.FALSE_SEARCH));
+      }
+    }
+  }
+
+
+  /** Test comparisons of non-ASCII and supplementary characters. */
+  @Test(groups = "wltest")
+  public void unicode()
+  {
+    final String[] words = {"Apfel", "Zebra", "apfel", "baum", "bär", "ärger", "€uro", "😀smile", "�end"};
+    final ByteArrayWordList bwl = new ByteArrayWordList(words);
+    for (int i = 0; i < words.length; i++) {
+      AssertJUnit.assertEquals(i, bwl.binarySearch(words[i]));
+    }
+    AssertJUnit.assertEquals(WordLists.NOT_FOUND, bwl.binarySearch("APFEL"));
+    AssertJUnit.assertEquals(WordLists.NOT_FOUND, bwl.binarySearch("😁smile"));
+    AssertJUnit.assertEquals(WordLists.NOT_FOUND, bwl.binarySearch("bä"));
+    AssertJUnit.assertEquals(WordLists.NOT_FOUND, bwl.binarySearch(""));
+
+    final String[] ciWords = {"apfel", "baum", "BÄR", "Ärger"};
+    final ByteArrayWordList ci = new ByteArrayWordList(ciWords, false);
+    AssertJUnit.assertEquals(2, ci.binarySearch("bär"));
+    AssertJUnit.assertEquals(3, ci.binarySearch("ÄRGER"));
+    AssertJUnit.assertEquals(0, ci.binarySearch("APFEL"));
+  }
+
+
+  /** Test that unsorted words are rejected. */
+  @Test(groups = "wltest")
+  public void unsorted()
+  {
+    try {
+      new ByteArrayWordList(new String[] {"b", "a"});
+      AssertJUnit.fail("Should have thrown IllegalArgumentException");
+    } catch (Exception e) {
+      AssertJUnit.assertEquals(IllegalArgumentException.class, e.getClass());
+    }
+  }
+}
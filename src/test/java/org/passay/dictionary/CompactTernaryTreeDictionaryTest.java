@@ -0,0 +1,155 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.FileReader;
+import java.util.Arrays;
+import java.util.List;
+import org.passay.dictionary.sort.ArraysSort;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CompactTernaryTreeDictionary}.
+ *
+ * @author  Middleware Services
+ */
+public class CompactTernaryTreeDictionaryTest extends AbstractDictionaryTest
+{
+
+  /** Test dictionary. */
+  private CompactTernaryTreeDictionary caseSensitive;
+
+  /** Test dictionary. */
+  private CompactTernaryTreeDictionary caseInsensitive;
+
+  /** Reference dictionary. */
+  private TernaryTreeDictionary reference;
+
+
+  /** @throws  Exception  On test failure. */
+  @BeforeClass(groups = "ttdicttest")
+  public void createDictionary() throws Exception
+  {
+    final ArrayWordList awl1 = WordLists.createFromReader(
+      new FileReader[] {new FileReader(webFile)},
+      true,
+      new ArraysSort());
+    caseSensitive = new CompactTernaryTreeDictionary(awl1);
+    reference = new TernaryTreeDictionary(awl1);
+
+    final ArrayWordList awl2 = WordLists.createFromReader(
+      new FileReader[] {new FileReader(webFile)},
+      false,
+      new ArraysSort());
+    caseInsensitive = new CompactTernaryTreeDictionary(awl2);
+  }
+
+
+  /**
+   * Close test resources.
+   */
+  @AfterClass(groups = "ttdicttest")
+  public void closeDictionary()
+  {
+    caseSensitive = null;
+    caseInsensitive = null;
+    reference = null;
+  }
+
+
+  /**
+   * Test search.
+   */
+  @Test(groups = "ttdicttest")
+  public void search()
+  {
+    AssertJUnit.assertTrue(caseSensitive.search("manipular"));
+    AssertJUnit.assertFalse(caseSensitive.search(FALSE_SEARCH));
+    AssertJUnit.assertFalse(caseSensitive.search(""));
+    AssertJUnit.assertTrue(caseSensitive.search("z"));
+    AssertJUnit.assertTrue(caseInsensitive.search("manipular"));
+    AssertJUnit.assertTrue(caseInsensitive.search("manipular".toUpperCase()));
+    AssertJUnit.assertFalse(caseInsensitive.search(FALSE_SEARCH));
+    AssertJUnit.assertTrue(caseInsensitive.search("z"));
+  }
+
+
+  /**
+   * Test size.
+   */
+  @Test(groups = "ttdicttest")
+  public void size()
+  {
+    AssertJUnit.assertEquals(reference.size(), caseSensitive.size());
+    AssertJUnit.assertTrue(caseSensitive.getTernaryTree().isFrozen());
+  }
+
+
+  /**
+   * @param  word  to search for.
+   * @param  results  case sensitive results
+   */
+  @Parameters({ "partialSearchWord", "partialSearchResults" })
+  @Test(groups = "ttdicttest")
+  public void partialSearch(final String word, final String results)
+  {
+    AssertJUnit.assertArrayEquals(results.split("\\|"), caseSensitive.partialSearch(word));
+    AssertJUnit.assertArrayEquals(reference.partialSearch(".ix"), caseSensitive.partialSearch(".ix"));
+    AssertJUnit.assertFalse(Arrays.equals(results.split("\\|"), caseSensitive.partialSearch(FALSE_SEARCH)));
+
+    final List<String> ciResults = Arrays.asList(caseInsensitive.partialSearch(word.toUpperCase()));
+    for (String result : results.split("\\|")) {
+      AssertJUnit.assertTrue(ciResults.contains(WordLists.foldCase(result)));
+    }
+    for (String result : ciResults) {
+      AssertJUnit.assertEquals(WordLists.foldCase(result), result);
+    }
+  }
+
+
+  /**
+   * @param  word  to search for.
+   * @param  distance  for near search
+   * @param  results  case sensitive results
+   */
+  @Parameters({ "nearSearchWord", "nearSearchDistance", "nearSearchResults" })
+  @Test(groups = "ttdicttest")
+  public void nearSearch(final String word, final int distance, final String results)
+  {
+    AssertJUnit.assertArrayEquals(results.split("\\|"), caseSensitive.nearSearch(word, distance));
+    AssertJUnit.assertArrayEquals(reference.nearSearch("fisher", 2), caseSensitive.nearSearch("fisher", 2));
+    AssertJUnit.assertFalse(Arrays.equals(results.split("\\|"), caseSensitive.nearSearch(FALSE_SEARCH, distance)));
+
+    final List<String> ciResults = Arrays.asList(caseInsensitive.nearSearch(word.toUpperCase(), distance));
+    for (String result : results.split("\\|")) {
+      AssertJUnit.assertTrue(ciResults.contains(WordLists.foldCase(result)));
+    }
+    for (String result : ciResults) {
+      AssertJUnit.assertEquals(WordLists.foldCase(result), result);
+    }
+  }
+
+
+  /**
+   * Test insert after freeze.
+   */
+  @Test(groups = "ttdicttest")
+  public void freeze()
+  {
+    final CompactTernaryTree tree = new CompactTernaryTree();
+    tree.insert(getAnimals());
+    final CompactTernaryTreeDictionary dict = new CompactTernaryTreeDictionary(tree);
+    AssertJUnit.assertTrue(dict.search(ANIMAL_SEARCH_CS));
+    AssertJUnit.assertFalse(dict.search(ANIMAL_SEARCH_CI));
+    AssertJUnit.assertArrayEquals(ANIMAL_PARTIAL_SEARCH_RESULTS_CS, dict.partialSearch(ANIMAL_PARTIAL_SEARCH));
+    try {
+      tree.insert("Zebu");
+      AssertJUnit.fail("Should have thrown IllegalStateException");
+    } catch (IllegalStateException e) {
+      AssertJUnit.assertEquals(e.getClass(), IllegalStateException.class);
+    }
+  }
+}
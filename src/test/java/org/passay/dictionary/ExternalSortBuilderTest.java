@@ -0,0 +1,107 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ExternalSortBuilder}.
+ *
+ * @author  Middleware Services
+ */
+public class ExternalSortBuilderTest
+{
+
+
+  /**
+   * Test that the built file matches an in-memory sort of the sources.
+   *
+   * @param  fbsd  word list file
+   * @param  web  word list file
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Parameters({"fbsdFile", "webFile"})
+  @Test(groups = "wltest")
+  public void build(final String fbsd, final String web) throws Exception
+  {
+    for (boolean caseSensitive : new boolean[] {true, false}) {
+      final NavigableSet<String> expected = new TreeSet<>(
+        caseSensitive ? WordLists.CASE_SENSITIVE_COMPARATOR : WordLists.CASE_INSENSITIVE_COMPARATOR);
+      for (String path : new String[] {fbsd, web}) {
+        final List<String> words = new ArrayList<>();
+        WordLists.readWordList(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8), words);
+        expected.addAll(words);
+      }
+
+      final File output = File.createTempFile("passay-sorted", ".txt");
+      try {
+        final long count = new ExternalSortBuilder()
+          .addFile(fbsd, StandardCharsets.UTF_8)
+          .addFile(web, StandardCharsets.UTF_8)
+          .setCaseSensitive(caseSensitive)
+          .setRunSize(10000)
+          .setParallelism(3)
+          .build(output);
+        AssertJUnit.assertEquals(expected.size(), count);
+        try (RandomAccessFile raf = new RandomAccessFile(output, "r")) {
+          final FileWordList wl = new FileWordList(raf, caseSensitive);
+          AssertJUnit.assertEquals(expected.size(), wl.size());
+          int i = 0;
+          for (String word : expected) {
+            AssertJUnit.assertEquals(0, wl.getComparator().compare(word, wl.get(i++)));
+          }
+          final WordListDictionary dict = new WordListDictionary(wl);
+          AssertJUnit.assertTrue(dict.search(expected.first()));
+          AssertJUnit.assertTrue(dict.search(expected.last()));
+        }
+      } finally {
+        output.delete();
+      }
+    }
+  }
+
+
+  /**
+   * Test duplicates and empty lines within and across runs.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "wltest")
+  public void deduplicate() throws Exception
+  {
+    final File dir = Files.createTempDirectory("passay-runs").toFile();
+    final File output = new File(dir, "sorted.txt");
+    try {
+      final long count = new ExternalSortBuilder()
+        .addReader(new StringReader("delta\nAlpha\n\nalpha\ncharlie\n"))
+        .addReader(new StringReader("bravo\nALPHA\ndelta\n"))
+        .setCaseSensitive(false)
+        .setRunSize(2)
+        .setTempDirectory(dir)
+        .build(output);
+      AssertJUnit.assertEquals(4, count);
+      AssertJUnit.assertEquals(
+        Arrays.asList("Alpha", "bravo", "charlie", "delta"),
+        Files.readAllLines(output.toPath(), StandardCharsets.UTF_8));
+      final File[] files = dir.listFiles();
+      AssertJUnit.assertEquals(1, files == null ? 0 : files.length);
+    } finally {
+      output.delete();
+      dir.delete();
+    }
+  }
+}
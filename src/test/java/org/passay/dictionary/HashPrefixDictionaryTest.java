@@ -0,0 +1,149 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.cryptacular.bean.EncodingHashBean;
+import org.cryptacular.spec.CodecSpec;
+import org.cryptacular.spec.DigestSpec;
+import org.passay.logic.PasswordData;
+import org.passay.rule.DigestDictionaryRule;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HashPrefixDictionary}.
+ *
+ * @author  Middleware Services
+ */
+public class HashPrefixDictionaryTest
+{
+
+  /** Hash bean that produces hex SHA-1 digests. */
+  private static final EncodingHashBean HASH_BEAN = new EncodingHashBean(
+    new CodecSpec("hex"), new DigestSpec("SHA1"), 1, false);
+
+  /** Breached passwords. */
+  private static final String[] BREACHED = {"password", "p@ssw0rd", "123456", "qwerty", "letmein"};
+
+  /** Directory containing the test shards. */
+  private File directory;
+
+
+  /**
+   * Writes the test shards.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @BeforeClass(groups = "hashprefixdicttest")
+  public void createShards() throws Exception
+  {
+    directory = Files.createTempDirectory("passay-shards").toFile();
+    final String[] digests = Arrays.stream(BREACHED).map(p -> HASH_BEAN.hash(p)).sorted().toArray(String[]::new);
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < digests.length; i++) {
+      // mix plain digests and digests with occurrence counts
+      sb.append(i % 2 == 0 ? digests[i].toUpperCase() : digests[i] + ":" + (i + 1)).append('\n');
+    }
+    AssertJUnit.assertEquals(
+      BREACHED.length, HashPrefixDictionary.split(new StringReader(sb.toString()), directory, 5));
+  }
+
+
+  /** Removes the test shards. */
+  @AfterClass(groups = "hashprefixdicttest")
+  public void deleteShards()
+  {
+    final File[] files = directory.listFiles();
+    if (files != null) {
+      Arrays.stream(files).forEach(File::delete);
+    }
+    directory.delete();
+  }
+
+
+  /** Test search. */
+  @Test(groups = "hashprefixdicttest")
+  public void search()
+  {
+    final HashPrefixDictionary dict = new HashPrefixDictionary(directory, 5, 2);
+    for (String p : BREACHED) {
+      AssertJUnit.assertTrue(dict.search(HASH_BEAN.hash(p)));
+      AssertJUnit.assertTrue(dict.search(HASH_BEAN.hash(p).toUpperCase()));
+    }
+    AssertJUnit.assertFalse(dict.search(HASH_BEAN.hash("notbreached")));
+    AssertJUnit.assertFalse(dict.search("password"));
+    AssertJUnit.assertFalse(dict.search("5BAA6"));
+    AssertJUnit.assertFalse(dict.search(""));
+    AssertJUnit.assertEquals(BREACHED.length, dict.size());
+  }
+
+
+  /**
+   * Test shard files written by another tool.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "hashprefixdicttest")
+  public void rangeFile() throws Exception
+  {
+    final String digest = HASH_BEAN.hash("hunter2").toUpperCase();
+    final File dir = Files.createTempDirectory("passay-range").toFile();
+    final File shard = new File(dir, digest.substring(0, 3) + HashPrefixDictionary.SHARD_EXTENSION);
+    Files.write(
+      shard.toPath(),
+      Arrays.asList(
+        "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:1",
+        digest.substring(3) + ":42",
+        "00000000000000000000000000000000000:7"),
+      StandardCharsets.UTF_8);
+    try {
+      final HashPrefixDictionary dict = new HashPrefixDictionary(dir, 3, 1);
+      AssertJUnit.assertTrue(dict.search(digest));
+      AssertJUnit.assertFalse(dict.search(HASH_BEAN.hash("hunter3")));
+      AssertJUnit.assertEquals(3, dict.size());
+    } finally {
+      shard.delete();
+      dir.delete();
+    }
+  }
+
+
+  /**
+   * Test split argument validation.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "hashprefixdicttest")
+  public void splitUnsorted() throws Exception
+  {
+    final File dir = Files.createTempDirectory("passay-unsorted").toFile();
+    try {
+      HashPrefixDictionary.split(
+        new StringReader("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF\n0000000000000000000000000000000000000000\n"),
+        dir,
+        5);
+      AssertJUnit.fail("Should have thrown IllegalArgumentException");
+    } catch (Exception e) {
+      AssertJUnit.assertEquals(IllegalArgumentException.class, e.getClass());
+    } finally {
+      new File(dir, "FFFFF" + HashPrefixDictionary.SHARD_EXTENSION).delete();
+      dir.delete();
+    }
+  }
+
+
+  /** Test with digest dictionary rule. */
+  @Test(groups = "hashprefixdicttest")
+  public void digestDictionaryRule()
+  {
+    final DigestDictionaryRule rule = new DigestDictionaryRule(HASH_BEAN, new HashPrefixDictionary(directory));
+    AssertJUnit.assertFalse(rule.validate(new PasswordData("p@ssw0rd")).isValid());
+    AssertJUnit.assertTrue(rule.validate(new PasswordData("p4ssw0rd")).isValid());
+  }
+}
@@ -3,6 +3,11 @@ package org.passay.dictionary;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.testng.AssertJUnit;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
@@ -63,4 +68,45 @@ public class MemoryMappedFileWordListTest extends AbstractWordListTest<MemoryMap
     fwl = new MemoryMappedFileWordList(new RandomAccessFile(file2, "r"), false, 0);
     fwl.close();
   }
+
+
+  /**
+   * @param  file  dictionary to load.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Parameters("fbsdFileSorted")
+  @Test(groups = "wltest")
+  public void concurrentRead(final String file) throws Exception
+  {
+    final MemoryMappedFileWordList fwl = new MemoryMappedFileWordList(new RandomAccessFile(file, "r"), true, 1);
+    final String[] expected = new String[fwl.size()];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = fwl.get(i);
+    }
+
+    final int threads = 8;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int offset = t;
+        results.add(executor.submit(() -> {
+          int failures = 0;
+          for (int i = offset; i < expected.length; i += threads) {
+            if (!expected[i].equals(fwl.get(i)) || WordLists.binarySearch(fwl, expected[i]) != i) {
+              failures++;
+            }
+          }
+          return failures;
+        }));
+      }
+      for (Future<Integer> result : results) {
+        AssertJUnit.assertEquals(0, result.get().intValue());
+      }
+    } finally {
+      executor.shutdown();
+      fwl.close();
+    }
+  }
 }
@@ -0,0 +1,124 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link MutableDictionary}.
+ *
+ * @author  Middleware Services
+ */
+public class MutableDictionaryTest
+{
+
+
+  /** Test add, remove, flush and compaction on the calling thread. */
+  @Test(groups = "mutabledicttest")
+  public void addRemove()
+  {
+    final MutableDictionary dict = new MutableDictionary(new ArrayWordList(new String[] {"alpha", "beta"}, true));
+    dict.setMemtableSize(Integer.MAX_VALUE);
+    AssertJUnit.assertEquals(2, dict.size());
+    AssertJUnit.assertTrue(dict.search("alpha"));
+    AssertJUnit.assertFalse(dict.add("alpha"));
+    AssertJUnit.assertTrue(dict.add("gamma"));
+    AssertJUnit.assertTrue(dict.remove("alpha"));
+    AssertJUnit.assertFalse(dict.remove("delta"));
+    AssertJUnit.assertFalse(dict.search("alpha"));
+    AssertJUnit.assertTrue(dict.search("gamma"));
+    AssertJUnit.assertEquals(2, dict.size());
+
+    dict.flush();
+    AssertJUnit.assertEquals(2, dict.getSegmentCount());
+    AssertJUnit.assertFalse(dict.search("alpha"));
+    AssertJUnit.assertTrue(dict.add("alpha"));
+    AssertJUnit.assertTrue(dict.remove("beta"));
+    dict.flush();
+    AssertJUnit.assertEquals(3, dict.getSegmentCount());
+    AssertJUnit.assertTrue(dict.search("alpha"));
+    AssertJUnit.assertFalse(dict.search("beta"));
+
+    dict.compact();
+    AssertJUnit.assertEquals(1, dict.getSegmentCount());
+    AssertJUnit.assertTrue(dict.search("alpha"));
+    AssertJUnit.assertFalse(dict.search("beta"));
+    AssertJUnit.assertTrue(dict.search("gamma"));
+    AssertJUnit.assertEquals(2, dict.size());
+  }
+
+
+  /** Test case insensitive words. */
+  @Test(groups = "mutabledicttest")
+  public void caseInsensitive()
+  {
+    final MutableDictionary dict = new MutableDictionary(false);
+    AssertJUnit.assertTrue(dict.add("Alpha"));
+    AssertJUnit.assertFalse(dict.add("ALPHA"));
+    dict.flush();
+    AssertJUnit.assertTrue(dict.search("alpha"));
+    AssertJUnit.assertTrue(dict.remove("aLPHA"));
+    AssertJUnit.assertFalse(dict.search("Alpha"));
+    AssertJUnit.assertEquals(0, dict.size());
+  }
+
+
+  /**
+   * Test concurrent writers and readers with background maintenance.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "mutabledicttest")
+  public void concurrent() throws Exception
+  {
+    final MutableDictionary dict = new MutableDictionary();
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    dict.setExecutor(executor);
+    dict.setMemtableSize(64);
+    dict.setMaximumSegments(3);
+    try {
+      final List<Callable<Set<String>>> writers = new ArrayList<>();
+      for (int t = 0; t < 3; t++) {
+        final int thread = t;
+        writers.add(() -> {
+          final Random random = new Random(thread);
+          final Set<String> present = new HashSet<>();
+          for (int i = 0; i < 5000; i++) {
+            final String word = thread + "-" + random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+              AssertJUnit.assertEquals(present.remove(word), dict.remove(word));
+            } else {
+              AssertJUnit.assertEquals(present.add(word), dict.add(word));
+            }
+            AssertJUnit.assertEquals(present.contains(word), dict.search(word));
+          }
+          return present;
+        });
+      }
+      final Set<String> expected = new HashSet<>();
+      for (Future<Set<String>> f : executor.invokeAll(writers)) {
+        expected.addAll(f.get());
+      }
+      dict.flush();
+      dict.compact();
+      AssertJUnit.assertEquals(expected.size(), dict.size());
+      for (int t = 0; t < 3; t++) {
+        for (int i = 0; i < 1000; i++) {
+          final String word = t + "-" + i;
+          AssertJUnit.assertEquals(word, expected.contains(word), dict.search(word));
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,225 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ReloadableDictionary}.
+ *
+ * @author  Middleware Services
+ */
+public class ReloadableDictionaryTest
+{
+
+
+  /**
+   * Test that reloaded dictionaries are published and replaced dictionaries are closed.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "reloaddicttest")
+  public void reload() throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final ReloadableDictionary dict = new ReloadableDictionary(
+      () -> new TestDictionary(count.incrementAndGet() == 1 ? "alpha" : "beta"));
+    final TestDictionary first = (TestDictionary) dict.getDictionary();
+    AssertJUnit.assertTrue(dict.search("alpha"));
+    AssertJUnit.assertFalse(dict.search("beta"));
+    AssertJUnit.assertEquals(1, dict.size());
+
+    final Dictionary second = dict.reload().get(10, TimeUnit.SECONDS);
+    AssertJUnit.assertSame(second, dict.getDictionary());
+    AssertJUnit.assertFalse(dict.search("alpha"));
+    AssertJUnit.assertTrue(dict.search("beta"));
+    AssertJUnit.assertTrue(first.closed.get());
+
+    dict.close();
+    AssertJUnit.assertTrue(((TestDictionary) second).closed.get());
+  }
+
+
+  /**
+   * Test that a replaced dictionary is not closed until searches in progress complete.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "reloaddicttest")
+  public void drain() throws Exception
+  {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch proceed = new CountDownLatch(1);
+    final AtomicInteger count = new AtomicInteger();
+    final ReloadableDictionary dict = new ReloadableDictionary(
+      () -> count.incrementAndGet() == 1 ? new TestDictionary("alpha")
+      {
+        @Override
+        public boolean search(final String word)
+        {
+          started.countDown();
+          try {
+            proceed.await();
+          } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+          }
+          return super.search(word);
+        }
+      } : new TestDictionary("beta"));
+    final TestDictionary first = (TestDictionary) dict.getDictionary();
+
+    final FutureTask<Boolean> search = new FutureTask<>(() -> dict.search("alpha"));
+    new Thread(search).start();
+    AssertJUnit.assertTrue(started.await(10, TimeUnit.SECONDS));
+    dict.reloadNow();
+    AssertJUnit.assertTrue(dict.search("beta"));
+    AssertJUnit.assertFalse(first.closed.get());
+
+    proceed.countDown();
+    AssertJUnit.assertTrue(search.get(10, TimeUnit.SECONDS));
+    AssertJUnit.assertTrue(first.closed.get());
+  }
+
+
+  /**
+   * Test that a failed reload keeps the current dictionary.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "reloaddicttest")
+  public void reloadFailure() throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final ReloadableDictionary dict = new ReloadableDictionary(
+      () -> {
+        if (count.incrementAndGet() > 1) {
+          throw new FileNotFoundException("missing");
+        }
+        return new TestDictionary("alpha");
+      });
+    final Future<Dictionary> future = dict.reload();
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      AssertJUnit.fail("Should have thrown ExecutionException");
+    } catch (ExecutionException e) {
+      AssertJUnit.assertEquals(RuntimeException.class, e.getCause().getClass());
+    }
+    AssertJUnit.assertTrue(dict.search("alpha"));
+    AssertJUnit.assertFalse(((TestDictionary) dict.getDictionary()).closed.get());
+  }
+
+
+  /**
+   * Test that replaced memory mapped word lists are closed.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "reloaddicttest")
+  public void memoryMappedFileWordList() throws Exception
+  {
+    final File file = File.createTempFile("passay-reload", ".txt");
+    try {
+      Files.write(file.toPath(), Arrays.asList("alpha", "beta"), StandardCharsets.UTF_8);
+      final ReloadableDictionary dict = new ReloadableDictionary(
+        () -> new WordListDictionary(new MemoryMappedFileWordList(new RandomAccessFile(file, "r"))));
+      final MemoryMappedFileWordList first =
+        (MemoryMappedFileWordList) ((WordListDictionary) dict.getDictionary()).getWordList();
+      AssertJUnit.assertTrue(dict.search("beta"));
+      dict.reload().get(10, TimeUnit.SECONDS);
+      AssertJUnit.assertTrue(dict.search("beta"));
+      AssertJUnit.assertFalse(first.getFile().getChannel().isOpen());
+      dict.close();
+    } finally {
+      file.delete();
+    }
+  }
+
+
+  /**
+   * Test that replaced binary file word lists are closed.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "reloaddicttest")
+  public void binaryFileWordList() throws Exception
+  {
+    final File file = File.createTempFile("passay-reload", ".bin");
+    try {
+      BinaryFileWordList.write(new ArrayWordList(new String[] {"alpha", "beta"}), file);
+      final ReloadableDictionary dict = new ReloadableDictionary(
+        () -> new WordListDictionary(new BinaryFileWordList(new RandomAccessFile(file, "r"))));
+      final BinaryFileWordList first =
+        (BinaryFileWordList) ((WordListDictionary) dict.getDictionary()).getWordList();
+      AssertJUnit.assertTrue(dict.search("beta"));
+      dict.reload().get(10, TimeUnit.SECONDS);
+      AssertJUnit.assertTrue(dict.search("beta"));
+      AssertJUnit.assertFalse(first.getFile().getChannel().isOpen());
+      final BinaryFileWordList second =
+        (BinaryFileWordList) ((WordListDictionary) dict.getDictionary()).getWordList();
+      dict.close();
+      AssertJUnit.assertFalse(second.getFile().getChannel().isOpen());
+    } finally {
+      file.delete();
+    }
+  }
+
+
+  /** Single word dictionary that records whether it has been closed. */
+  private static class TestDictionary implements Dictionary, AutoCloseable
+  {
+
+    /** Word in this dictionary. */
+    private final String word;
+
+    /** Whether this dictionary has been closed. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+
+    /**
+     * Creates a new test dictionary.
+     *
+     * @param  w  word in this dictionary
+     */
+    TestDictionary(final String w)
+    {
+      word = w;
+    }
+
+
+    @Override
+    public boolean search(final String w)
+    {
+      if (closed.get()) {
+        throw new IllegalStateException("Dictionary has been closed");
+      }
+      return word.equals(w);
+    }
+
+
+    @Override
+    public long size()
+    {
+      return 1;
+    }
+
+
+    @Override
+    public void close()
+    {
+      closed.set(true);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.passay.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ShardedDictionary}.
+ *
+ * @author  Middleware Services
+ */
+public class ShardedDictionaryTest
+{
+
+  /** English words. */
+  private static final String[] ENGLISH = {"apple", "banana", "cherry"};
+
+  /** German words. */
+  private static final String[] GERMAN = {"apfel", "banane", "kirsche", "pflaume"};
+
+  /** Executor for parallel searches. */
+  private ExecutorService executor;
+
+
+  /** Creates the executor. */
+  @BeforeClass(groups = "shardeddicttest")
+  public void createExecutor()
+  {
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+
+  /** Shuts down the executor. */
+  @AfterClass(groups = "shardeddicttest")
+  public void shutdownExecutor()
+  {
+    executor.shutdown();
+  }
+
+
+  /** Test search of all shards, sequentially and in parallel. */
+  @Test(groups = "shardeddicttest")
+  public void search()
+  {
+    final ShardedDictionary dict = new ShardedDictionary(dictionary(ENGLISH), dictionary(GERMAN));
+    AssertJUnit.assertEquals(ENGLISH.length + GERMAN.length, dict.size());
+    for (int i = 0; i < 2; i++) {
+      for (String word : ENGLISH) {
+        AssertJUnit.assertTrue(dict.search(word));
+      }
+      for (String word : GERMAN) {
+        AssertJUnit.assertTrue(dict.search(word));
+      }
+      AssertJUnit.assertFalse(dict.search("pomme"));
+      dict.setExecutor(executor);
+    }
+  }
+
+
+  /** Test that a sequential search stops at the first shard that contains the word. */
+  @Test(groups = "shardeddicttest")
+  public void shortCircuit()
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final ShardedDictionary dict = new ShardedDictionary(
+      dictionary(ENGLISH),
+      new Dictionary()
+      {
+        @Override
+        public boolean search(final String word)
+        {
+          count.incrementAndGet();
+          return false;
+        }
+
+        @Override
+        public long size()
+        {
+          return 0;
+        }
+      });
+    AssertJUnit.assertTrue(dict.search("apple"));
+    AssertJUnit.assertEquals(0, count.get());
+    AssertJUnit.assertFalse(dict.search("pomme"));
+    AssertJUnit.assertEquals(1, count.get());
+  }
+
+
+  /** Test that exceptions from parallel searches are propagated. */
+  @Test(groups = "shardeddicttest")
+  public void parallelException()
+  {
+    final ShardedDictionary dict = new ShardedDictionary(
+      dictionary(ENGLISH),
+      new Dictionary()
+      {
+        @Override
+        public boolean search(final String word)
+        {
+          throw new IllegalStateException("closed");
+        }
+
+        @Override
+        public long size()
+        {
+          return 0;
+        }
+      });
+    dict.setExecutor(executor);
+    try {
+      dict.search("pomme");
+      AssertJUnit.fail("Should have thrown IllegalStateException");
+    } catch (Exception e) {
+      AssertJUnit.assertEquals(IllegalStateException.class, e.getClass());
+    }
+  }
+
+
+  /** Test routed search and shard replacement. */
+  @Test(groups = "shardeddicttest")
+  public void route()
+  {
+    final List<List<String>> partitions = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (String[] words : new String[][] {ENGLISH, GERMAN}) {
+      for (String word : words) {
+        partitions.get(ShardedDictionary.HASH_ROUTER.route(word, 3)).add(word);
+      }
+    }
+    final Dictionary[] shards = partitions.stream()
+      .map(l -> dictionary(l.toArray(new String[0])))
+      .toArray(Dictionary[]::new);
+    final ShardedDictionary dict = new ShardedDictionary(ShardedDictionary.HASH_ROUTER, shards);
+    for (String word : GERMAN) {
+      AssertJUnit.assertTrue(dict.search(word));
+    }
+    AssertJUnit.assertFalse(dict.search("pomme"));
+
+    final int index = ShardedDictionary.HASH_ROUTER.route("pomme", 3);
+    final Dictionary previous = dict.setShard(index, dictionary("pomme"));
+    AssertJUnit.assertSame(shards[index], previous);
+    AssertJUnit.assertTrue(dict.search("pomme"));
+    AssertJUnit.assertEquals(ENGLISH.length + GERMAN.length + 1 - previous.size(), dict.size());
+  }
+
+
+  /** Test routed search of case insensitive shards. */
+  @Test(groups = "shardeddicttest")
+  public void routeCaseInsensitive()
+  {
+    final List<List<String>> partitions = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (String[] words : new String[][] {ENGLISH, GERMAN}) {
+      for (String word : words) {
+        partitions.get(ShardedDictionary.CASE_INSENSITIVE_HASH_ROUTER.route(word, 3)).add(word);
+      }
+    }
+    final Dictionary[] shards = partitions.stream().map(l -> {
+      final String[] sorted = l.toArray(new String[0]);
+      Arrays.sort(sorted, WordLists.CASE_INSENSITIVE_COMPARATOR);
+      return new WordListDictionary(new ArrayWordList(sorted, false));
+    }).toArray(Dictionary[]::new);
+    final ShardedDictionary dict = new ShardedDictionary(ShardedDictionary.CASE_INSENSITIVE_HASH_ROUTER, shards);
+    int misrouted = 0;
+    for (String[] words : new String[][] {ENGLISH, GERMAN}) {
+      for (String word : words) {
+        final String upper = word.toUpperCase();
+        AssertJUnit.assertTrue(dict.search(word));
+        AssertJUnit.assertTrue(dict.search(upper));
+        if (ShardedDictionary.HASH_ROUTER.route(upper, 3) != ShardedDictionary.HASH_ROUTER.route(word, 3)) {
+          misrouted++;
+        }
+      }
+    }
+    // the case sensitive router would have sent some of these words to the wrong shard
+    AssertJUnit.assertTrue(misrouted > 0);
+  }
+
+
+  /**
+   * Creates a word list dictionary from the supplied words.
+   *
+   * @param  words  to add to the dictionary
+   *
+   * @return  dictionary
+   */
+  private static Dictionary dictionary(final String... words)
+  {
+    final String[] sorted = words.clone();
+    Arrays.sort(sorted);
+    return new WordListDictionary(new ArrayWordList(sorted, true));
+  }
+}
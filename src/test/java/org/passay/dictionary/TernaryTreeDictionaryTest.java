@@ -3,6 +3,7 @@ package org.passay.dictionary;
 
 import java.io.FileReader;
 import java.util.Arrays;
+import java.util.List;
 import org.passay.dictionary.sort.ArraySorter;
 import org.passay.dictionary.sort.ArraysSort;
 import org.passay.dictionary.sort.BubbleSort;
@@ -101,13 +102,12 @@ public class TernaryTreeDictionaryTest extends AbstractDictionaryTest
     AssertJUnit.assertArrayEquals(results.split("\\|"), caseSensitive.partialSearch(word));
     AssertJUnit.assertFalse(Arrays.equals(results.split("\\|"), caseSensitive.partialSearch(FALSE_SEARCH)));
 
-    try {
-      caseInsensitive.partialSearch(word);
-      AssertJUnit.fail("Should have thrown UnsupportedOperationException");
-    } catch (UnsupportedOperationException e) {
-      AssertJUnit.assertEquals(e.getClass(), UnsupportedOperationException.class);
-    } catch (Exception e) {
-      AssertJUnit.fail("Should have thrown UnsupportedOperationException, threw " + e.getMessage());
+    final List<String> ciResults = Arrays.asList(caseInsensitive.partialSearch(word.toUpperCase()));
+    for (String result : results.split("\\|")) {
+      AssertJUnit.assertTrue(ciResults.contains(WordLists.foldCase(result)));
+    }
+    for (String result : ciResults) {
+      AssertJUnit.assertEquals(WordLists.foldCase(result), result);
     }
   }
 
@@ -124,14 +124,51 @@ public class TernaryTreeDictionaryTest extends AbstractDictionaryTest
     AssertJUnit.assertArrayEquals(results.split("\\|"), caseSensitive.nearSearch(word, distance));
     AssertJUnit.assertFalse(Arrays.equals(results.split("\\|"), caseSensitive.nearSearch(FALSE_SEARCH, distance)));
 
+    final List<String> ciResults = Arrays.asList(caseInsensitive.nearSearch(word.toUpperCase(), distance));
+    for (String result : results.split("\\|")) {
+      AssertJUnit.assertTrue(ciResults.contains(WordLists.foldCase(result)));
+    }
+    for (String result : ciResults) {
+      AssertJUnit.assertEquals(WordLists.foldCase(result), result);
+    }
+  }
+
+
+  /**
+   * @param  word  to search for.
+   * @param  distance  for near search
+   * @param  results  case sensitive results
+   */
+  @Parameters({ "nearSearchWord", "nearSearchDistance", "nearSearchResults" })
+  @Test(groups = "ttdicttest")
+  public void limitedSearch(final String word, final int distance, final String results)
+  {
+    final List<String> expected = Arrays.asList(results.split("\\|"));
+    final String[] nearest = caseSensitive.nearSearch(word, distance, 2);
+    AssertJUnit.assertEquals(2, nearest.length);
+    AssertJUnit.assertEquals(word, nearest[0]);
+    AssertJUnit.assertTrue(expected.contains(nearest[1]));
+    final List<String> all = Arrays.asList(caseSensitive.nearSearch(word, distance, Integer.MAX_VALUE));
+    AssertJUnit.assertEquals(expected.size(), all.size());
+    AssertJUnit.assertTrue(all.containsAll(expected));
+    AssertJUnit.assertEquals(0, caseSensitive.nearSearch(word, distance, 1, () -> true).length);
+
+    final String[] partial = caseSensitive.partialSearch(".ix");
+    AssertJUnit.assertEquals(
+      Arrays.asList(partial).subList(0, 3), Arrays.asList(caseSensitive.partialSearch(".ix", 3)));
     try {
-      caseInsensitive.nearSearch(word, distance);
-      AssertJUnit.fail("Should have thrown UnsupportedOperationException");
-    } catch (UnsupportedOperationException e) {
-      AssertJUnit.assertEquals(e.getClass(), UnsupportedOperationException.class);
-    } catch (Exception e) {
-      AssertJUnit.fail("Should have thrown UnsupportedOperationException, threw " + e.getMessage());
+      caseSensitive.partialSearch(".ix", 0);
+      AssertJUnit.fail("Should have thrown IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      AssertJUnit.assertEquals(e.getClass(), IllegalArgumentException.class);
     }
+
+    final int[] polls = new int[1];
+    final int[] visited = new int[1];
+    AssertJUnit.assertFalse(
+      caseSensitive.nearSearch(FALSE_SEARCH, 3, (w, length) -> ++visited[0] > 0, () -> ++polls[0] > 2));
+    AssertJUnit.assertEquals(3, polls[0]);
+    AssertJUnit.assertTrue(caseSensitive.partialSearch(".ix", (w, length) -> true, () -> false));
   }
 
 
@@ -185,5 +222,8 @@ public class TernaryTreeDictionaryTest extends AbstractDictionaryTest
     final TernaryTreeDictionary sortCI = new TernaryTreeDictionary(awl);
     AssertJUnit.assertTrue(sortCI.search(ANIMAL_SEARCH_CS));
     AssertJUnit.assertTrue(sortCI.search(ANIMAL_SEARCH_CI));
+    AssertJUnit.assertArrayEquals(ANIMAL_PARTIAL_SEARCH_RESULTS_CI, sortCI.partialSearch(ANIMAL_PARTIAL_SEARCH));
+    AssertJUnit.assertArrayEquals(
+      ANIMAL_PARTIAL_SEARCH_RESULTS_CI, sortCI.partialSearch(ANIMAL_PARTIAL_SEARCH.toUpperCase()));
   }
 }
@@ -1,7 +1,9 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.dictionary;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import org.testng.Assert;
 import org.testng.AssertJUnit;
 import org.testng.annotations.AfterClass;
@@ -155,4 +157,45 @@ public class TernaryTreeTest
     System.out.println("Near search expected: " + Arrays.toString(expected));
     Assert.assertEquals(actual, expected);
   }
+
+
+  /** Test traversal with a visitor and the word count. */
+  @Test(groups = "tttest")
+  public void visitWords()
+  {
+    final List<String> words = caseSensitive.getWords();
+    AssertJUnit.assertEquals(caseSensitive.getWordCount(), words.size());
+    for (int i = 1; i < words.size(); i++) {
+      AssertJUnit.assertTrue(words.get(i - 1).compareTo(words.get(i)) < 0);
+    }
+
+    final List<String> visited = new ArrayList<>();
+    AssertJUnit.assertFalse(caseSensitive.visitWords((w, length) -> {
+      visited.add(new String(w, 0, length));
+      return visited.size() < 10;
+    }));
+    AssertJUnit.assertEquals(words.subList(0, 10), visited);
+
+    final int[] count = new int[1];
+    AssertJUnit.assertTrue(caseSensitive.nearSearch("Jicaque", 2, (w, length) -> ++count[0] > 0));
+    AssertJUnit.assertEquals(4, count[0]);
+    AssertJUnit.assertFalse(caseSensitive.partialSearch(".ix", (w, length) -> w[0] != 'f'));
+  }
+
+
+  /** Test a degenerate tree whose depth is the number of words. */
+  @Test(groups = "tttest")
+  public void unbalanced()
+  {
+    final TernaryTree tt = new TernaryTree();
+    final int n = 10000;
+    for (int i = 0; i < n; i++) {
+      tt.insert(String.valueOf((char) ('!' + i)));
+    }
+    AssertJUnit.assertEquals(n, tt.getWordCount());
+    AssertJUnit.assertEquals(n, tt.getWords().size());
+    AssertJUnit.assertTrue(tt.search(String.valueOf((char) ('!' + n - 1))));
+    AssertJUnit.assertEquals(n, tt.partialSearch(".").length);
+    AssertJUnit.assertEquals(n, tt.nearSearch("!", 1).length);
+  }
 }
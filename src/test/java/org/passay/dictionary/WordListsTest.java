@@ -1,14 +1,25 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.passay.dictionary;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 import org.passay.dictionary.sort.ArraysSort;
 import org.testng.AssertJUnit;
 import org.testng.annotations.AfterClass;
@@ -192,4 +203,104 @@ public class WordListsTest
     AssertJUnit.assertTrue(words.contains("good"));
     AssertJUnit.assertFalse(words.contains("newbies"));
   }
+
+
+  /**
+   * Test for {@link WordLists#streamWords(Reader)}.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "wltest")
+  public void testStreamWords() throws Exception
+  {
+    final List<String> expected = new ArrayList<>();
+    try (InputStream in = getClass().getResourceAsStream("/eign")) {
+      WordLists.readWords(in, "UTF-8", expected);
+    }
+    try (Stream<String> words = WordLists.streamWords(
+        getClass().getResourceAsStream("/eign"), StandardCharsets.UTF_8)) {
+      AssertJUnit.assertEquals(expected, words.collect(Collectors.toList()));
+    }
+    final AtomicBoolean closed = new AtomicBoolean();
+    final Reader reader = new StringReader("a\n\nb\r\nc\n")
+    {
+      @Override
+      public void close()
+      {
+        closed.set(true);
+        super.close();
+      }
+    };
+    try (Stream<String> words = WordLists.streamWords(reader)) {
+      final Iterator<String> i = words.iterator();
+      AssertJUnit.assertEquals("a", i.next());
+      AssertJUnit.assertEquals("b", i.next());
+      AssertJUnit.assertEquals("c", i.next());
+      AssertJUnit.assertFalse(i.hasNext());
+    }
+    AssertJUnit.assertTrue(closed.get());
+  }
+
+
+  /**
+   * Test for {@link WordLists#streamZippedWords(InputStream, java.nio.charset.Charset, java.util.function.Predicate)}.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "wltest")
+  public void testStreamZippedWords() throws Exception
+  {
+    final List<String> expected = new ArrayList<>();
+    try (InputStream in = getClass().getResourceAsStream("/eign.zip")) {
+      WordLists.readZippedWords(in, "UTF-8", null, expected);
+    }
+    try (Stream<String> words = WordLists.streamZippedWords(
+        getClass().getResourceAsStream("/eign.zip"), StandardCharsets.UTF_8, null)) {
+      AssertJUnit.assertEquals(expected, words.collect(Collectors.toList()));
+    }
+    try (Stream<String> words = WordLists.streamZippedWords(
+        getClass().getResourceAsStream("/eign.zip"), StandardCharsets.UTF_8, e -> e.getName().startsWith("ei"))) {
+      final Set<String> set = words.collect(Collectors.toSet());
+      AssertJUnit.assertTrue(set.contains("good"));
+      AssertJUnit.assertFalse(set.contains("newbies"));
+    }
+  }
+
+
+  /**
+   * Test for {@link WordLists#streamGzippedWords(InputStream, java.nio.charset.Charset)}.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "wltest")
+  public void testStreamGzippedWords() throws Exception
+  {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+      writer.write("tschüss\n\nauf wiedersehen\n");
+    }
+    try (Stream<String> words = WordLists.streamGzippedWords(
+        new ByteArrayInputStream(bytes.toByteArray()), StandardCharsets.UTF_8)) {
+      AssertJUnit.assertEquals(Arrays.asList("tschüss", "auf wiedersehen"), words.collect(Collectors.toList()));
+    }
+  }
+
+
+  /** Test for {@link WordLists#foldCase(String)}. */
+  @Test(groups = "wltest")
+  public void testFoldCase()
+  {
+    final String folded = "straße";
+    AssertJUnit.assertSame(folded, WordLists.foldCase(folded));
+    AssertJUnit.assertEquals(folded, WordLists.foldCase("STRAßE"));
+    final String[] words = {"Apfel", "apfel", "ÄRGER", "µ", "Μ", "ǅ", "ǆ", "ı", "I", "ſ", "S", "Zebra", "€uro"};
+    for (String a : words) {
+      for (String b : words) {
+        AssertJUnit.assertEquals(
+          a + " " + b,
+          Integer.signum(a.compareToIgnoreCase(b)),
+          Integer.signum(WordLists.foldCase(a).compareTo(WordLists.foldCase(b))));
+      }
+    }
+  }
 }